@@ -0,0 +1,37 @@
+package com.lendico.iban.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+
+/**
+ * Check digit calculation of ibans held as String and as char array. Invalid character input
+ * takes the exception path, the other inputs only differ in their check digit or length.
+ * @author noman
+ */
+@State(Scope.Thread)
+public class CheckDigitBenchmark extends AbstractIbanBenchmark {
+	private int index;
+
+	@Benchmark
+	public Object calculateCheckDigit(IbanData data) {
+		try {
+			return IbanUtil.calculateCheckDigit(data.iban(index++));
+		} catch (IbanServiceException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object calculateCheckDigitOfChars(IbanData data) {
+		final char[] iban = data.ibanChars(index++);
+		try {
+			return IbanUtil.calculateCheckDigit(iban, 0, iban.length);
+		} catch (IbanServiceException e) {
+			return e;
+		}
+	}
+}
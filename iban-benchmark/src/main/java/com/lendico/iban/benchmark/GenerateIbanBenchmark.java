@@ -0,0 +1,84 @@
+package com.lendico.iban.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+
+/**
+ * Iban generation from bank code and account number, random generation per country, and the
+ * rejection of a country without iban structure.
+ * @author noman
+ */
+@State(Scope.Thread)
+public class GenerateIbanBenchmark extends AbstractIbanBenchmark {
+
+	/**
+	 * Country and seeding of random generation, the countries are those of {@link IbanData}.
+	 */
+	@State(Scope.Benchmark)
+	public static class RandomData {
+		@Param({ "NO", "DE", "GB", "FR", "MT", "LC" })
+		public String countryCode;
+
+		@Param({ "threadLocal", "seeded" })
+		public String random;
+
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+
+		String[] countryCodes;
+
+		@Setup
+		public void setUp() {
+			if ("seeded".equals(random)) {
+				ibanService.setRandomSeed(IbanData.SEED);
+			}
+			countryCodes = IbanData.countryCodes(countryCode).toArray(new String[0]);
+		}
+	}
+
+	/**
+	 * Service for the unsupported country path, not crossed with the country parameter.
+	 */
+	@State(Scope.Benchmark)
+	public static class UnsupportedCountryData {
+		static final String COUNTRY_CODE = "US";
+
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+	}
+
+	private int index;
+
+	@Benchmark
+	public Object generateIban(GenerateIbanData data) {
+		final String[] input = data.input(index++);
+		try {
+			return data.ibanService.generateIban(input[0], input[1], input[2]);
+		} catch (IbanServiceException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object generateRandomIbanForCountry(RandomData data) {
+		final String countryCode = data.countryCodes[(index++ & Integer.MAX_VALUE) % data.countryCodes.length];
+		try {
+			return data.ibanService.generateRandomIbanForCountry(countryCode);
+		} catch (IbanServiceException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public Object generateRandomIbanForUnsupportedCountry(UnsupportedCountryData data) {
+		try {
+			return data.ibanService.generateRandomIbanForCountry(UnsupportedCountryData.COUNTRY_CODE);
+		} catch (IbanServiceException e) {
+			return e;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.lendico.iban.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.lendico.iban.structure.IbanAttribute;
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Country code, bank code and account number taken apart from random ibans of one country, for
+ * the countries {@link IbanServiceImpl#generateIban(String, String, String)} supports, those of
+ * bank code and account number only. As for {@link IbanData} each default country is scored on
+ * its own, -p countryCode=ALL mixes all supported countries.
+ * @author noman
+ */
+@State(Scope.Benchmark)
+public class GenerateIbanData {
+	private static final int INPUTS_PER_COUNTRY = 64;
+
+	public enum Input {
+		valid,
+		invalidCharacter,
+		invalidLength
+		;
+	}
+
+	@Param({ "AT", "DE", "NL", "CH", "LC" })
+	public String countryCode;
+
+	@Param({ "valid", "invalidCharacter", "invalidLength" })
+	public Input input;
+
+	final IbanServiceImpl ibanService = new IbanServiceImpl();
+
+	private String[][] inputs;
+
+	@Setup
+	public void setUp() throws IbanServiceException {
+		final IbanServiceImpl randomService = new IbanServiceImpl();
+		randomService.setRandomSeed(IbanData.SEED);
+		final List<String[]> result = new ArrayList<String[]>();
+		for (final String country : IbanData.countryCodes(countryCode)) {
+			final List<IbanAttribute> ibanAttributes =
+					DefaultIbanStructure.getIbanAttributeForCountry(CountryCode.getByCode(country));
+			if (!isBankCodeAndAccountNumber(ibanAttributes)) {
+				continue;
+			}
+			for (final String iban : randomService.generateRandomIbans(country, INPUTS_PER_COUNTRY)) {
+				result.add(toInput(country, iban, ibanAttributes));
+			}
+		}
+		if (result.isEmpty()) {
+			throw new IllegalArgumentException("generateIban does not support " + countryCode);
+		}
+		this.inputs = result.toArray(new String[result.size()][]);
+	}
+
+	String[] input(final int index) {
+		return inputs[(index & Integer.MAX_VALUE) % inputs.length];
+	}
+
+	private static boolean isBankCodeAndAccountNumber(final List<IbanAttribute> ibanAttributes) {
+		for (final IbanAttribute ibanAttribute : ibanAttributes) {
+			switch (ibanAttribute.getAttributeType()) {
+			case bankCode:
+			case accountNumber:
+				break;
+			default:
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String[] toInput(final String country, final String iban, final List<IbanAttribute> ibanAttributes) {
+		final StringBuilder bankCode = new StringBuilder();
+		final StringBuilder accountNumber = new StringBuilder();
+		int index = 4;
+		for (final IbanAttribute ibanAttribute : ibanAttributes) {
+			final String value = iban.substring(index, index + ibanAttribute.getAttributeLength());
+			switch (ibanAttribute.getAttributeType()) {
+			case bankCode:
+				bankCode.append(value);
+				break;
+			default:
+				accountNumber.append(value);
+				break;
+			}
+			index += ibanAttribute.getAttributeLength();
+		}
+		switch (input) {
+		case invalidCharacter:
+			accountNumber.setCharAt(accountNumber.length() - 1, '*');
+			break;
+		case invalidLength:
+			accountNumber.setLength(accountNumber.length() - 1);
+			break;
+		default:
+			break;
+		}
+		return new String[] { country, bankCode.toString(), accountNumber.toString() };
+	}
+}
@@ -0,0 +1,48 @@
+package com.lendico.iban.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with the GC profiler, so throughput and allocation
+ * per operation are reported for each. Arguments are JMH command line options, the thread counts
+ * are read from the system property threads, by default 1, 2, 4 and all available processors.
+ * Results are written to jmh-result-&lt;threads&gt;.csv. Country parameters report each country on
+ * its own, -p countryCode=DE narrows a run to one country and -p countryCode=ALL mixes all
+ * supported countries into one score.
+ * @author noman
+ */
+public class IbanBenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		for (final int threads : threadCounts()) {
+			new Runner(new OptionsBuilder()
+					.parent(commandLineOptions)
+					.threads(threads)
+					.addProfiler(GCProfiler.class)
+					.resultFormat(ResultFormatType.CSV)
+					.result("jmh-result-" + threads + ".csv")
+					.build()).run();
+		}
+	}
+
+	private static int[] threadCounts() {
+		final String threads = System.getProperty("threads");
+		if (threads != null) {
+			final String[] values = threads.split(",");
+			final int[] threadCounts = new int[values.length];
+			for (int i = 0; i < values.length; i++) {
+				threadCounts[i] = Integer.parseInt(values[i].trim());
+			}
+			return threadCounts;
+		}
+		final int processors = Runtime.getRuntime().availableProcessors();
+		return processors > 4 ? new int[] { 1, 2, 4, processors } : new int[] { 1, 2, 4 };
+	}
+}
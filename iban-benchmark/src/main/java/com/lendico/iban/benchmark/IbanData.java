@@ -0,0 +1,98 @@
+package com.lendico.iban.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Ibans of one country, shared by all threads. The countries by default span the shortest and
+ * longest ibans, digits only, letters in the bank code and alphanumeric account numbers, each is
+ * scored on its own. Other countries are given with -p countryCode=DE,PL, all supported countries
+ * mixed into one score with -p countryCode=ALL. The input parameter selects valid ibans or one
+ * kind of invalid iban.
+ * @author noman
+ */
+@State(Scope.Benchmark)
+public class IbanData {
+	static final String ALL_COUNTRIES = "ALL";
+	static final long SEED = 20170101L;
+	private static final int IBANS_PER_COUNTRY = 64;
+
+	public enum Input {
+		valid,
+		invalidCheckDigit,
+		invalidCharacter,
+		invalidLength
+		;
+	}
+
+	@Param({ "NO", "DE", "GB", "FR", "MT", "LC" })
+	public String countryCode;
+
+	@Param({ "valid", "invalidCheckDigit", "invalidCharacter", "invalidLength" })
+	public Input input;
+
+	private String[] ibans;
+	private char[][] ibanChars;
+
+	@Setup
+	public void setUp() throws IbanServiceException {
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.setRandomSeed(SEED);
+		final List<String> result = new ArrayList<String>();
+		for (final String country : countryCodes(countryCode)) {
+			for (final String iban : ibanService.generateRandomIbans(country, IBANS_PER_COUNTRY)) {
+				result.add(toInput(iban, input));
+			}
+		}
+		this.ibans = result.toArray(new String[result.size()]);
+		this.ibanChars = new char[ibans.length][];
+		for (int i = 0; i < ibans.length; i++) {
+			ibanChars[i] = ibans[i].toCharArray();
+		}
+	}
+
+	String iban(final int index) {
+		return ibans[(index & Integer.MAX_VALUE) % ibans.length];
+	}
+
+	char[] ibanChars(final int index) {
+		return ibanChars[(index & Integer.MAX_VALUE) % ibanChars.length];
+	}
+
+	static List<String> countryCodes(final String countryCode) {
+		final List<String> countryCodes = new ArrayList<String>();
+		if (ALL_COUNTRIES.equals(countryCode)) {
+			for (final CountryCode supportedCountry : DefaultIbanStructure.supportedCountries()) {
+				countryCodes.add(supportedCountry.getAlpha2());
+			}
+		} else {
+			countryCodes.add(countryCode);
+		}
+		return countryCodes;
+	}
+
+	private static String toInput(final String iban, final Input input) {
+		switch (input) {
+		case invalidCheckDigit:
+			final int checkDigit = Integer.parseInt(iban.substring(2, 4));
+			final int wrongCheckDigit = checkDigit == 98 ? 2 : checkDigit + 1;
+			return iban.substring(0, 2) + (wrongCheckDigit > 9 ? "" : "0") + wrongCheckDigit + iban.substring(4);
+		case invalidCharacter:
+			return iban.substring(0, iban.length() - 1) + '*';
+		case invalidLength:
+			return iban.substring(0, iban.length() - 1);
+		default:
+			return iban;
+		}
+	}
+}
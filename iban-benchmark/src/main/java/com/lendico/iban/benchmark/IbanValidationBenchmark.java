@@ -0,0 +1,40 @@
+package com.lendico.iban.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+import com.lendico.iban.util.IbanValidationResult;
+
+/**
+ * Validation of ibans, the throwing {@link IbanUtil#validate(String)} and its non throwing
+ * counterparts.
+ * @author noman
+ */
+@State(Scope.Thread)
+public class IbanValidationBenchmark extends AbstractIbanBenchmark {
+	private int index;
+
+	@Benchmark
+	public Object validate(IbanData data) {
+		final String iban = data.iban(index++);
+		try {
+			IbanUtil.validate(iban);
+			return iban;
+		} catch (IbanServiceException e) {
+			return e;
+		}
+	}
+
+	@Benchmark
+	public IbanValidationResult tryValidate(IbanData data) {
+		return IbanUtil.tryValidate(data.iban(index++));
+	}
+
+	@Benchmark
+	public boolean isValid(IbanData data) {
+		return IbanUtil.isValid(data.iban(index++));
+	}
+}
@@ -0,0 +1,302 @@
+package com.lendico.iban.bank;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.structure.AttributeType;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.lendico.iban.util.IbanUtil;
+import com.lendico.iban.util.IbanValidationResult;
+
+/**
+ * Bank codes of one country with their BIC, read from a directory file written by
+ * {@link BankDirectoryWriter}. The file is memory mapped and searched in place, nothing is
+ * parsed into objects on opening and lookups by bank code allocate nothing. Thread safe.
+ * <p>
+ * Format: magic <code>BD</code>, version byte, bank code length byte, the two letters of the
+ * country, two reserved bytes and the record count as int. The records follow sorted by bank
+ * code, each holds the bank code, the BIC padded with spaces to 11 bytes and the two characters
+ * of the national check digit method.
+ * <p>
+ * For German banks {@link #checkBank(CharSequence)} also checks the account number with the
+ * method of the bank, see {@link GermanCheckDigits}. Accounts of banks whose method is not
+ * implemented fail unless the directory is opened with {@link UncheckedAccountPolicy#pass},
+ * {@link #countUncheckedBanks()} tells how many banks that concerns.
+ * @author noman
+ */
+public final class BankDirectory {
+	static final byte[] MAGIC = {'B', 'D'};
+	static final int VERSION = 1;
+	static final int HEADER_LENGTH = 12;
+	static final int BIC_LENGTH = 11;
+	static final int CHECK_METHOD_LENGTH = 2;
+
+	private static final int IBAN_INDEX = 4;
+
+	private final ByteBuffer data;
+	private final String countryCode;
+	private final int bankCodeLength;
+	private final int recordLength;
+	private final int size;
+	/** Index of the bank code in the iban. */
+	private final int bankCodeIndex;
+	/** Index of the account number in the iban, -1 if the directory has no national check digit methods. */
+	private final int accountIndex;
+	private final UncheckedAccountPolicy uncheckedAccountPolicy;
+
+	private BankDirectory(final ByteBuffer data, final UncheckedAccountPolicy uncheckedAccountPolicy) throws IOException {
+		this.data = data;
+		this.uncheckedAccountPolicy = uncheckedAccountPolicy;
+		if (data.limit() < HEADER_LENGTH || data.get(0) != MAGIC[0] || data.get(1) != MAGIC[1] || data.get(2) != VERSION) {
+			throw new IOException("Not a bank directory of version " + VERSION);
+		}
+		this.bankCodeLength = data.get(3) & 0xFF;
+		final char first = (char) data.get(4);
+		final char second = (char) data.get(5);
+		this.countryCode = new String(new char[] { first, second });
+		this.recordLength = bankCodeLength + BIC_LENGTH + CHECK_METHOD_LENGTH;
+		this.size = data.getInt(8);
+		if (size < 0 || (long) HEADER_LENGTH + (long) size * recordLength > data.limit()) {
+			throw new IOException("Bank directory is truncated");
+		}
+		final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(first, second);
+		if (countryStructure == null
+				|| countryStructure.getAttributeLength(AttributeType.bankCode) != bankCodeLength) {
+			throw new IOException(String.format("Bank codes of %s do not have %d characters", countryCode, bankCodeLength));
+		}
+		this.bankCodeIndex = IBAN_INDEX + countryStructure.getAttributeOffset(AttributeType.bankCode);
+		this.accountIndex = "DE".equals(countryCode)
+				&& countryStructure.getAttributeLength(AttributeType.accountNumber) == GermanCheckDigits.ACCOUNT_LENGTH
+				? IBAN_INDEX + countryStructure.getAttributeOffset(AttributeType.accountNumber) : -1;
+	}
+
+	/**
+	 * Maps the file, it stays mapped as long as the directory is used. Accounts that can not be
+	 * checked fail.
+	 */
+	public static BankDirectory open(final Path file) throws IOException {
+		return open(file, UncheckedAccountPolicy.fail);
+	}
+
+	public static BankDirectory open(final Path file, final UncheckedAccountPolicy uncheckedAccountPolicy) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new BankDirectory(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), uncheckedAccountPolicy);
+		}
+	}
+
+	/**
+	 * @param data the directory, read with absolute gets only. Accounts that can not be checked fail.
+	 */
+	public static BankDirectory wrap(final ByteBuffer data) throws IOException {
+		return wrap(data, UncheckedAccountPolicy.fail);
+	}
+
+	public static BankDirectory wrap(final ByteBuffer data, final UncheckedAccountPolicy uncheckedAccountPolicy) throws IOException {
+		return new BankDirectory(data, uncheckedAccountPolicy);
+	}
+
+	public String getCountryCode() {
+		return countryCode;
+	}
+
+	/**
+	 * @return number of bank codes
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean containsBankCode(final CharSequence bankCode) {
+		return indexOfBankCode(bankCode) >= 0;
+	}
+
+	/**
+	 * @return index of the bank code, -1 if it is unknown
+	 */
+	public int indexOfBankCode(final CharSequence bankCode) {
+		if (bankCode == null || bankCode.length() != bankCodeLength) {
+			return -1;
+		}
+		return binarySearch(bankCode, 0);
+	}
+
+	/**
+	 * @return index of the bank of the iban, -1 if it is unknown or the iban is of another country
+	 */
+	public int indexOfBank(final CharSequence iban) {
+		if (iban == null || iban.length() < bankCodeIndex + bankCodeLength
+				|| iban.charAt(0) != countryCode.charAt(0) || iban.charAt(1) != countryCode.charAt(1)) {
+			return -1;
+		}
+		return binarySearch(iban, bankCodeIndex);
+	}
+
+	public String getBankCode(final int index) {
+		return toString(recordStart(index), bankCodeLength);
+	}
+
+	/**
+	 * @return the BIC of the bank at index, null if the directory has none
+	 */
+	public String getBic(final int index) {
+		final int bicLength = bicLength(index);
+		return bicLength == 0 ? null : toString(recordStart(index) + bankCodeLength, bicLength);
+	}
+
+	/**
+	 * Allocation free counterpart of {@link #getBic(int)}.
+	 * @return number of characters written, 0 if the directory has no BIC of the bank
+	 */
+	public int copyBic(final int index, final char[] buffer, final int offset) {
+		final int bicStart = recordStart(index) + bankCodeLength;
+		final int bicLength = bicLength(index);
+		for (int i = 0; i < bicLength; i++) {
+			buffer[offset + i] = (char) (data.get(bicStart + i) & 0xFF);
+		}
+		return bicLength;
+	}
+
+	/**
+	 * @return the BIC of the bank of the iban, null if the bank is unknown or has none
+	 */
+	public String getBic(final CharSequence iban) {
+		final int index = indexOfBank(iban);
+		return index < 0 ? null : getBic(index);
+	}
+
+	/**
+	 * @return the two characters naming the national check digit method of the bank at index
+	 */
+	public String getCheckMethod(final int index) {
+		return toString(recordStart(index) + bankCodeLength + BIC_LENGTH, CHECK_METHOD_LENGTH);
+	}
+
+	/**
+	 * @return index of the national check digit method of the bank at index in the tables of
+	 * {@link GermanCheckDigits}, -1 if the directory names none
+	 */
+	public int getCheckMethodIndex(final int index) {
+		final int checkMethodStart = recordStart(index) + bankCodeLength + BIC_LENGTH;
+		return GermanCheckDigits.methodIndex((char) (data.get(checkMethodStart) & 0xFF),
+				(char) (data.get(checkMethodStart + 1) & 0xFF));
+	}
+
+	/**
+	 * @return number of banks whose accounts are not checked because their national check digit
+	 * method is not implemented, 0 if the country has none
+	 */
+	public int countUncheckedBanks() {
+		if (accountIndex < 0) {
+			return 0;
+		}
+		int count = 0;
+		for (int index = 0; index < size; index++) {
+			if (!GermanCheckDigits.isImplemented(getCheckMethodIndex(index))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @param index of the bank of the iban
+	 * @return the outcome of the national check digit method of the bank for the account number
+	 * of the iban, {@link NationalCheckResult#notChecked} if the country has none
+	 */
+	public NationalCheckResult checkAccount(final int index, final CharSequence iban) {
+		return accountIndex < 0 ? NationalCheckResult.notChecked
+				: GermanCheckDigits.check(getCheckMethodIndex(index), iban, accountIndex);
+	}
+
+	/**
+	 * Checks the bank code of an iban that passed {@link IbanUtil#tryValidate(CharSequence)}, and
+	 * for German banks its account number. Ibans of other countries are valid.
+	 */
+	public IbanValidationResult checkBank(final CharSequence iban) {
+		if (iban.charAt(0) != countryCode.charAt(0) || iban.charAt(1) != countryCode.charAt(1)) {
+			return IbanValidationResult.valid();
+		}
+		final int index = indexOfBank(iban);
+		if (index < 0) {
+			return IbanValidationResult.invalid(IbanExceptionType.unknownBankCode, bankCodeIndex, iban);
+		}
+		if (accountIndex >= 0) {
+			switch (checkAccount(index, iban)) {
+			case invalid:
+				return IbanValidationResult.invalid(IbanExceptionType.invalidNationalCheckDigit, accountIndex, iban);
+			case notChecked:
+				if (uncheckedAccountPolicy == UncheckedAccountPolicy.fail) {
+					return IbanValidationResult.invalid(IbanExceptionType.uncheckedNationalCheckDigit, accountIndex, iban);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		return IbanValidationResult.valid();
+	}
+
+	/**
+	 * Validates the iban and, if it is valid, its bank code and account number.
+	 */
+	public IbanValidationResult validate(final CharSequence iban) {
+		final IbanValidationResult result = IbanUtil.tryValidate(iban);
+		return result.isValid() ? checkBank(iban) : result;
+	}
+
+	private int binarySearch(final CharSequence chars, final int offset) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final int compare = compare(recordStart(middle), chars, offset);
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	private int compare(final int recordStart, final CharSequence chars, final int offset) {
+		for (int i = 0; i < bankCodeLength; i++) {
+			final int difference = (data.get(recordStart + i) & 0xFF) - chars.charAt(offset + i);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return 0;
+	}
+
+	private int bicLength(final int index) {
+		final int bicStart = recordStart(index) + bankCodeLength;
+		int bicLength = BIC_LENGTH;
+		while (bicLength > 0 && data.get(bicStart + bicLength - 1) == ' ') {
+			bicLength--;
+		}
+		return bicLength;
+	}
+
+	private int recordStart(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(String.format("Index %d is not below %d", index, size));
+		}
+		return HEADER_LENGTH + index * recordLength;
+	}
+
+	private String toString(final int start, final int length) {
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) (data.get(start + i) & 0xFF);
+		}
+		return new String(chars);
+	}
+}
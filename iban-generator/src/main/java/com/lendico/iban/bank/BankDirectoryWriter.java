@@ -0,0 +1,155 @@
+package com.lendico.iban.bank;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.lendico.iban.structure.AttributeType;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+
+/**
+ * Encodes a bank directory into the form read by {@link BankDirectory}.
+ * Usage: <code>BankDirectoryWriter &lt;blz.txt&gt; &lt;bank-directory.bin&gt;</code> for the
+ * bank code file of the Deutsche Bundesbank, or
+ * <code>BankDirectoryWriter &lt;countryCode&gt; &lt;banks.csv&gt; &lt;bank-directory.bin&gt;</code>
+ * for lines of <code>bankCode;bic</code>.
+ * @author noman
+ */
+public class BankDirectoryWriter {
+	private static final int BLZ_LENGTH = 8;
+	private static final int FEATURE_INDEX = 8;
+	private static final int BIC_INDEX = 139;
+	private static final int CHECK_METHOD_INDEX = 150;
+	private static final int CHANGE_INDEX = 158;
+	private static final int BUNDESBANK_LINE_LENGTH = CHANGE_INDEX + 1;
+	private static final String NO_CHECK_METHOD = "  ";
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2 && args.length != 3) {
+			System.err.println("Usage: BankDirectoryWriter <blz.txt> <bank-directory.bin>");
+			System.err.println("       BankDirectoryWriter <countryCode> <banks.csv> <bank-directory.bin>");
+			System.exit(1);
+		}
+		final byte[] directory;
+		try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(args[args.length - 2])),
+				StandardCharsets.ISO_8859_1)) {
+			directory = args.length == 2 ? encodeBundesbank(reader) : encodeCsv(args[0], reader);
+		}
+		try (OutputStream outputStream = Files.newOutputStream(Paths.get(args[args.length - 1]))) {
+			outputStream.write(directory);
+		}
+		final BankDirectory bankDirectory = BankDirectory.wrap(ByteBuffer.wrap(directory));
+		final int unchecked = bankDirectory.countUncheckedBanks();
+		if (unchecked > 0) {
+			System.err.println(String.format("%d of %d banks use a check digit method that is not implemented, "
+					+ "their accounts fail unless the directory is opened with UncheckedAccountPolicy.pass",
+					unchecked, bankDirectory.size()));
+		}
+	}
+
+	/**
+	 * Reads the fixed width bank code file of the Deutsche Bundesbank. A bank code has a line per
+	 * branch, the BIC and check method are taken from the line of the main office. Deleted bank
+	 * codes are skipped.
+	 */
+	public static byte[] encodeBundesbank(final Reader reader) throws IOException {
+		final Map<String, String[]> banks = new TreeMap<String, String[]>();
+		final BufferedReader lines = new BufferedReader(reader);
+		String line;
+		while ((line = lines.readLine()) != null) {
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			if (line.length() < BUNDESBANK_LINE_LENGTH) {
+				throw new IOException("Line is too short for the Bundesbank format: " + line);
+			}
+			if (line.charAt(CHANGE_INDEX) == 'D') {
+				continue;
+			}
+			final String bankCode = line.substring(0, BLZ_LENGTH);
+			if (!banks.containsKey(bankCode) || line.charAt(FEATURE_INDEX) == '1') {
+				banks.put(bankCode, new String[] { line.substring(BIC_INDEX, BIC_INDEX + BankDirectory.BIC_LENGTH).trim(),
+						line.substring(CHECK_METHOD_INDEX, CHECK_METHOD_INDEX + BankDirectory.CHECK_METHOD_LENGTH) });
+			}
+		}
+		return encode("DE", banks);
+	}
+
+	/**
+	 * Reads lines of <code>bankCode;bic</code>, the BIC may be left out. Empty lines and lines
+	 * starting with # are skipped.
+	 */
+	public static byte[] encodeCsv(final String countryCode, final Reader reader) throws IOException {
+		final Map<String, String[]> banks = new TreeMap<String, String[]>();
+		final BufferedReader lines = new BufferedReader(reader);
+		String line;
+		while ((line = lines.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			final String[] fields = line.split(";", -1);
+			banks.put(fields[0].trim(), new String[] { fields.length > 1 ? fields[1].trim() : "", NO_CHECK_METHOD });
+		}
+		return encode(countryCode, banks);
+	}
+
+	/**
+	 * @param banks BIC and check method by bank code, sorted by bank code
+	 */
+	private static byte[] encode(final String countryCode, final Map<String, String[]> banks) throws IOException {
+		final CountryStructure countryStructure = countryCode.length() == 2
+				? DefaultIbanStructure.getCountryStructure(countryCode.charAt(0), countryCode.charAt(1)) : null;
+		if (countryStructure == null) {
+			throw new IOException("Country code is not supported: " + countryCode);
+		}
+		final int bankCodeLength = countryStructure.getAttributeLength(AttributeType.bankCode);
+
+		final ByteArrayOutputStream directory = new ByteArrayOutputStream();
+		directory.write(BankDirectory.MAGIC);
+		directory.write(BankDirectory.VERSION);
+		directory.write(bankCodeLength);
+		directory.write(countryCode.charAt(0));
+		directory.write(countryCode.charAt(1));
+		directory.write(0);
+		directory.write(0);
+		final int size = banks.size();
+		directory.write(size >>> 24);
+		directory.write(size >>> 16);
+		directory.write(size >>> 8);
+		directory.write(size);
+		for (final Map.Entry<String, String[]> bank : banks.entrySet()) {
+			final String bankCode = bank.getKey();
+			final String bic = bank.getValue()[0];
+			if (bankCode.length() != bankCodeLength) {
+				throw new IOException(String.format("Bank code %s does not have %d characters", bankCode, bankCodeLength));
+			}
+			if (bic.length() > BankDirectory.BIC_LENGTH) {
+				throw new IOException(String.format("BIC %s of bank code %s is too long", bic, bankCode));
+			}
+			write(directory, bankCode, bankCodeLength);
+			write(directory, bic, BankDirectory.BIC_LENGTH);
+			write(directory, bank.getValue()[1], BankDirectory.CHECK_METHOD_LENGTH);
+		}
+		return directory.toByteArray();
+	}
+
+	/**
+	 * Writes value padded with spaces to length.
+	 */
+	private static void write(final ByteArrayOutputStream directory, final String value, final int length) {
+		for (int i = 0; i < length; i++) {
+			directory.write(i < value.length() ? value.charAt(i) : ' ');
+		}
+	}
+}
@@ -0,0 +1,459 @@
+package com.lendico.iban.bank;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Check digit methods of the Deutsche Bundesbank for German account numbers, named 00 to E4 in
+ * the bank code file. A plain method is a weighted sum over the digits left of the check digit,
+ * described by its weights, modulus and rule in primitive tables indexed by
+ * {@link #methodIndex(char, char)}. Methods with exceptions, alternatives, account ranges or
+ * shifted account layouts are a {@link LongPredicate} over the account number in a second column,
+ * built from the same sums. Checking an account allocates nothing.
+ * <p>
+ * Not implemented are the methods that need the bank code or tables of account prefixes, and
+ * the variants for accounts with a 9 in the third digit: 45, 51 to 54, 56, 57, 65, 66, 73 to 75,
+ * 80, 81, 83 to 87, 89, 90, 93, A1, A4, A8, B0, B6, B9, C0 to C2, C5, C6, D1, D4, D5, D7 and E0
+ * to E4 except E3. 12 is not assigned. Accounts of those banks are
+ * {@link NationalCheckResult#notChecked}, {@link #implementedMethodCount()} and
+ * {@link BankDirectory#countUncheckedBanks()} report the coverage.
+ * @author noman
+ */
+public final class GermanCheckDigits {
+	/** Length of a German account number, shorter ones are padded with leading zeros in the iban. */
+	public static final int ACCOUNT_LENGTH = 10;
+
+	private static final int METHOD_COUNT = 15 * 10;
+
+	private static final byte NOT_IMPLEMENTED = 0;
+	private static final byte NO_CHECK = 1;
+	/** Check digit is 10 minus the remainder mod 10, 0 for remainder 0. */
+	private static final byte MOD_10 = 2;
+	/** As {@link #MOD_10}, digit sums of the products are added instead of the products. */
+	private static final byte MOD_10_CROSS_SUM = 3;
+	/** As {@link #MOD_10}, the last digits of the products are added instead of the products. */
+	private static final byte MOD_10_UNITS = 4;
+	/** Check digit is 11 minus the remainder mod 11, 0 for remainder 0, the account is invalid for remainder 1. */
+	private static final byte MOD_11 = 5;
+	/** As {@link #MOD_11}, 0 for remainder 1. */
+	private static final byte MOD_11_ZERO_ON_ONE = 6;
+	/** As {@link #MOD_11}, 9 for remainder 1. */
+	private static final byte MOD_11_NINE_ON_ONE = 7;
+	/** Check digit is the remainder mod 11, the account is invalid for remainder 10. */
+	private static final byte MOD_11_REMAINDER = 8;
+	/** The method is the predicate of {@link #combinedByMethod}. */
+	private static final byte COMBINED = 9;
+
+	private static final long[] POWERS_OF_TEN = new long[ACCOUNT_LENGTH + 1];
+
+	/**
+	 * Iterated transformation of 27 and 29: the digits left of the check digit are replaced
+	 * with the rows 1, 2, 3, 4, 1, 2... from the right before they are added.
+	 */
+	private static final int[][] TRANSFORMATION = {
+		{ 0, 1, 5, 9, 3, 7, 4, 8, 2, 6 },
+		{ 0, 1, 7, 6, 9, 8, 3, 2, 5, 4 },
+		{ 0, 1, 8, 4, 6, 2, 9, 5, 7, 3 },
+		{ 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 },
+	};
+
+	private static final int[] ALTERNATING_6 = { 2, 1, 2, 1, 2, 1 };
+	private static final int[] ASCENDING_6 = { 2, 3, 4, 5, 6, 7 };
+
+	private static final byte[] ruleByMethod = new byte[METHOD_COUNT];
+	/** Weights of the digits from the one left of the check digit leftwards. */
+	private static final int[][] weightsByMethod = new int[METHOD_COUNT][];
+	/** Position of the check digit in the account, 1 to 10 from the left. */
+	private static final byte[] checkPositionByMethod = new byte[METHOD_COUNT];
+	/** Whether the account number passes a {@link #COMBINED} method. */
+	private static final LongPredicate[] combinedByMethod = new LongPredicate[METHOD_COUNT];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+
+		method("00", MOD_10_CROSS_SUM, 10, 2, 1, 2, 1, 2, 1, 2, 1, 2);
+		method("01", MOD_10, 10, 3, 7, 1, 3, 7, 1, 3, 7, 1);
+		method("02", MOD_11, 10, 2, 3, 4, 5, 6, 7, 8, 9, 2);
+		method("03", MOD_10, 10, 2, 1, 2, 1, 2, 1, 2, 1, 2);
+		method("04", MOD_11, 10, 2, 3, 4, 5, 6, 7, 2, 3, 4);
+		method("05", MOD_10, 10, 7, 3, 1, 7, 3, 1, 7, 3, 1);
+		method("06", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 2, 3, 4);
+		method("07", MOD_11, 10, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		method("09", NO_CHECK, 10);
+		method("10", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		method("11", MOD_11_NINE_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		method("14", MOD_11, 10, 2, 3, 4, 5, 6, 7);
+		method("15", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5);
+		method("18", MOD_10, 10, 3, 9, 7, 1, 3, 9, 7, 1, 3);
+		method("19", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 8, 9, 1);
+		method("20", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 8, 9, 3);
+		method("22", MOD_10_UNITS, 10, 3, 1, 3, 1, 3, 1, 3, 1, 3);
+		method("28", MOD_11_ZERO_ON_ONE, 8, 2, 3, 4, 5, 6, 7, 8);
+		method("30", MOD_10, 10, 2, 1, 2, 1, 0, 0, 0, 0, 2);
+		method("31", MOD_11_REMAINDER, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1);
+		method("32", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7);
+		method("33", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6);
+		method("34", MOD_11_ZERO_ON_ONE, 8, 2, 4, 8, 5, 10, 9, 7);
+		method("36", MOD_11_ZERO_ON_ONE, 10, 2, 4, 8, 5);
+		method("37", MOD_11_ZERO_ON_ONE, 10, 2, 4, 8, 5, 10);
+		method("38", MOD_11_ZERO_ON_ONE, 10, 2, 4, 8, 5, 10, 9);
+		method("39", MOD_11_ZERO_ON_ONE, 10, 2, 4, 8, 5, 10, 9, 7);
+		method("40", MOD_11_ZERO_ON_ONE, 10, 2, 4, 8, 5, 10, 9, 7, 3, 6);
+		method("42", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 8, 9);
+		method("43", MOD_10, 10, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		method("44", MOD_11_ZERO_ON_ONE, 10, 2, 4, 8, 5, 10);
+		method("46", MOD_11_ZERO_ON_ONE, 8, 2, 3, 4, 5, 6);
+		method("47", MOD_11_ZERO_ON_ONE, 9, 2, 3, 4, 5, 6);
+		method("48", MOD_11_ZERO_ON_ONE, 9, 2, 3, 4, 5, 6, 7);
+		method("55", MOD_11_ZERO_ON_ONE, 10, 2, 3, 4, 5, 6, 7, 8, 7, 8);
+		method("58", MOD_11, 10, 2, 3, 4, 5, 6);
+		method("60", MOD_10_CROSS_SUM, 10, 2, 1, 2, 1, 2, 1, 2);
+		method("62", MOD_10_CROSS_SUM, 8, 2, 1, 2, 1, 2);
+		method("64", MOD_11_ZERO_ON_ONE, 7, 2, 4, 8, 5, 10, 9);
+		method("67", MOD_10_CROSS_SUM, 8, 2, 1, 2, 1, 2, 1, 2);
+		method("72", MOD_10_CROSS_SUM, 10, 2, 1, 2, 1, 2, 1);
+		method("92", MOD_10, 10, 3, 7, 1, 3, 7, 1);
+		method("94", MOD_10_CROSS_SUM, 10, 1, 2, 1, 2, 1, 2, 1, 2, 1);
+
+		final int[] ascending7 = { 2, 3, 4, 5, 6, 7, 8 };
+		final int[] ascending8 = { 2, 3, 4, 5, 6, 7, 8, 9 };
+		final int[] ascending9 = { 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+		final int[] doubling5 = { 2, 4, 8, 5, 10 };
+		final int[] doubling6 = { 2, 4, 8, 5, 10, 9 };
+		final int[] descending6 = { 7, 6, 5, 4, 3, 2 };
+		final int[] weights26 = { 2, 3, 4, 5, 6, 7, 2 };
+		final int[] weights61 = { 2, 1, 2, 1, 2, 1, 2, 0, 1, 2 };
+		final int[] weights68 = { 2, 1, 2, 1, 2, 1, 0, 0, 2 };
+		final int[] weights71 = { 0, 0, 1, 2, 3, 4, 5, 6 };
+		final int[] weights77 = { 0, 0, 0, 0, 0, 5, 4, 3, 2, 1 };
+		final int[] alternative77 = { 0, 0, 0, 0, 0, 5, 4, 3, 4, 5 };
+		final int[] weights79 = { 2, 1, 2, 1, 2, 1, 2, 1 };
+		final int[] weights91 = { 10, 9, 8, 7, 6, 5, 0, 4, 3, 2 };
+		final int[] weights98 = { 3, 1, 7, 3, 1, 7, 3 };
+
+		combined("08", account -> account < 60000 || passes("00", account));
+		// the sub account 00 may be left out, shifting the account two digits to the left
+		combined("13", account -> passes13(account) || account < POWERS_OF_TEN[8] && passes13(shift(account, 2)));
+		combined("16", account -> {
+			final int remainder = sum(account, MOD_11, 10, weightsByMethod[methodIndex('0', '6')]) % 11;
+			return remainder == 1 ? digit(account, 9) == digit(account, 10) : matches(MOD_11, remainder, digit(account, 10));
+		});
+		combined("17", account -> {
+			final int remainder = (sum(account, MOD_10_CROSS_SUM, 8, ALTERNATING_6) - 1) % 11;
+			return digit(account, 8) == (remainder == 0 ? 0 : 10 - remainder);
+		});
+		combined("21", account -> {
+			int sum = sum(account, MOD_10_CROSS_SUM, 10, weightsByMethod[methodIndex('0', '0')]);
+			while (sum > 9) {
+				sum = sum / 10 + sum % 10;
+			}
+			return digit(account, 10) == (10 - sum) % 10;
+		});
+		combined("23", account -> {
+			final int remainder = sum(account, MOD_11, 7, ASCENDING_6) % 11;
+			return remainder == 1 ? digit(account, 6) == digit(account, 7) : matches(MOD_11, remainder, digit(account, 7));
+		});
+		combined("24", GermanCheckDigits::passes24);
+		combined("25", account -> {
+			final int remainder = sum(account, MOD_11, 10, ascending8) % 11;
+			return remainder == 1 ? digit(account, 10) == 0 && digit(account, 2) >= 8
+					: matches(MOD_11, remainder, digit(account, 10));
+		});
+		combined("26", account -> weighted(account < POWERS_OF_TEN[8] ? shift(account, 2) : account,
+				MOD_11_ZERO_ON_ONE, 8, weights26));
+		combined("27", account -> account < POWERS_OF_TEN[9] ? passes("00", account) : transformed(account));
+		combined("29", GermanCheckDigits::transformed);
+		combined("35", account -> {
+			final int remainder = sum(account, MOD_11, 10, ascending9) % 11;
+			return remainder == 10 ? digit(account, 9) == digit(account, 10) : digit(account, 10) == remainder;
+		});
+		combined("41", account -> digit(account, 4) == 9 ? weighted(account, MOD_10_CROSS_SUM, 10, ALTERNATING_6)
+				: passes("00", account));
+		combined("49", account -> passes("00", account) || passes("01", account));
+		// the sub account 000 may be left out, shifting the account three digits to the left
+		combined("50", account -> weighted(account, MOD_11_ZERO_ON_ONE, 7, ASCENDING_6)
+				|| account < POWERS_OF_TEN[7] && weighted(shift(account, 3), MOD_11_ZERO_ON_ONE, 7, ASCENDING_6));
+		combined("59", account -> account < POWERS_OF_TEN[8] || passes("00", account));
+		combined("61", account -> digit(account, 9) == 8
+				? matches(MOD_10_CROSS_SUM, sumByPosition(account, MOD_10_CROSS_SUM, weights61) % 10, digit(account, 8))
+				: passes("67", account));
+		combined("63", account -> digit(account, 1) == 0
+				&& (passes13(account) || account < POWERS_OF_TEN[7] && passes13(shift(account, 2))));
+		combined("68", account -> {
+			if (account >= POWERS_OF_TEN[9]) {
+				return digit(account, 4) == 9 && weighted(account, MOD_10_CROSS_SUM, 10, ALTERNATING_6);
+			}
+			return account >= 400000000 && account <= 499999999 || passes("00", account)
+					|| weighted(account, MOD_10_CROSS_SUM, 10, weights68);
+		});
+		combined("69", account -> {
+			if (account >= 9300000000L && account <= 9399999999L) {
+				return true;
+			}
+			if (account >= 9700000000L && account <= 9799999999L) {
+				return transformed(account);
+			}
+			return passes("28", account) || transformed(account);
+		});
+		combined("70", account -> digit(account, 4) == 5 || digit(account, 4) == 6 && digit(account, 5) == 9
+				? weighted(account, MOD_11_ZERO_ON_ONE, 10, ASCENDING_6) : passes("06", account));
+		combined("71", account -> {
+			final int remainder = sum(account, MOD_11, 10, weights71) % 11;
+			return digit(account, 10) == (remainder <= 1 ? remainder : 11 - remainder);
+		});
+		// the sub account 00 may be left out, shifting the account two digits to the left
+		combined("76", account -> passes76(account) || account < POWERS_OF_TEN[8] && passes76(shift(account, 2)));
+		combined("77", account -> sumByPosition(account, MOD_11, weights77) % 11 == 0
+				|| sumByPosition(account, MOD_11, alternative77) % 11 == 0);
+		combined("78", account -> account >= POWERS_OF_TEN[7] && account < POWERS_OF_TEN[8] || passes("00", account));
+		combined("79", account -> {
+			switch (digit(account, 1)) {
+			case 0:
+				return false;
+			case 1:
+			case 2:
+			case 9:
+				return weighted(account, MOD_10_CROSS_SUM, 9, weights79);
+			default:
+				return passes("00", account);
+			}
+		});
+		combined("82", account -> digit(account, 3) == 9 && digit(account, 4) == 9 ? passes("10", account)
+				: passes("33", account));
+		combined("88", account -> digit(account, 3) == 9 ? weighted(account, MOD_11_ZERO_ON_ONE, 10, ascending7)
+				: weighted(account, MOD_11_ZERO_ON_ONE, 10, ASCENDING_6));
+		combined("91", account -> weighted(account, MOD_11_ZERO_ON_ONE, 7, ASCENDING_6)
+				|| weighted(account, MOD_11_ZERO_ON_ONE, 7, descending6)
+				|| matches(MOD_11_ZERO_ON_ONE, sumByPosition(account, MOD_11, weights91) % 11, digit(account, 7))
+				|| weighted(account, MOD_11_ZERO_ON_ONE, 7, doubling6));
+		combined("95", account -> account >= 1 && account <= 1999999 || account >= 9000000 && account <= 25999999
+				|| account >= 396000000 && account <= 499999999 || account >= 700000000 && account <= 799999999
+				|| account >= 910000000 && account <= 989999999 || passes("06", account));
+		combined("96", account -> passes("19", account) || passes("00", account)
+				|| account >= 1300000 && account <= 99399999);
+		combined("97", account -> digit(account, 10) == (int) (account / 10 % 11 % 10));
+		combined("98", account -> weighted(account, MOD_10, 10, weights98)
+				|| passes("32", account));
+		combined("99", account -> account >= 396000000 && account <= 499999999 || passes("06", account));
+		combined("A0", account -> account < 1000 || weighted(account, MOD_11_ZERO_ON_ONE, 10, doubling5));
+		combined("A2", account -> passes("00", account) || passes("04", account));
+		combined("A3", account -> passes("00", account) || passes("10", account));
+		combined("A5", account -> passes("00", account) || digit(account, 1) != 9 && passes("10", account));
+		combined("A6", account -> digit(account, 2) == 8 ? passes("00", account) : passes("01", account));
+		combined("A7", account -> passes("00", account) || passes("03", account));
+		combined("A9", account -> passes("01", account) || passes("06", account));
+		combined("B1", account -> passes("05", account) || passes("01", account) || passes("00", account));
+		combined("B2", account -> digit(account, 1) <= 7 ? passes("02", account) : passes("00", account));
+		combined("B3", account -> digit(account, 1) <= 8 ? passes("32", account) : passes("06", account));
+		combined("B4", account -> digit(account, 1) == 9 ? passes("00", account)
+				: weighted(account, MOD_11, 10, ascending9));
+		combined("B5", account -> passes("05", account) || digit(account, 1) < 8 && passes("00", account));
+		// only the account ranges 0001000000 to 0005999999 and 0700000000 to 0899999999 are checked
+		combined("B7", account -> account < 1000000 || account > 5999999 && account < 700000000 || account > 899999999
+				|| passes("01", account));
+		combined("B8", account -> passes("20", account) || passes("29", account)
+				|| account >= 5100000000L && account <= 5999999999L || account >= 9010000000L && account <= 9109999999L);
+		combined("C3", account -> digit(account, 1) == 9 ? passes("58", account) : passes("00", account));
+		combined("C4", account -> digit(account, 1) == 9 ? passes("58", account) : passes("15", account));
+		combined("C7", account -> passes("63", account) || passes("06", account));
+		combined("C8", account -> passes("00", account) || passes("04", account) || passes("07", account));
+		combined("C9", account -> passes("00", account) || passes("07", account));
+		combined("D0", account -> digit(account, 1) == 5 && digit(account, 2) == 7 || passes("20", account));
+		combined("D2", account -> passes("95", account) || passes("00", account) || passes("68", account));
+		combined("D3", account -> passes("00", account) || passes("27", account));
+		combined("D6", account -> passes("07", account) || passes("03", account) || passes("00", account));
+		combined("D8", account -> account >= POWERS_OF_TEN[9] ? passes("00", account)
+				: account >= POWERS_OF_TEN[7] && account < POWERS_OF_TEN[8]);
+		combined("D9", account -> passes("00", account) || passes("10", account) || passes("18", account));
+		combined("E3", account -> passes("00", account) || passes("21", account));
+	}
+
+	private GermanCheckDigits() {
+	}
+
+	private static void method(final String name, final byte rule, final int checkPosition, final int... weights) {
+		final int method = methodIndex(name.charAt(0), name.charAt(1));
+		ruleByMethod[method] = rule;
+		checkPositionByMethod[method] = (byte) checkPosition;
+		weightsByMethod[method] = weights;
+	}
+
+	private static void combined(final String name, final LongPredicate check) {
+		final int method = methodIndex(name.charAt(0), name.charAt(1));
+		ruleByMethod[method] = COMBINED;
+		combinedByMethod[method] = check;
+	}
+
+	/**
+	 * @return index of the method named by the two characters, -1 if they name none
+	 */
+	public static int methodIndex(final char first, final char second) {
+		final int high = first >= '0' && first <= '9' ? first - '0' : first >= 'A' && first <= 'E' ? first - 'A' + 10 : -1;
+		if (high < 0 || second < '0' || second > '9') {
+			return -1;
+		}
+		return high * 10 + second - '0';
+	}
+
+	public static boolean isImplemented(final int method) {
+		return method >= 0 && method < METHOD_COUNT && ruleByMethod[method] != NOT_IMPLEMENTED;
+	}
+
+	/**
+	 * @return number of the methods 00 to E4 that are implemented
+	 */
+	public static int implementedMethodCount() {
+		int count = 0;
+		for (int method = 0; method < METHOD_COUNT; method++) {
+			if (isImplemented(method)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @param account the ten digits of the account number, starting at offset
+	 * @return whether the account passes the method, {@link NationalCheckResult#notChecked} for
+	 * methods not implemented
+	 */
+	public static NationalCheckResult check(final int method, final CharSequence account, final int offset) {
+		if (!isImplemented(method)) {
+			return NationalCheckResult.notChecked;
+		}
+		long number = 0;
+		for (int i = 0; i < ACCOUNT_LENGTH; i++) {
+			final char c = account.charAt(offset + i);
+			if (c < '0' || c > '9') {
+				return NationalCheckResult.invalid;
+			}
+			number = number * 10 + c - '0';
+		}
+		return passes(method, number) ? NationalCheckResult.valid : NationalCheckResult.invalid;
+	}
+
+	private static boolean passes(final int method, final long account) {
+		switch (ruleByMethod[method]) {
+		case NO_CHECK:
+			return true;
+		case COMBINED:
+			return combinedByMethod[method].test(account);
+		default:
+			return weighted(account, ruleByMethod[method], checkPositionByMethod[method], weightsByMethod[method]);
+		}
+	}
+
+	private static boolean passes(final String method, final long account) {
+		return passes(methodIndex(method.charAt(0), method.charAt(1)), account);
+	}
+
+	/**
+	 * @param position 1 to 10 from the left
+	 */
+	private static int digit(final long account, final int position) {
+		return (int) (account / POWERS_OF_TEN[ACCOUNT_LENGTH - position] % 10);
+	}
+
+	/**
+	 * @return the account with digits zeros appended and as many leading digits dropped
+	 */
+	private static long shift(final long account, final int digits) {
+		return account * POWERS_OF_TEN[digits] % POWERS_OF_TEN[ACCOUNT_LENGTH];
+	}
+
+	private static boolean weighted(final long account, final byte rule, final int checkPosition, final int[] weights) {
+		final int sum = sum(account, rule, checkPosition, weights);
+		return matches(rule, rule == MOD_10 || rule == MOD_10_CROSS_SUM || rule == MOD_10_UNITS ? sum % 10 : sum % 11,
+				digit(account, checkPosition));
+	}
+
+	/**
+	 * @param weights of the digits from the one left of the check digit leftwards
+	 */
+	private static int sum(final long account, final byte rule, final int checkPosition, final int[] weights) {
+		int sum = 0;
+		for (int i = 0; i < weights.length; i++) {
+			sum += product(rule, digit(account, checkPosition - 1 - i) * weights[i]);
+		}
+		return sum;
+	}
+
+	/**
+	 * @param weights of the ten digits from the left, 0 for the check digit
+	 */
+	private static int sumByPosition(final long account, final byte rule, final int[] weights) {
+		int sum = 0;
+		for (int i = 0; i < ACCOUNT_LENGTH; i++) {
+			sum += product(rule, digit(account, i + 1) * weights[i]);
+		}
+		return sum;
+	}
+
+	private static int product(final byte rule, final int product) {
+		return rule == MOD_10_CROSS_SUM ? product / 10 + product % 10 : rule == MOD_10_UNITS ? product % 10 : product;
+	}
+
+	/**
+	 * @param remainder of the weighted sum mod 10 or mod 11 as the rule takes it
+	 */
+	private static boolean matches(final byte rule, final int remainder, final int checkDigit) {
+		switch (rule) {
+		case MOD_10:
+		case MOD_10_CROSS_SUM:
+		case MOD_10_UNITS:
+			return checkDigit == (10 - remainder) % 10;
+		case MOD_11_REMAINDER:
+			return remainder != 10 && checkDigit == remainder;
+		default:
+			if (remainder == 0) {
+				return checkDigit == 0;
+			}
+			if (remainder == 1) {
+				return rule == MOD_11_ZERO_ON_ONE ? checkDigit == 0 : rule == MOD_11_NINE_ON_ONE && checkDigit == 9;
+			}
+			return checkDigit == 11 - remainder;
+		}
+	}
+
+	private static boolean passes13(final long account) {
+		return weighted(account, MOD_10_CROSS_SUM, 8, ALTERNATING_6);
+	}
+
+	/**
+	 * The first digit 3 to 6 counts as 0, a first digit 9 drops the first three. From the first
+	 * digit that is not 0 the digits are weighted 1, 2, 3, 1... to the right, each product plus
+	 * its weight is taken mod 11 and the check digit is the last digit of their sum.
+	 */
+	private static boolean passes24(final long account) {
+		final int first = digit(account, 1);
+		int position = first == 9 ? 4 : first >= 3 && first <= 6 ? 2 : 1;
+		while (position < ACCOUNT_LENGTH && digit(account, position) == 0) {
+			position++;
+		}
+		int sum = 0;
+		for (int weight = 1; position < ACCOUNT_LENGTH; position++, weight = weight % 3 + 1) {
+			sum += (digit(account, position) * weight + weight) % 11;
+		}
+		return digit(account, ACCOUNT_LENGTH) == sum % 10;
+	}
+
+	/**
+	 * The first digit is the kind of the account, one of 0, 4, 6, 7, 8 and 9, the check digit in
+	 * position 8 is the remainder of the digits 2 to 7.
+	 */
+	private static boolean passes76(final long account) {
+		final int kind = digit(account, 1);
+		return (kind == 0 || kind >= 6 || kind == 4)
+				&& weighted(account, MOD_11_REMAINDER, 8, ASCENDING_6);
+	}
+
+	private static boolean transformed(final long account) {
+		int sum = 0;
+		for (int i = 0; i < ACCOUNT_LENGTH - 1; i++) {
+			sum += TRANSFORMATION[i % TRANSFORMATION.length][digit(account, ACCOUNT_LENGTH - 1 - i)];
+		}
+		return digit(account, ACCOUNT_LENGTH) == (10 - sum % 10) % 10;
+	}
+}
@@ -0,0 +1,13 @@
+package com.lendico.iban.bank;
+
+/**
+ * Outcome of checking an account number with the national check digit method of its bank.
+ * @author noman
+ */
+public enum NationalCheckResult {
+	valid,
+	invalid,
+	/** The method of the bank is not implemented or the directory names none. */
+	notChecked
+	;
+}
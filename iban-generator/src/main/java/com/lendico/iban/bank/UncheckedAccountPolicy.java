@@ -0,0 +1,17 @@
+package com.lendico.iban.bank;
+
+/**
+ * What {@link BankDirectory#checkBank(CharSequence)} does with an account number whose national
+ * check digit method is not implemented.
+ * @author noman
+ */
+public enum UncheckedAccountPolicy {
+	/** The iban is valid. */
+	pass,
+	/**
+	 * The iban is invalid with {@link com.lendico.iban.exception.IbanExceptionType#uncheckedNationalCheckDigit},
+	 * the default of a directory.
+	 */
+	fail
+	;
+}
@@ -0,0 +1,97 @@
+package com.lendico.iban.collection;
+
+import java.util.function.BiConsumer;
+
+import com.lendico.iban.util.PackedIban;
+
+/**
+ * Map keyed by ibans held as {@link PackedIban}, see {@link IbanSet}. Null values are not
+ * supported. Not thread safe.
+ * @author noman
+ */
+public class IbanMap<V> extends PackedIbanTable {
+
+	public IbanMap() {
+		this(0);
+	}
+
+	/**
+	 * @param expectedSize number of entries the map holds without growing
+	 */
+	public IbanMap(int expectedSize) {
+		super(expectedSize, true);
+	}
+
+	/**
+	 * @return the previous value of the iban, null if there was none
+	 * @throws IllegalArgumentException if the iban is not valid or can not be packed
+	 */
+	public V put(CharSequence iban, V value) {
+		final PackedIban packedIban = PackedIban.tryPack(iban);
+		if (packedIban == null) {
+			throw new IllegalArgumentException(String.format("[%s] is not a valid iban of a packable country", iban));
+		}
+		return put(packedIban, value);
+	}
+
+	public V put(PackedIban packedIban, V value) {
+		if (value == null) {
+			throw new NullPointerException("value");
+		}
+		final int slot = insert(packedIban.getHigh(), packedIban.getLow());
+		final V previous = valueAt(slot);
+		values[slot] = value;
+		return previous;
+	}
+
+	/**
+	 * @return the value of the iban, null if it has none or is not valid
+	 */
+	public V get(CharSequence iban) {
+		final PackedIban packedIban = PackedIban.tryPack(iban);
+		return packedIban == null ? null : get(packedIban);
+	}
+
+	public V get(PackedIban packedIban) {
+		final int slot = slotOf(packedIban.getHigh(), packedIban.getLow());
+		return slot < 0 ? null : valueAt(slot);
+	}
+
+	public boolean containsKey(CharSequence iban) {
+		return get(iban) != null;
+	}
+
+	/**
+	 * @return the removed value, null if the iban had none
+	 */
+	public V remove(CharSequence iban) {
+		final PackedIban packedIban = PackedIban.tryPack(iban);
+		return packedIban == null ? null : remove(packedIban);
+	}
+
+	public V remove(PackedIban packedIban) {
+		final int slot = slotOf(packedIban.getHigh(), packedIban.getLow());
+		if (slot < 0) {
+			return null;
+		}
+		final V previous = valueAt(slot);
+		removeAt(slot);
+		return previous;
+	}
+
+	/**
+	 * Passes every entry, the iban unpacked to a String, in no particular order.
+	 */
+	public void forEach(BiConsumer<String, V> action) {
+		for (int i = 0; i < highs.length; i++) {
+			if (highs[i] != 0) {
+				action.accept(PackedIban.unpack(highs[i], lows[i]), valueAt(i));
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int slot) {
+		return (V) values[slot];
+	}
+}
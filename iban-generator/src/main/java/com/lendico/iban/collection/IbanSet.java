@@ -0,0 +1,80 @@
+package com.lendico.iban.collection;
+
+import java.util.function.Consumer;
+
+import com.lendico.iban.util.PackedIban;
+
+/**
+ * Set of ibans held as {@link PackedIban}, 16 bytes per iban plus the free slots of the table
+ * instead of a String and a hash set entry. Only valid ibans of packable countries can be added.
+ * Not thread safe.
+ * @author noman
+ */
+public class IbanSet extends PackedIbanTable {
+
+	public IbanSet() {
+		this(0);
+	}
+
+	/**
+	 * @param expectedSize number of ibans the set holds without growing
+	 */
+	public IbanSet(int expectedSize) {
+		super(expectedSize, false);
+	}
+
+	/**
+	 * @return whether the iban was not yet present
+	 * @throws IllegalArgumentException if the iban is not valid or can not be packed
+	 */
+	public boolean add(CharSequence iban) {
+		final PackedIban packedIban = PackedIban.tryPack(iban);
+		if (packedIban == null) {
+			throw new IllegalArgumentException(String.format("[%s] is not a valid iban of a packable country", iban));
+		}
+		return add(packedIban);
+	}
+
+	public boolean add(PackedIban packedIban) {
+		final int sizeBefore = size;
+		insert(packedIban.getHigh(), packedIban.getLow());
+		return size != sizeBefore;
+	}
+
+	/**
+	 * @return false for ibans that are not valid or can not be packed
+	 */
+	public boolean contains(CharSequence iban) {
+		final PackedIban packedIban = PackedIban.tryPack(iban);
+		return packedIban != null && contains(packedIban);
+	}
+
+	public boolean contains(PackedIban packedIban) {
+		return slotOf(packedIban.getHigh(), packedIban.getLow()) >= 0;
+	}
+
+	public boolean remove(CharSequence iban) {
+		final PackedIban packedIban = PackedIban.tryPack(iban);
+		return packedIban != null && remove(packedIban);
+	}
+
+	public boolean remove(PackedIban packedIban) {
+		final int slot = slotOf(packedIban.getHigh(), packedIban.getLow());
+		if (slot < 0) {
+			return false;
+		}
+		removeAt(slot);
+		return true;
+	}
+
+	/**
+	 * Passes every iban, unpacked to a String, in no particular order.
+	 */
+	public void forEach(Consumer<String> action) {
+		for (int i = 0; i < highs.length; i++) {
+			if (highs[i] != 0) {
+				action.accept(PackedIban.unpack(highs[i], lows[i]));
+			}
+		}
+	}
+}
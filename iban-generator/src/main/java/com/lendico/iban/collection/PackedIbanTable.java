@@ -0,0 +1,138 @@
+package com.lendico.iban.collection;
+
+import java.util.Arrays;
+
+import com.lendico.iban.util.PackedIban;
+
+/**
+ * Open addressing hash table of packed ibans with linear probing, keys are held in two long
+ * arrays and values, if any, in a third array at the same slot. A slot with high 0 is empty,
+ * which no packed iban is. Removal shifts the following entries back, so no tombstones are left.
+ * Not thread safe.
+ * @author noman
+ */
+abstract class PackedIbanTable {
+	private static final int MIN_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private final boolean withValues;
+
+	long[] highs;
+	long[] lows;
+	/** Null for tables without values. */
+	Object[] values;
+	int size;
+	private int mask;
+	private int resizeThreshold;
+
+	PackedIbanTable(final int expectedSize, final boolean withValues) {
+		this.withValues = withValues;
+		allocate(tableCapacity(expectedSize));
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(highs, 0);
+		Arrays.fill(lows, 0);
+		if (values != null) {
+			Arrays.fill(values, null);
+		}
+		size = 0;
+	}
+
+	/**
+	 * @return the slot of the key or <code>-(slot + 1)</code> of the empty slot it would go into
+	 */
+	final int slotOf(final long high, final long low) {
+		int slot = PackedIban.hash(high, low) & mask;
+		while (highs[slot] != 0) {
+			if (highs[slot] == high && lows[slot] == low) {
+				return slot;
+			}
+			slot = slot + 1 & mask;
+		}
+		return -slot - 1;
+	}
+
+	/**
+	 * @return the slot of the key, newly inserted if it was not present
+	 */
+	final int insert(final long high, final long low) {
+		int slot = slotOf(high, low);
+		if (slot >= 0) {
+			return slot;
+		}
+		if (size >= resizeThreshold) {
+			resize(highs.length * 2);
+			slot = slotOf(high, low);
+		}
+		slot = -slot - 1;
+		highs[slot] = high;
+		lows[slot] = low;
+		size++;
+		return slot;
+	}
+
+	final void removeAt(int slot) {
+		size--;
+		int next = slot + 1 & mask;
+		while (highs[next] != 0) {
+			final int home = PackedIban.hash(highs[next], lows[next]) & mask;
+			// moves the entry back if its home slot is not between the hole and the entry
+			if ((next - home & mask) >= (next - slot & mask)) {
+				highs[slot] = highs[next];
+				lows[slot] = lows[next];
+				if (values != null) {
+					values[slot] = values[next];
+				}
+				slot = next;
+			}
+			next = next + 1 & mask;
+		}
+		highs[slot] = 0;
+		lows[slot] = 0;
+		if (values != null) {
+			values[slot] = null;
+		}
+	}
+
+	private void resize(final int capacity) {
+		final long[] oldHighs = highs;
+		final long[] oldLows = lows;
+		final Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldHighs.length; i++) {
+			if (oldHighs[i] != 0) {
+				final int slot = -slotOf(oldHighs[i], oldLows[i]) - 1;
+				highs[slot] = oldHighs[i];
+				lows[slot] = oldLows[i];
+				if (values != null) {
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+	}
+
+	private void allocate(final int capacity) {
+		highs = new long[capacity];
+		lows = new long[capacity];
+		values = withValues ? new Object[capacity] : null;
+		mask = capacity - 1;
+		resizeThreshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int tableCapacity(final int expectedSize) {
+		final long needed = Math.max(MIN_CAPACITY, (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1);
+		if (needed > 1 << 30) {
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+}
@@ -0,0 +1,26 @@
+package com.lendico.iban.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fields shared by the flight recorder events of iban operations.
+ * @author noman
+ */
+@Category("Iban")
+@StackTrace(false)
+abstract class IbanEvent extends Event {
+	static final String SUCCESS = "success";
+	static final String FAILURE = "failure";
+
+	@Label("Country Code")
+	String countryCode;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Outcome")
+	String outcome;
+}
@@ -0,0 +1,68 @@
+package com.lendico.iban.event;
+
+import com.lendico.iban.exception.IbanExceptionType;
+
+/**
+ * Times one call for the flight recorder. {@link #begin()} returns null while neither event type
+ * is recorded, so calls outside of a recording only cost two flag checks.
+ * <pre>
+ * final IbanEvents events = IbanEvents.begin();
+ * ... the call ...
+ * if (events != null) {
+ *     events.commit("validate", iban);
+ * }
+ * </pre>
+ * @author noman
+ */
+public final class IbanEvents {
+	private static final IbanOperationEvent operationProbe = new IbanOperationEvent();
+	private static final IbanFailureEvent failureProbe = new IbanFailureEvent();
+
+	private final IbanOperationEvent operationEvent = new IbanOperationEvent();
+	private final IbanFailureEvent failureEvent = new IbanFailureEvent();
+
+	private IbanEvents() {
+		operationEvent.begin();
+		failureEvent.begin();
+	}
+
+	/**
+	 * @return the started events, or null if no iban event is being recorded
+	 */
+	public static IbanEvents begin() {
+		if (operationProbe.isEnabled() || failureProbe.isEnabled()) {
+			return new IbanEvents();
+		}
+		return null;
+	}
+
+	/**
+	 * Ends a successful call, its event is committed if it took longer than the threshold.
+	 * @param countryCodeOrIban the first two characters are recorded as country code
+	 */
+	public void commit(final String operation, final CharSequence countryCodeOrIban) {
+		commit(operationEvent, operation, countryCodeOrIban, IbanEvent.SUCCESS);
+	}
+
+	/**
+	 * Ends a failed call.
+	 * @param ibanExceptionType type of the failure, null if it has none
+	 */
+	public void commitFailure(final String operation, final CharSequence countryCodeOrIban,
+			final IbanExceptionType ibanExceptionType) {
+		commit(failureEvent, operation, countryCodeOrIban,
+				ibanExceptionType == null ? IbanEvent.FAILURE : ibanExceptionType.name());
+	}
+
+	private static void commit(final IbanEvent event, final String operation,
+			final CharSequence countryCodeOrIban, final String outcome) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.operation = operation;
+			event.countryCode = countryCodeOrIban == null || countryCodeOrIban.length() < 2 ? null
+					: countryCodeOrIban.subSequence(0, 2).toString();
+			event.outcome = outcome;
+			event.commit();
+		}
+	}
+}
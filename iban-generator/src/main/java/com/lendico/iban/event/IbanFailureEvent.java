@@ -0,0 +1,16 @@
+package com.lendico.iban.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Failed call of an iban operation, recorded regardless of its duration. The outcome is the
+ * {@link com.lendico.iban.exception.IbanExceptionType}.
+ * @author noman
+ */
+@Name("com.lendico.iban.Failure")
+@Label("Iban Failure")
+@Description("Iban validation or generation that failed")
+public final class IbanFailureEvent extends IbanEvent {
+}
@@ -0,0 +1,18 @@
+package com.lendico.iban.event;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Successful call of an iban operation. Only calls slower than the threshold are recorded,
+ * 1 ms unless the recording settings say otherwise.
+ * @author noman
+ */
+@Name("com.lendico.iban.Operation")
+@Label("Iban Operation")
+@Description("Successful iban validation or generation that took longer than the threshold")
+@Threshold("1 ms")
+public final class IbanOperationEvent extends IbanEvent {
+}
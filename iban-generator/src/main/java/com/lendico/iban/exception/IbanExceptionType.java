@@ -5,6 +5,9 @@ public enum IbanExceptionType {
 	invalidCountryCode,
 	invalidCheckDigit,
 	invalidIbanLength,
-	invalidChracter
+	invalidChracter,
+	unknownBankCode,
+	invalidNationalCheckDigit,
+	uncheckedNationalCheckDigit
 	;
 }
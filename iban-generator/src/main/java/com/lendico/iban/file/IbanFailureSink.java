@@ -0,0 +1,16 @@
+package com.lendico.iban.file;
+
+import com.lendico.iban.exception.IbanExceptionType;
+
+/**
+ * Receives the invalid ibans of a file, in the order of their lines.
+ * @author noman
+ */
+public interface IbanFailureSink {
+
+	/**
+	 * @param lineNumber line of the iban, starting at 1
+	 * @param iban the iban as it was read, without surrounding blanks or quotes
+	 */
+	void accept(long lineNumber, IbanExceptionType ibanExceptionType, String iban);
+}
@@ -0,0 +1,38 @@
+package com.lendico.iban.file;
+
+/**
+ * Counts of a file validated by {@link IbanFileValidator}.
+ * @author noman
+ */
+public final class IbanFileSummary {
+
+	private final long lineCount;
+	private final long ibanCount;
+	private final long failureCount;
+
+	IbanFileSummary(long lineCount, long ibanCount, long failureCount) {
+		this.lineCount = lineCount;
+		this.ibanCount = ibanCount;
+		this.failureCount = failureCount;
+	}
+
+	public long getLineCount() {
+		return lineCount;
+	}
+
+	/**
+	 * @return number of validated ibans, blank lines are not counted
+	 */
+	public long getIbanCount() {
+		return ibanCount;
+	}
+
+	public long getFailureCount() {
+		return failureCount;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d lines, %d ibans, %d invalid", lineCount, ibanCount, failureCount);
+	}
+}
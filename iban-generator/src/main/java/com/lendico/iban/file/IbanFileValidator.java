@@ -0,0 +1,267 @@
+package com.lendico.iban.file;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.util.IbanUtil;
+
+/**
+ * Validates a file holding one iban per line, or one iban per line in a column of a delimited
+ * file. The file is memory mapped in chunks ending at line ends, the chunks are validated in
+ * parallel on their bytes and the failures are passed on in line order. Bytes are read as
+ * ISO-8859-1, lines end with \n or \r\n, blank lines are skipped, the first line too if the file
+ * has a header. Each iban is validated in place in the mapped bytes.
+ * <p>
+ * Usage: <code>IbanFileValidator &lt;file&gt; [column [delimiter [skipHeader]]]</code>, prints one
+ * line of line number, failure type and iban per invalid iban and exits with 1 if there was any.
+ * @author noman
+ */
+public class IbanFileValidator {
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 25;
+	private static final int CHUNKS_PER_WORKER = 2;
+	private static final int BOUNDARY_READ_SIZE = 8192;
+	private static final int FAILURE_FIELDS = 4;
+	private static final IbanExceptionType[] ibanExceptionTypes = IbanExceptionType.values();
+
+	private final byte delimiter;
+	private final int column;
+	private final boolean skipHeader;
+	private final ForkJoinPool forkJoinPool;
+	private final int chunkSize;
+
+	/**
+	 * Validates files with one iban per line on the common fork join pool.
+	 */
+	public IbanFileValidator() {
+		this((char) 0, 0, false, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param delimiter separator of the columns, 0 if lines hold the iban only
+	 * @param column index of the iban column, starting at 0
+	 */
+	public IbanFileValidator(char delimiter, int column, ForkJoinPool forkJoinPool) {
+		this(delimiter, column, false, forkJoinPool);
+	}
+
+	/**
+	 * @param skipHeader whether the first line is a header, it is counted as line but not validated
+	 */
+	public IbanFileValidator(char delimiter, int column, boolean skipHeader, ForkJoinPool forkJoinPool) {
+		this(delimiter, column, skipHeader, forkJoinPool, DEFAULT_CHUNK_SIZE);
+	}
+
+	IbanFileValidator(char delimiter, int column, boolean skipHeader, ForkJoinPool forkJoinPool, int chunkSize) {
+		if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r' || column < 0) {
+			throw new IllegalArgumentException(String.format("Invalid delimiter %s or column %d", delimiter, column));
+		}
+		this.delimiter = (byte) delimiter;
+		this.column = column;
+		this.skipHeader = skipHeader;
+		this.forkJoinPool = forkJoinPool;
+		this.chunkSize = chunkSize;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args.length > 4) {
+			System.err.println("Usage: IbanFileValidator <file> [column [delimiter [skipHeader]]]");
+			System.exit(2);
+		}
+		final int column = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+		final char delimiter = args.length > 2 ? args[2].charAt(0) : args.length > 1 ? ',' : 0;
+		final boolean skipHeader = args.length > 3 && Boolean.parseBoolean(args[3]);
+		final PrintStream out = System.out;
+		final IbanFileSummary summary = new IbanFileValidator(delimiter, column, skipHeader, ForkJoinPool.commonPool())
+				.validate(Paths.get(args[0]), (lineNumber, ibanExceptionType, iban) ->
+						out.println(lineNumber + "\t" + ibanExceptionType + "\t" + iban));
+		out.flush();
+		System.err.println(summary);
+		System.exit(summary.getFailureCount() == 0 ? 0 : 1);
+	}
+
+	/**
+	 * Passes every invalid iban of the file to the sink, on the calling thread and in line order.
+	 * At most two chunks per worker thread are held at a time.
+	 */
+	public IbanFileSummary validate(Path file, IbanFailureSink sink) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			final Deque<ForkJoinTask<Chunk>> pending = new ArrayDeque<ForkJoinTask<Chunk>>();
+			final int maxPending = forkJoinPool.getParallelism() * CHUNKS_PER_WORKER;
+			long lineCount = 0;
+			long ibanCount = 0;
+			long failureCount = 0;
+			long start = 0;
+			while (start < size || !pending.isEmpty()) {
+				while (start < size && pending.size() < maxPending) {
+					final long end = nextLineStart(channel, Math.min(size, start + chunkSize), size);
+					final Chunk chunk = new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start),
+							skipHeader && start == 0);
+					pending.add(forkJoinPool.submit(chunk::validate, chunk));
+					start = end;
+				}
+				final Chunk chunk = pending.poll().join();
+				for (int i = 0; i < chunk.failureCount; i++) {
+					final int[] failure = chunk.failures;
+					final int index = i * FAILURE_FIELDS;
+					sink.accept(lineCount + failure[index] + 1, ibanExceptionTypes[failure[index + 1]],
+							chunk.toString(failure[index + 2], failure[index + 3]));
+				}
+				lineCount += chunk.lineCount;
+				ibanCount += chunk.ibanCount;
+				failureCount += chunk.failureCount;
+			}
+			return new IbanFileSummary(lineCount, ibanCount, failureCount);
+		}
+	}
+
+	/**
+	 * @return position after the first \n at or after position, or size if there is none
+	 */
+	private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+		if (position == size) {
+			return size;
+		}
+		final ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_READ_SIZE);
+		// the line starts at position if the byte before ends the previous line
+		long readPosition = position - 1;
+		while (readPosition < size) {
+			buffer.clear();
+			final int read = channel.read(buffer, readPosition);
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return readPosition + i + 1;
+				}
+			}
+			readPosition += Math.max(read, 0);
+		}
+		return size;
+	}
+
+	/**
+	 * Lines of one mapped region, validated by one worker.
+	 */
+	private class Chunk {
+		private final MappedByteBuffer buffer;
+		private final boolean skipFirstLine;
+		int lineCount;
+		long ibanCount;
+		/** Local line, failure type, start and length of the iban per failure. */
+		int[] failures = new int[0];
+		int failureCount;
+
+		Chunk(MappedByteBuffer buffer, boolean skipFirstLine) {
+			this.buffer = buffer;
+			this.skipFirstLine = skipFirstLine;
+		}
+
+		void validate() {
+			final int limit = buffer.limit();
+			int lineStart = 0;
+			for (int i = 0; i < limit; i++) {
+				if (buffer.get(i) == '\n') {
+					validateLine(lineStart, i);
+					lineStart = i + 1;
+				}
+			}
+			if (lineStart < limit) {
+				validateLine(lineStart, limit);
+			}
+		}
+
+		private void validateLine(int start, int end) {
+			final int line = lineCount++;
+			if (line == 0 && skipFirstLine) {
+				return;
+			}
+			if (end > start && buffer.get(end - 1) == '\r') {
+				end--;
+			}
+			if (isBlank(start, end)) {
+				return;
+			}
+			if (delimiter != 0) {
+				for (int i = 0; i < column && start <= end; i++) {
+					start = indexOfDelimiter(start, end) + 1;
+				}
+				if (start > end) {
+					ibanCount++;
+					addFailure(line, IbanExceptionType.emptyIban, end, 0);
+					return;
+				}
+				end = indexOfDelimiter(start, end);
+			}
+			while (start < end && isBlank(buffer.get(start))) {
+				start++;
+			}
+			while (end > start && isBlank(buffer.get(end - 1))) {
+				end--;
+			}
+			if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+				start++;
+				end--;
+			}
+
+			final int length = end - start;
+			ibanCount++;
+			// the packed status keeps the loop free of allocation, failures are only turned into text by the sink
+			final int status = IbanUtil.tryValidateStatus(buffer, start, length);
+			if (status != IbanUtil.VALID) {
+				addFailure(line, IbanUtil.getStatusType(status), start, length);
+			}
+		}
+
+		private int indexOfDelimiter(int start, int end) {
+			for (int i = start; i < end; i++) {
+				if (buffer.get(i) == delimiter) {
+					return i;
+				}
+			}
+			return end;
+		}
+
+		private boolean isBlank(int start, int end) {
+			for (int i = start; i < end; i++) {
+				if (!isBlank(buffer.get(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private boolean isBlank(byte b) {
+			return b == ' ' || b == '\t';
+		}
+
+		private void addFailure(int line, IbanExceptionType ibanExceptionType, int start, int length) {
+			if (failures.length < (failureCount + 1) * FAILURE_FIELDS) {
+				failures = Arrays.copyOf(failures, Math.max(64, failures.length * 2));
+			}
+			final int index = failureCount++ * FAILURE_FIELDS;
+			failures[index] = line;
+			failures[index + 1] = ibanExceptionType.ordinal();
+			failures[index + 2] = start;
+			failures[index + 3] = length;
+		}
+
+		String toString(int start, int length) {
+			final char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				chars[i] = (char) (buffer.get(start + i) & 0xFF);
+			}
+			return new String(chars);
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.lendico.iban.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.ShardedIbanGenerator;
+import com.lendico.iban.service.UniqueIbanGenerator;
+
+/**
+ * Writes a file of generated ibans, one per line, taking the given countries in turn. The ibans
+ * of a country are distinct, line n holds the iban at index n / countries of the
+ * {@link UniqueIbanGenerator} of its country, keyed by {@link #countrySeed(long, String)}, so the
+ * same seed gives the same file. A country may be given only once. Nodes writing
+ * shards of one fixture with the same seed take their lines from a {@link ShardedIbanGenerator}
+ * per country instead, so the files of different shards share no iban.
+ * <p>
+ * As every country has a fixed iban length the position of every line is known up front. Each
+ * worker formats batches of lines into its own buffer and writes them at their position, so the
+ * workers share nothing but the file and the heap needed does not grow with the file.
+ * <p>
+ * Usage: <code>IbanFileWriter &lt;file&gt; &lt;count&gt; &lt;countryCodes&gt; [seed [shardIndex shardCount]]</code>,
+ * country codes separated by commas.
+ * @author noman
+ */
+public class IbanFileWriter {
+	private static final int DEFAULT_BATCH_SIZE = 1 << 14;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final ShardedIbanGenerator[] generators;
+	/** Offset of the line of each country within a turn, the last entry is the length of a turn. */
+	private final int[] lineOffsets;
+	private final ForkJoinPool forkJoinPool;
+	private final int batchSize;
+
+	/**
+	 * Generates on the common fork join pool.
+	 */
+	public IbanFileWriter(List<String> countryCodes, long seed) throws IbanServiceException {
+		this(countryCodes, seed, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param forkJoinPool one generating worker is started per thread of the pool
+	 */
+	public IbanFileWriter(List<String> countryCodes, long seed, ForkJoinPool forkJoinPool)
+			throws IbanServiceException {
+		this(countryCodes, seed, 0, 1, forkJoinPool, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Writes the ibans of one shard, generates on the common fork join pool.
+	 * @param shardIndex shard of this writer, from 0 to shardCount - 1
+	 */
+	public IbanFileWriter(List<String> countryCodes, long seed, int shardIndex, int shardCount)
+			throws IbanServiceException {
+		this(countryCodes, seed, shardIndex, shardCount, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+	}
+
+	IbanFileWriter(List<String> countryCodes, long seed, int shardIndex, int shardCount, ForkJoinPool forkJoinPool,
+			int batchSize) throws IbanServiceException {
+		if (countryCodes.isEmpty()) {
+			throw new IbanServiceException("At least one countryCode must be given");
+		}
+		if (new HashSet<String>(countryCodes).size() != countryCodes.size()) {
+			// two generators of one country would write the same ibans
+			throw new IbanServiceException("Every countryCode may be given only once: " + countryCodes);
+		}
+		this.generators = new ShardedIbanGenerator[countryCodes.size()];
+		this.lineOffsets = new int[countryCodes.size() + 1];
+		for (int i = 0; i < generators.length; i++) {
+			generators[i] = new ShardedIbanGenerator(countryCodes.get(i), countrySeed(seed, countryCodes.get(i)),
+					shardIndex, shardCount);
+			lineOffsets[i + 1] = lineOffsets[i] + generators[i].getIbanLength() + 1;
+		}
+		this.forkJoinPool = forkJoinPool;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @return the seed of the generator of the country, depending on the country code and not its
+	 * position in the list, so adding or reordering countries does not change the ibans of the others
+	 */
+	static long countrySeed(long seed, String countryCode) {
+		return mix64(seed + (countryCode.charAt(0) << 8 | countryCode.charAt(1)) * GOLDEN_GAMMA);
+	}
+
+	public static void main(String[] args) throws IOException, IbanServiceException {
+		if (args.length < 3 || args.length == 5 || args.length > 6) {
+			System.err.println("Usage: IbanFileWriter <file> <count> <countryCodes> [seed [shardIndex shardCount]]");
+			System.exit(2);
+		}
+		final long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+		final int shardIndex = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+		final int shardCount = args.length > 4 ? Integer.parseInt(args[5]) : 1;
+		new IbanFileWriter(Arrays.asList(args[2].split(",")), seed, shardIndex, shardCount)
+				.write(Paths.get(args[0]), Long.parseLong(args[1]));
+	}
+
+	/**
+	 * Replaces the file with count ibans.
+	 * @throws IbanServiceException if a country has less than its share of count distinct ibans
+	 */
+	public void write(Path file, long count) throws IOException, IbanServiceException {
+		final long turns = (count + generators.length - 1) / generators.length;
+		for (final ShardedIbanGenerator generator : generators) {
+			if (turns > generator.getCapacity()) {
+				throw new IbanServiceException(String.format("Only %d distinct ibans exist for a country",
+						generator.getCapacity()));
+			}
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			final AtomicLong nextBatch = new AtomicLong();
+			final List<ForkJoinTask<?>> workers = new ArrayList<ForkJoinTask<?>>();
+			for (int i = 0; i < forkJoinPool.getParallelism(); i++) {
+				workers.add(forkJoinPool.submit(() -> generate(channel, count, nextBatch)));
+			}
+			try {
+				for (final ForkJoinTask<?> worker : workers) {
+					worker.join();
+				}
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	/**
+	 * Takes batches of lines until all count lines are taken.
+	 */
+	private void generate(FileChannel channel, long count, AtomicLong nextBatch) {
+		final int maxLineLength = maxLineLength();
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(batchSize * maxLineLength);
+		final char[] iban = new char[maxLineLength];
+		long from;
+		while ((from = nextBatch.getAndIncrement() * batchSize) < count) {
+			final long to = Math.min(count, from + batchSize);
+			buffer.clear();
+			for (long line = from; line < to; line++) {
+				final ShardedIbanGenerator generator = generators[(int) (line % generators.length)];
+				generator.format(line / generators.length, iban, 0);
+				for (int i = 0; i < generator.getIbanLength(); i++) {
+					buffer.put((byte) iban[i]);
+				}
+				buffer.put((byte) '\n');
+			}
+			buffer.flip();
+			try {
+				long position = position(from);
+				while (buffer.hasRemaining()) {
+					position += channel.write(buffer, position);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private long position(long line) {
+		final int turnLength = lineOffsets[generators.length];
+		return line / generators.length * turnLength + lineOffsets[(int) (line % generators.length)];
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private int maxLineLength() {
+		int maxLineLength = 0;
+		for (int i = 0; i < generators.length; i++) {
+			maxLineLength = Math.max(maxLineLength, lineOffsets[i + 1] - lineOffsets[i]);
+		}
+		return maxLineLength;
+	}
+}
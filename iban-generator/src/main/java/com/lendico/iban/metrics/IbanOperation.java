@@ -0,0 +1,19 @@
+package com.lendico.iban.metrics;
+
+/**
+ * Operations of {@link com.lendico.iban.service.IbanService} that are recorded.
+ * @author noman
+ */
+public enum IbanOperation {
+	generateIban,
+	generateRandomIbanForCountry,
+	generateRandomIbans,
+	generateRandomIbanStream,
+	generateUniqueRandomIbans,
+	generateUniqueRandomIbanStream,
+	generateIbanRange,
+	validateIban,
+	tryValidateIban,
+	validateIbans
+	;
+}
@@ -0,0 +1,128 @@
+package com.lendico.iban.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.structure.DefaultIbanStructure;
+
+/**
+ * Metrics of all operations, kept per operation and country in a table indexed by the two letters
+ * of the country code, so recording never takes a lock or looks up a map. Country codes that are
+ * not supported, and calls that span several countries, are kept under {@link #OTHER_COUNTRIES}.
+ * @author noman
+ */
+public class IbanServiceMetrics implements IbanServiceMetricsMXBean {
+	public static final String OTHER_COUNTRIES = "other";
+	public static final String UNTYPED_FAILURE = "untyped";
+
+	private static final int LETTERS = 26;
+	private static final int OTHER_COUNTRIES_INDEX = LETTERS * LETTERS;
+	private static final IbanOperation[] operations = IbanOperation.values();
+
+	private final AtomicReferenceArray<OperationMetrics> metrics =
+			new AtomicReferenceArray<OperationMetrics>(operations.length * (OTHER_COUNTRIES_INDEX + 1));
+
+	/**
+	 * @param countryCode null or any text, only the first two letters of a supported country count
+	 */
+	public OperationMetrics get(final IbanOperation operation, final CharSequence countryCode) {
+		int countryIndex = OTHER_COUNTRIES_INDEX;
+		if (countryCode != null && countryCode.length() >= 2) {
+			final char first = countryCode.charAt(0);
+			final char second = countryCode.charAt(1);
+			if (DefaultIbanStructure.getCountryStructure(first, second) != null) {
+				countryIndex = (first - 'A') * LETTERS + (second - 'A');
+			}
+		}
+		final int index = operation.ordinal() * (OTHER_COUNTRIES_INDEX + 1) + countryIndex;
+		final OperationMetrics operationMetrics = metrics.get(index);
+		if (operationMetrics != null) {
+			return operationMetrics;
+		}
+		final String country = countryIndex == OTHER_COUNTRIES_INDEX ? OTHER_COUNTRIES
+				: countryCode.subSequence(0, 2).toString();
+		metrics.compareAndSet(index, null, new OperationMetrics(operation, country));
+		return metrics.get(index);
+	}
+
+	@Override
+	public long getTotalCalls() {
+		long calls = 0;
+		for (int i = 0; i < metrics.length(); i++) {
+			final OperationMetrics operationMetrics = metrics.get(i);
+			if (operationMetrics != null) {
+				calls += operationMetrics.getLatencies().getCount();
+			}
+		}
+		return calls;
+	}
+
+	@Override
+	public long getTotalFailures() {
+		long failures = 0;
+		for (int i = 0; i < metrics.length(); i++) {
+			final OperationMetrics operationMetrics = metrics.get(i);
+			if (operationMetrics != null) {
+				for (final IbanExceptionType ibanExceptionType : IbanExceptionType.values()) {
+					failures += operationMetrics.getFailures(ibanExceptionType);
+				}
+				failures += operationMetrics.getFailures(null);
+			}
+		}
+		return failures;
+	}
+
+	@Override
+	public List<OperationStatistics> getOperationStatistics() {
+		final List<OperationStatistics> statistics = new ArrayList<OperationStatistics>();
+		for (int i = 0; i < metrics.length(); i++) {
+			final OperationMetrics operationMetrics = metrics.get(i);
+			if (operationMetrics != null) {
+				statistics.add(toStatistics(operationMetrics));
+			}
+		}
+		return statistics;
+	}
+
+	@Override
+	public void reset() {
+		for (int i = 0; i < metrics.length(); i++) {
+			final OperationMetrics operationMetrics = metrics.get(i);
+			if (operationMetrics != null) {
+				operationMetrics.reset();
+			}
+		}
+	}
+
+	/**
+	 * Registers these metrics with the platform MBean server as com.lendico.iban:type=IbanServiceMetrics,name=name.
+	 */
+	public ObjectName registerMBean(final String name) throws JMException {
+		final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName objectName = new ObjectName("com.lendico.iban:type=IbanServiceMetrics,name="
+				+ ObjectName.quote(name));
+		mBeanServer.registerMBean(this, objectName);
+		return objectName;
+	}
+
+	private static OperationStatistics toStatistics(final OperationMetrics operationMetrics) {
+		final LatencyHistogram latencies = operationMetrics.getLatencies();
+		final Map<String, Long> failures = new LinkedHashMap<String, Long>();
+		for (final IbanExceptionType ibanExceptionType : IbanExceptionType.values()) {
+			failures.put(ibanExceptionType.name(), operationMetrics.getFailures(ibanExceptionType));
+		}
+		failures.put(UNTYPED_FAILURE, operationMetrics.getFailures(null));
+		return new OperationStatistics(operationMetrics.getOperation().name(), operationMetrics.getCountryCode(),
+				latencies.getCount(), latencies.getMeanNanos(), latencies.getPercentileNanos(50),
+				latencies.getPercentileNanos(99), latencies.getMaxNanos(), failures);
+	}
+}
@@ -0,0 +1,21 @@
+package com.lendico.iban.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of {@link IbanServiceMetrics}.
+ * @author noman
+ */
+public interface IbanServiceMetricsMXBean {
+
+	long getTotalCalls();
+
+	long getTotalFailures();
+
+	/**
+	 * @return one entry per operation and country that has been called
+	 */
+	List<OperationStatistics> getOperationStatistics();
+
+	void reset();
+}
@@ -0,0 +1,115 @@
+package com.lendico.iban.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies in nanoseconds. Every power of two is split into
+ * {@link #SUB_BUCKETS} buckets, so a reported percentile is at most 25% above the real value.
+ * Buckets are striped counters which are only allocated when first used.
+ * @author noman
+ */
+public final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = 64 * SUB_BUCKETS;
+
+	private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<LongAdder>(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		bucket(bucketIndex(nanos)).increment();
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMeanNanos() {
+		final long calls = count.sum();
+		return calls == 0 ? 0 : totalNanos.sum() / calls;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @param percentile between 0 and 100
+	 * @return upper bound of the bucket holding the percentile, 0 if nothing was recorded
+	 */
+	public long getPercentileNanos(final double percentile) {
+		final long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			final LongAdder bucket = buckets.get(i);
+			counts[i] = bucket == null ? 0 : bucket.sum();
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBound(i), getMaxNanos());
+			}
+		}
+		return getMaxNanos();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			final LongAdder bucket = buckets.get(i);
+			if (bucket != null) {
+				bucket.reset();
+			}
+		}
+		count.reset();
+		totalNanos.reset();
+		maxNanos.reset();
+	}
+
+	private LongAdder bucket(final int index) {
+		final LongAdder bucket = buckets.get(index);
+		if (bucket != null) {
+			return bucket;
+		}
+		buckets.compareAndSet(index, null, new LongAdder());
+		return buckets.get(index);
+	}
+
+	/**
+	 * Values below {@link #SUB_BUCKETS} get a bucket each, larger values are bucketed by their
+	 * highest bit and the {@link #SUB_BUCKET_BITS} bits below it.
+	 */
+	static int bucketIndex(final long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		final int highestBit = 63 - Long.numberOfLeadingZeros(nanos);
+		final int subBucket = (int) (nanos >>> (highestBit - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (highestBit - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long upperBound(final int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		final int highestBit = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		final long subBucket = index & (SUB_BUCKETS - 1);
+		final long lowerBound = (1L << highestBit) | subBucket << (highestBit - SUB_BUCKET_BITS);
+		return lowerBound + (1L << (highestBit - SUB_BUCKET_BITS)) - 1;
+	}
+}
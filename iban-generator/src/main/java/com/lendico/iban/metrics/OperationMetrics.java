@@ -0,0 +1,68 @@
+package com.lendico.iban.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.lendico.iban.exception.IbanExceptionType;
+
+/**
+ * Calls, latencies and failures of one operation for one country.
+ * @author noman
+ */
+public final class OperationMetrics {
+	private static final IbanExceptionType[] ibanExceptionTypes = IbanExceptionType.values();
+
+	private final IbanOperation operation;
+	private final String countryCode;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+
+	/** Failures by {@link IbanExceptionType} ordinal, the last one counts failures without type. */
+	private final LongAdder[] failures = new LongAdder[ibanExceptionTypes.length + 1];
+
+	OperationMetrics(final IbanOperation operation, final String countryCode) {
+		this.operation = operation;
+		this.countryCode = countryCode;
+		for (int i = 0; i < failures.length; i++) {
+			failures[i] = new LongAdder();
+		}
+	}
+
+	public IbanOperation getOperation() {
+		return operation;
+	}
+
+	public String getCountryCode() {
+		return countryCode;
+	}
+
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	/**
+	 * Records a call that took nanos.
+	 */
+	public void record(final long nanos) {
+		latencies.record(nanos);
+	}
+
+	/**
+	 * @param ibanExceptionType type of the failure, null if it has none
+	 */
+	public void recordFailure(final IbanExceptionType ibanExceptionType) {
+		failures[ibanExceptionType == null ? ibanExceptionTypes.length : ibanExceptionType.ordinal()].increment();
+	}
+
+	/**
+	 * @param ibanExceptionType null for failures without type
+	 */
+	public long getFailures(final IbanExceptionType ibanExceptionType) {
+		return failures[ibanExceptionType == null ? ibanExceptionTypes.length : ibanExceptionType.ordinal()].sum();
+	}
+
+	void reset() {
+		latencies.reset();
+		for (final LongAdder failure : failures) {
+			failure.reset();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.lendico.iban.metrics;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the {@link OperationMetrics} of one operation and country, as shown over JMX.
+ * @author noman
+ */
+public final class OperationStatistics {
+	private final String operation;
+	private final String countryCode;
+	private final long calls;
+	private final long meanNanos;
+	private final long p50Nanos;
+	private final long p99Nanos;
+	private final long maxNanos;
+	private final Map<String, Long> failures;
+
+	OperationStatistics(final String operation, final String countryCode, final long calls, final long meanNanos,
+			final long p50Nanos, final long p99Nanos, final long maxNanos, final Map<String, Long> failures) {
+		this.operation = operation;
+		this.countryCode = countryCode;
+		this.calls = calls;
+		this.meanNanos = meanNanos;
+		this.p50Nanos = p50Nanos;
+		this.p99Nanos = p99Nanos;
+		this.maxNanos = maxNanos;
+		this.failures = failures;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public String getCountryCode() {
+		return countryCode;
+	}
+
+	public long getCalls() {
+		return calls;
+	}
+
+	public long getMeanNanos() {
+		return meanNanos;
+	}
+
+	public long getP50Nanos() {
+		return p50Nanos;
+	}
+
+	public long getP99Nanos() {
+		return p99Nanos;
+	}
+
+	public long getMaxNanos() {
+		return maxNanos;
+	}
+
+	/**
+	 * @return failure counts by {@link com.lendico.iban.exception.IbanExceptionType} name, failures
+	 * without type are counted as {@link IbanServiceMetrics#UNTYPED_FAILURE}
+	 */
+	public Map<String, Long> getFailures() {
+		return failures;
+	}
+}
@@ -0,0 +1,203 @@
+package com.lendico.iban.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanValidationResult;
+
+/**
+ * Non blocking counterpart of {@link IbanService}, running the calls of the delegate on the given
+ * executor. Single validations and random generations are collected into batches, handled by one
+ * bulk call of the delegate per batch, and country. Streams of requests are handled by
+ * {@link Flow.Processor}s that only request as many items from upstream as their subscriber
+ * asks for, the streams of the delegate are offered as {@link Flow.Publisher}s pulling only as
+ * many ibans as their subscriber asks for.
+ * <p>
+ * A failing call completes its future exceptionally with the {@link IbanServiceException}.
+ * @author noman
+ */
+public class AsyncIbanService {
+	private static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+	private final IbanService delegate;
+	private final Executor executor;
+	private final int maxBatchSize;
+	private final MicroBatcher<String, IbanValidationResult> validations;
+	private final MicroBatcher<String, String> randomGenerations;
+
+	public AsyncIbanService(IbanService delegate, Executor executor) {
+		this(delegate, executor, DEFAULT_MAX_BATCH_SIZE);
+	}
+
+	/**
+	 * @param maxBatchSize most requests handled by one call of the delegate
+	 */
+	public AsyncIbanService(IbanService delegate, Executor executor, int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+		}
+		this.delegate = delegate;
+		this.executor = executor;
+		this.maxBatchSize = maxBatchSize;
+		this.validations = new MicroBatcher<String, IbanValidationResult>(executor, maxBatchSize, this::validateBatch);
+		this.randomGenerations = new MicroBatcher<String, String>(executor, maxBatchSize, this::generateBatch);
+	}
+
+	public CompletableFuture<String> generateIban(String countryCode, String bankCode, String accountNumber) {
+		return supply(() -> delegate.generateIban(countryCode, bankCode, accountNumber));
+	}
+
+	public CompletableFuture<String> generateRandomIbanForCountry(String countryCode) {
+		return randomGenerations.submit(countryCode);
+	}
+
+	public CompletableFuture<List<String>> generateRandomIbans(String countryCode, int count) {
+		return supply(() -> delegate.generateRandomIbans(countryCode, count));
+	}
+
+	/**
+	 * @see IbanService#generateRandomIbanStream(String)
+	 */
+	public Flow.Publisher<String> randomIbanPublisher(String countryCode) {
+		return new StreamPublisher<String>(executor, () -> delegate.generateRandomIbanStream(countryCode));
+	}
+
+	public CompletableFuture<List<String>> generateUniqueRandomIbans(String countryCode, int count) {
+		return supply(() -> delegate.generateUniqueRandomIbans(countryCode, count));
+	}
+
+	/**
+	 * @see IbanService#generateUniqueRandomIbanStream(String, long)
+	 */
+	public Flow.Publisher<String> uniqueRandomIbanPublisher(String countryCode, long count) {
+		return new StreamPublisher<String>(executor, () -> delegate.generateUniqueRandomIbanStream(countryCode, count));
+	}
+
+	/**
+	 * @see IbanService#generateIbanRange(String, String, long, long)
+	 */
+	public Flow.Publisher<String> ibanRangePublisher(String countryCode, String bankCode, long firstAccountNumber,
+			long count) {
+		return new StreamPublisher<String>(executor,
+				() -> delegate.generateIbanRange(countryCode, bankCode, firstAccountNumber, count));
+	}
+
+	/**
+	 * Completes exceptionally with the {@link IbanServiceException} of an invalid iban.
+	 */
+	public CompletableFuture<Void> validateIban(String ibanString) {
+		return tryValidateIban(ibanString).thenApply(result -> {
+			if (!result.isValid()) {
+				throw new CompletionException(result.toException());
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Completes with the result of the validation, invalid ibans do not complete exceptionally.
+	 */
+	public CompletableFuture<IbanValidationResult> tryValidateIban(String ibanString) {
+		return validations.submit(ibanString);
+	}
+
+	public CompletableFuture<List<IbanValidationResult>> validateIbans(List<String> ibans) {
+		return supply(() -> delegate.validateIbans(ibans));
+	}
+
+	public CompletableFuture<IbanValidationResult[]> validateIbans(String[] ibans) {
+		return supply(() -> delegate.validateIbans(ibans));
+	}
+
+	/**
+	 * @return a processor publishing the validation result of each iban it receives, in order.
+	 * It can be subscribed to one publisher and by one subscriber.
+	 */
+	public Flow.Processor<String, IbanValidationResult> validationProcessor() {
+		return new BatchingProcessor<String, IbanValidationResult>(executor, maxBatchSize) {
+			@Override
+			List<IbanValidationResult> apply(List<String> batch) {
+				return Arrays.asList(delegate.validateIbans(batch.toArray(new String[batch.size()])));
+			}
+		};
+	}
+
+	/**
+	 * @return a processor publishing a random iban for each country code it receives, in order.
+	 * An unsupported country code fails the stream. It can be subscribed to one publisher and by
+	 * one subscriber.
+	 */
+	public Flow.Processor<String, String> randomGenerationProcessor() {
+		return new BatchingProcessor<String, String>(executor, maxBatchSize) {
+			@Override
+			List<String> apply(List<String> batch) throws IbanServiceException {
+				final List<String> ibans = new ArrayList<String>(batch.size());
+				int from = 0;
+				while (from < batch.size()) {
+					// runs of the same country are generated in one call
+					final String countryCode = batch.get(from);
+					int to = from + 1;
+					while (to < batch.size() && StringUtils.equals(countryCode, batch.get(to))) {
+						to++;
+					}
+					ibans.addAll(delegate.generateRandomIbans(countryCode, to - from));
+					from = to;
+				}
+				return ibans;
+			}
+		};
+	}
+
+	private void validateBatch(List<String> ibans, List<CompletableFuture<IbanValidationResult>> results) {
+		final IbanValidationResult[] validationResults = delegate.validateIbans(ibans.toArray(new String[ibans.size()]));
+		for (int i = 0; i < validationResults.length; i++) {
+			results.get(i).complete(validationResults[i]);
+		}
+	}
+
+	private void generateBatch(List<String> countryCodes, List<CompletableFuture<String>> results) {
+		final Map<String, List<CompletableFuture<String>>> resultsByCountry =
+				new LinkedHashMap<String, List<CompletableFuture<String>>>();
+		for (int i = 0; i < countryCodes.size(); i++) {
+			List<CompletableFuture<String>> countryResults = resultsByCountry.get(countryCodes.get(i));
+			if (countryResults == null) {
+				countryResults = new ArrayList<CompletableFuture<String>>();
+				resultsByCountry.put(countryCodes.get(i), countryResults);
+			}
+			countryResults.add(results.get(i));
+		}
+		for (final Map.Entry<String, List<CompletableFuture<String>>> entry : resultsByCountry.entrySet()) {
+			final List<CompletableFuture<String>> countryResults = entry.getValue();
+			try {
+				final List<String> ibans = delegate.generateRandomIbans(entry.getKey(), countryResults.size());
+				for (int i = 0; i < ibans.size(); i++) {
+					countryResults.get(i).complete(ibans.get(i));
+				}
+			} catch (IbanServiceException | RuntimeException e) {
+				for (final CompletableFuture<String> result : countryResults) {
+					result.completeExceptionally(e);
+				}
+			}
+		}
+	}
+
+	private <T> CompletableFuture<T> supply(IbanCall<T> call) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return call.call();
+			} catch (IbanServiceException e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+}
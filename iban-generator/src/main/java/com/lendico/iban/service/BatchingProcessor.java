@@ -0,0 +1,206 @@
+package com.lendico.iban.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lendico.iban.exception.IbanServiceException;
+
+/**
+ * Processor mapping its items in batches on the executor, in the order they arrive. Items are
+ * only requested from upstream while the subscriber has demand, at most two batches ahead, so a
+ * slow subscriber slows down the publisher instead of filling a buffer.
+ * <p>
+ * One subscriber is supported. All signals to the subscriber are sent from a drain loop of which
+ * at most one runs at a time.
+ * @author noman
+ */
+abstract class BatchingProcessor<T, R> implements Flow.Processor<T, R> {
+	private static final int BATCHES_AHEAD = 2;
+
+	private final Executor executor;
+	private final int maxBatchSize;
+
+	private final Queue<T> items = new ConcurrentLinkedQueue<T>();
+	private final AtomicInteger pendingDrains = new AtomicInteger();
+	private final AtomicLong demand = new AtomicLong();
+
+	private volatile Flow.Subscription upstream;
+	private volatile Flow.Subscriber<? super R> downstream;
+	private volatile boolean upstreamDone;
+	private volatile Throwable error;
+	private volatile boolean cancelled;
+	private volatile IllegalArgumentException invalidRequest;
+
+	/** Only accessed by the drain loop. */
+	private long requestedFromUpstream;
+	private long taken;
+	private boolean terminated;
+
+	BatchingProcessor(Executor executor, int maxBatchSize) {
+		this.executor = executor;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @return one result per item, in the order of the items
+	 */
+	abstract List<R> apply(List<T> batch) throws IbanServiceException;
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super R> subscriber) {
+		synchronized (this) {
+			if (downstream == null) {
+				downstream = subscriber;
+				subscriber.onSubscribe(new Subscription());
+				drain();
+				return;
+			}
+		}
+		subscriber.onSubscribe(new Flow.Subscription() {
+			@Override
+			public void request(long n) {
+			}
+
+			@Override
+			public void cancel() {
+			}
+		});
+		subscriber.onError(new IllegalStateException("Only one subscriber is supported"));
+	}
+
+	@Override
+	public void onSubscribe(Flow.Subscription subscription) {
+		synchronized (this) {
+			if (upstream == null) {
+				upstream = subscription;
+				drain();
+				return;
+			}
+		}
+		subscription.cancel();
+	}
+
+	@Override
+	public void onNext(T item) {
+		items.offer(item);
+		drain();
+	}
+
+	@Override
+	public void onError(Throwable throwable) {
+		error = throwable;
+		upstreamDone = true;
+		drain();
+	}
+
+	@Override
+	public void onComplete() {
+		upstreamDone = true;
+		drain();
+	}
+
+	private void drain() {
+		if (pendingDrains.getAndIncrement() == 0) {
+			executor.execute(this::drainLoop);
+		}
+	}
+
+	private void drainLoop() {
+		int missed = 1;
+		do {
+			final Flow.Subscriber<? super R> subscriber = downstream;
+			final Flow.Subscription subscription = upstream;
+			if (subscriber != null && subscription != null) {
+				drainOnce(subscriber, subscription);
+			}
+			missed = pendingDrains.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	private void drainOnce(Flow.Subscriber<? super R> subscriber, Flow.Subscription subscription) {
+		while (!terminated) {
+			if (cancelled) {
+				terminated = true;
+				items.clear();
+				return;
+			}
+			if (invalidRequest != null) {
+				terminated = true;
+				items.clear();
+				subscription.cancel();
+				subscriber.onError(invalidRequest);
+				return;
+			}
+			final long requested = demand.get();
+			final List<T> batch = new ArrayList<T>();
+			T item;
+			while (batch.size() < Math.min(requested, maxBatchSize) && (item = items.poll()) != null) {
+				batch.add(item);
+			}
+			if (!batch.isEmpty()) {
+				taken += batch.size();
+				final List<R> results;
+				try {
+					results = apply(batch);
+				} catch (IbanServiceException | RuntimeException e) {
+					terminated = true;
+					subscription.cancel();
+					subscriber.onError(e);
+					return;
+				}
+				if (requested != Long.MAX_VALUE) {
+					demand.addAndGet(-batch.size());
+				}
+				for (final R result : results) {
+					subscriber.onNext(result);
+				}
+				continue;
+			}
+			final boolean done = upstreamDone;
+			if (done && items.isEmpty()) {
+				terminated = true;
+				if (error != null) {
+					subscriber.onError(error);
+				} else {
+					subscriber.onComplete();
+				}
+				return;
+			}
+			final long wanted = Math.min(requested, (long) maxBatchSize * BATCHES_AHEAD) - (requestedFromUpstream - taken);
+			if (!done && wanted > 0) {
+				requestedFromUpstream += wanted;
+				subscription.request(wanted);
+			}
+			return;
+		}
+	}
+
+	private class Subscription implements Flow.Subscription {
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("Requested " + n + " items, must be positive (rule 3.9)");
+				drain();
+				return;
+			}
+			demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			final Flow.Subscription subscription = upstream;
+			if (subscription != null) {
+				subscription.cancel();
+			}
+			drain();
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.lendico.iban.service;
+
+/**
+ * What {@link PooledIbanGenerator#take(String)} does when the pool of the country is empty.
+ * @author noman
+ */
+public enum DryPoolPolicy {
+	/** Waits until the background refill has put an iban into the pool. */
+	block,
+	/** Generates the iban on the calling thread. */
+	inline,
+	/** Throws an {@link com.lendico.iban.exception.IbanServiceException}. */
+	fail,
+}
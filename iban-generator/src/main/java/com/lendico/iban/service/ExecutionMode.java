@@ -0,0 +1,10 @@
+package com.lendico.iban.service;
+
+/**
+ * How bulk operations of {@link IbanServiceImpl} are executed.
+ * @author noman
+ */
+public enum ExecutionMode {
+	sequential,
+	parallel,
+}
@@ -0,0 +1,11 @@
+package com.lendico.iban.service;
+
+import com.lendico.iban.exception.IbanServiceException;
+
+/**
+ * A call of a service operation, wrapped to record it.
+ * @author noman
+ */
+interface IbanCall<T> {
+	T call() throws IbanServiceException;
+}
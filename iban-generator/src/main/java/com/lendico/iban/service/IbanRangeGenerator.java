@@ -0,0 +1,238 @@
+package com.lendico.iban.service;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.AttributeChracterType;
+import com.lendico.iban.structure.AttributeType;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.lendico.iban.structure.IbanAttribute;
+import com.lendico.iban.util.Mod97;
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Generates the ibans of consecutive account numbers under one bank code. The mod 97 remainder is
+ * only calculated for the first account, every further account adds a constant to it, so each
+ * iban costs a few arithmetic operations and the increment of the account digits.
+ * <p>
+ * Supported are countries whose bban consists of bank code and account number only, with an
+ * account number that may hold digits.
+ * @author noman
+ */
+public class IbanRangeGenerator {
+	private static final int CHECK_DIGIT_INDEX = 2;
+	private static final int IBAN_INDEX = 4;
+
+	private final char[] template;
+	private final int accountNumberIndex;
+	private final int accountNumberLength;
+
+	/**
+	 * Remainder added per account number increment, 10 to the power of the number of digits
+	 * following the account number in the rearranged iban, mod 97.
+	 */
+	private final int remainderIncrement;
+
+	public IbanRangeGenerator(String countryCode, String bankCode) throws IbanServiceException {
+		if (StringUtils.isBlank(countryCode) || StringUtils.isBlank(bankCode)) {
+			throw new IbanServiceException("countryCode and bankCode must be filled");
+		}
+		final CountryStructure countryStructure = countryCode.length() == 2
+				? DefaultIbanStructure.getCountryStructure(countryCode.charAt(0), countryCode.charAt(1)) : null;
+		if (countryStructure == null) {
+			throw new IbanServiceException(IbanExceptionType.invalidCountryCode, "CountryCode is not supported.");
+		}
+
+		final CountryCode countryCodeEnum = countryStructure.getCountryCode();
+		this.template = new char[IBAN_INDEX + countryStructure.getBbanLength()];
+		template[0] = countryCode.charAt(0);
+		template[1] = countryCode.charAt(1);
+
+		int accountIndex = -1;
+		int accountLength = 0;
+		int bankCodeIndex = 0;
+		int position = IBAN_INDEX;
+		for (final IbanAttribute ibanAttribute : countryStructure.getIbanAttributes()) {
+			final int attributeLength = ibanAttribute.getAttributeLength();
+			switch (ibanAttribute.getAttributeType()) {
+			case bankCode:
+				if (bankCodeIndex + attributeLength > bankCode.length()) {
+					throw invalidBankCodeLength(countryStructure, bankCode);
+				}
+				bankCode.getChars(bankCodeIndex, bankCodeIndex + attributeLength, template, position);
+				bankCodeIndex += attributeLength;
+				break;
+			case accountNumber:
+				if (accountIndex >= 0 && accountIndex + accountLength != position
+						|| ibanAttribute.getAttributeCharacterType() == AttributeChracterType.upperAlpha) {
+					throw unsupportedCountry(countryCodeEnum);
+				}
+				if (accountIndex < 0) {
+					accountIndex = position;
+				}
+				accountLength += attributeLength;
+				break;
+			default:
+				throw unsupportedCountry(countryCodeEnum);
+			}
+			position += attributeLength;
+		}
+		if (accountIndex < 0) {
+			throw unsupportedCountry(countryCodeEnum);
+		}
+		if (bankCodeIndex != bankCode.length()) {
+			throw invalidBankCodeLength(countryStructure, bankCode);
+		}
+		for (int i = IBAN_INDEX; i < template.length; i++) {
+			if (i < accountIndex || i >= accountIndex + accountLength) {
+				if (!countryStructure.matches(i - IBAN_INDEX, template[i])) {
+					throw new IbanServiceException(IbanExceptionType.invalidChracter,
+							String.format("[%s] is not a valid bank code for %s", bankCode, countryCodeEnum));
+				}
+			} else {
+				template[i] = '0';
+			}
+		}
+		this.accountNumberIndex = accountIndex;
+		this.accountNumberLength = accountLength;
+
+		// bban behind the account number, then country code letters and check digit 00
+		int digitsAfterAccountNumber = 4 + 2;
+		for (int i = accountIndex + accountLength; i < template.length; i++) {
+			digitsAfterAccountNumber += template[i] >= '0' && template[i] <= '9' ? 1 : 2;
+		}
+		int increment = 1;
+		for (int i = 0; i < digitsAfterAccountNumber; i++) {
+			increment = increment * 10 % Mod97.MODULUS;
+		}
+		this.remainderIncrement = increment;
+	}
+
+	/**
+	 * @return number of digits of the account number, account numbers are zero padded to it
+	 */
+	public int getAccountNumberLength() {
+		return accountNumberLength;
+	}
+
+	public int getIbanLength() {
+		return template.length;
+	}
+
+	/**
+	 * Passes the ibans of the account numbers from firstAccountNumber to
+	 * firstAccountNumber + count - 1 to the sink, in ascending order and without creating Strings.
+	 */
+	public void generate(long firstAccountNumber, long count, IbanSink sink) throws IbanServiceException {
+		final Cursor cursor = new Cursor(firstAccountNumber, count);
+		while (cursor.next()) {
+			sink.accept(cursor.buffer, 0, cursor.buffer.length);
+		}
+	}
+
+	/**
+	 * Same ibans as {@link #generate(long, long, IbanSink)}, as Strings.
+	 */
+	public Stream<String> stream(long firstAccountNumber, long count) throws IbanServiceException {
+		final Cursor cursor = new Cursor(firstAccountNumber, count);
+		final Spliterator<String> spliterator = new Spliterators.AbstractSpliterator<String>(count,
+				Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL | Spliterator.DISTINCT) {
+			@Override
+			public boolean tryAdvance(Consumer<? super String> action) {
+				if (!cursor.next()) {
+					return false;
+				}
+				action.accept(new String(cursor.buffer));
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	private IbanServiceException unsupportedCountry(CountryCode countryCode) {
+		return new IbanServiceException(IbanExceptionType.invalidCountryCode, String.format(
+				"Range generation is only supported for countries of bank code and account number, not %s",
+				countryCode));
+	}
+
+	private static IbanServiceException invalidBankCodeLength(CountryStructure countryStructure, String bankCode) {
+		int bankCodeLength = 0;
+		for (final IbanAttribute ibanAttribute : countryStructure.getIbanAttributes()) {
+			if (ibanAttribute.getAttributeType() == AttributeType.bankCode) {
+				bankCodeLength += ibanAttribute.getAttributeLength();
+			}
+		}
+		return new IbanServiceException(IbanExceptionType.invalidIbanLength, String.format(
+				"[%s] length is %d, expected bank code length is: %d", bankCode, bankCode.length(), bankCodeLength));
+	}
+
+	/**
+	 * Walks the range, holding the current iban and the remainder of its rearranged form with
+	 * check digit 00.
+	 */
+	private class Cursor {
+		final char[] buffer = template.clone();
+		long remaining;
+		int remainder;
+		boolean started;
+
+		Cursor(long firstAccountNumber, long count) throws IbanServiceException {
+			if (firstAccountNumber < 0 || count < 0 || accountNumberLength < 19
+					&& firstAccountNumber + count > pow10(accountNumberLength)) {
+				throw new IbanServiceException(IbanExceptionType.invalidIbanLength, String.format(
+						"Account numbers %d to %d do not fit into %d digits",
+						firstAccountNumber, firstAccountNumber + count - 1, accountNumberLength));
+			}
+			long accountNumber = firstAccountNumber;
+			for (int i = accountNumberIndex + accountNumberLength - 1; i >= accountNumberIndex; i--) {
+				buffer[i] = (char) ('0' + accountNumber % 10);
+				accountNumber /= 10;
+			}
+			this.remaining = count;
+			this.remainder = 98 - Mod97.checkDigit(buffer, 0, buffer.length);
+		}
+
+		boolean next() {
+			if (remaining == 0) {
+				return false;
+			}
+			remaining--;
+			if (started) {
+				incrementAccountNumber();
+				remainder += remainderIncrement;
+				if (remainder >= Mod97.MODULUS) {
+					remainder -= Mod97.MODULUS;
+				}
+			}
+			started = true;
+			final int checkDigit = 98 - remainder;
+			buffer[CHECK_DIGIT_INDEX] = (char) ('0' + checkDigit / 10);
+			buffer[CHECK_DIGIT_INDEX + 1] = (char) ('0' + checkDigit % 10);
+			return true;
+		}
+
+		private void incrementAccountNumber() {
+			int i = accountNumberIndex + accountNumberLength - 1;
+			while (buffer[i] == '9') {
+				buffer[i--] = '0';
+			}
+			buffer[i]++;
+		}
+	}
+
+	private static long pow10(int exponent) {
+		long result = 1;
+		for (int i = 0; i < exponent; i++) {
+			result *= 10;
+		}
+		return result;
+	}
+}
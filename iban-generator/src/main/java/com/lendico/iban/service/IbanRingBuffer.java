@@ -0,0 +1,96 @@
+package com.lendico.iban.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock free queue of ibans for any number of producers and consumers. Every slot has a
+ * sequence telling whether it is free for the put or the take of the current round, so offer
+ * and poll claim a slot with one compare and set and allocate nothing.
+ * @author noman
+ */
+final class IbanRingBuffer {
+	private final AtomicReferenceArray<String> ibans;
+	private final AtomicLongArray sequences;
+	private final int mask;
+	/** Number of the next take. */
+	private final AtomicLong head = new AtomicLong();
+	/** Number of the next put. */
+	private final AtomicLong tail = new AtomicLong();
+
+	/**
+	 * @param capacity rounded up to the next power of two
+	 */
+	IbanRingBuffer(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+		}
+		final int slots = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.ibans = new AtomicReferenceArray<String>(slots);
+		this.sequences = new AtomicLongArray(slots);
+		this.mask = slots - 1;
+		for (int i = 0; i < slots; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	int capacity() {
+		return mask + 1;
+	}
+
+	/**
+	 * @return false if the buffer is full
+	 */
+	boolean offer(String iban) {
+		long position = tail.get();
+		while (true) {
+			final int slot = (int) position & mask;
+			final long difference = sequences.get(slot) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					ibans.lazySet(slot, iban);
+					sequences.set(slot, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				return false;
+			} else {
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * @return null if the buffer is empty
+	 */
+	String poll() {
+		long position = head.get();
+		while (true) {
+			final int slot = (int) position & mask;
+			final long difference = sequences.get(slot) - (position + 1);
+			if (difference == 0) {
+				if (head.compareAndSet(position, position + 1)) {
+					final String iban = ibans.get(slot);
+					ibans.lazySet(slot, null);
+					sequences.set(slot, position + mask + 1);
+					return iban;
+				}
+				position = head.get();
+			} else if (difference < 0) {
+				return null;
+			} else {
+				position = head.get();
+			}
+		}
+	}
+
+	/**
+	 * @return number of ibans in the buffer, only a snapshot while others offer or poll
+	 */
+	int size() {
+		final long size = tail.get() - head.get();
+		return size < 0 ? 0 : size > capacity() ? capacity() : (int) size;
+	}
+}
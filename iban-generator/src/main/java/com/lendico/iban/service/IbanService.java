@@ -1,15 +1,65 @@
 package com.lendico.iban.service;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanValidationResult;
 
 /**
  * interface for IbanService
  * @author noman
  */
 public interface IbanService {
+	/**
+	 * Only for countries whose bban consists of the bank code and account number, ibans holding
+	 * other segments like a branch code or national check digit are rejected.
+	 */
 	String generateIban(String countryCode, String bankCode, String accountNumber) throws IbanServiceException;
 	
 	String generateRandomIbanForCountry(String countryCode) throws IbanServiceException;
 	
+	/**
+	 * Generates count random ibans for the country in one call, spread over the worker threads.
+	 */
+	List<String> generateRandomIbans(String countryCode, int count) throws IbanServiceException;
+	
+	/**
+	 * Infinite stream of random ibans for the country, use {@link Stream#limit(long)} to bound it.
+	 */
+	Stream<String> generateRandomIbanStream(String countryCode) throws IbanServiceException;
+	
+	/**
+	 * Generates count distinct random ibans for the country without tracking the generated ones.
+	 * @see UniqueIbanGenerator
+	 */
+	List<String> generateUniqueRandomIbans(String countryCode, int count) throws IbanServiceException;
+	
+	/**
+	 * Stream of count distinct random ibans for the country, memory use does not grow with count.
+	 */
+	Stream<String> generateUniqueRandomIbanStream(String countryCode, long count) throws IbanServiceException;
+	
+	/**
+	 * Ibans of count consecutive account numbers under the bank code, starting at firstAccountNumber.
+	 * @see IbanRangeGenerator
+	 */
+	Stream<String> generateIbanRange(String countryCode, String bankCode,
+			long firstAccountNumber, long count) throws IbanServiceException;
+	
 	void validateIban(String ibanString) throws IbanServiceException;
+	
+	/**
+	 * Validates without throwing, invalid ibans are reported through the returned result.
+	 */
+	IbanValidationResult tryValidateIban(String ibanString);
+	
+	/**
+	 * Validates all ibans, the result at each index belongs to the iban at the same index.
+	 */
+	List<IbanValidationResult> validateIbans(List<String> ibans);
+	
+	IbanValidationResult[] validateIbans(String[] ibans);
+	
+	List<IbanValidationResult> validateIbans(Stream<String> ibans);
 }
@@ -1,71 +1,377 @@
 package com.lendico.iban.service;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.lendico.iban.bank.BankDirectory;
+import com.lendico.iban.event.IbanEvents;
 import com.lendico.iban.exception.IbanExceptionType;
 import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.AttributeType;
 import com.lendico.iban.structure.DefaultIbanStructure;
 import com.lendico.iban.structure.IbanAttribute;
+import com.lendico.iban.structure.IbanRandom;
+import com.lendico.iban.structure.SeededIbanRandom;
 import com.lendico.iban.util.IbanUtil;
+import com.lendico.iban.util.IbanValidationResult;
 import com.neovisionaries.i18n.CountryCode;
 
-public class IbanServiceImpl implements IbanService {
+public class IbanServiceImpl implements IbanService, AutoCloseable {
+	private static final int LETTERS = 26;
+	
 	private Logger logger = LoggerFactory.getLogger(getClass());
 	
+	private final ExecutionMode executionMode;
+	
+	private final ForkJoinPool forkJoinPool;
+	
+	/** Whether the pool was created by this service and is shut down by {@link #close()}. */
+	private final boolean ownsForkJoinPool;
+	
+	private volatile Long randomSeed;
+	
+	private final AtomicLong randomSequence = new AtomicLong();
+	
+	/** Directories checked by validation, indexed by the letters of their country, null if there are none. */
+	private volatile BankDirectory[] bankDirectoryByAlpha2;
+	
+	/**
+	 * Bulk operations run in parallel on the common fork join pool.
+	 */
+	public IbanServiceImpl() {
+		this(ExecutionMode.parallel, ForkJoinPool.commonPool(), false);
+	}
+	
+	public IbanServiceImpl(ExecutionMode executionMode) {
+		this(executionMode, ForkJoinPool.commonPool(), false);
+	}
+	
+	/**
+	 * Creates its own pool in parallel mode, {@link #close()} the service to shut it down.
+	 * @param parallelism number of worker threads used by bulk operations in parallel mode
+	 */
+	public IbanServiceImpl(ExecutionMode executionMode, int parallelism) {
+		this(executionMode, executionMode == ExecutionMode.parallel ? new ForkJoinPool(parallelism) : null,
+				executionMode == ExecutionMode.parallel);
+	}
+	
+	private IbanServiceImpl(ExecutionMode executionMode, ForkJoinPool forkJoinPool, boolean ownsForkJoinPool) {
+		this.executionMode = executionMode;
+		this.forkJoinPool = forkJoinPool;
+		this.ownsForkJoinPool = ownsForkJoinPool;
+	}
+	
+	/**
+	 * Shuts down the pool created for the given parallelism, bulk operations in parallel mode are
+	 * rejected afterwards. The common pool is left alone, so closing a service using it does nothing.
+	 */
+	@Override
+	public void close() {
+		if (ownsForkJoinPool) {
+			forkJoinPool.shutdown();
+		}
+	}
+	
+	/**
+	 * Makes random generation reproducible, the n-th random iban generated after this call only
+	 * depends on the seed and n, not on the execution mode or threads. Without a seed every thread
+	 * draws from its own {@link java.util.concurrent.ThreadLocalRandom}.
+	 */
+	public void setRandomSeed(long randomSeed) {
+		this.randomSequence.set(0);
+		this.randomSeed = randomSeed;
+	}
+	
+	/**
+	 * Makes validation, and generation from a bank code, reject bank codes missing from the
+	 * directory with {@link IbanExceptionType#unknownBankCode}, and German account numbers failing
+	 * the check digit method of their bank with {@link IbanExceptionType#invalidNationalCheckDigit}. Accounts whose method
+	 * is not implemented pass or fail as set by the {@link com.lendico.iban.bank.UncheckedAccountPolicy} of the directory.
+	 * Replaces the directory of the same country.
+	 */
+	public synchronized void addBankDirectory(BankDirectory bankDirectory) {
+		final BankDirectory[] directories = bankDirectoryByAlpha2 == null
+				? new BankDirectory[LETTERS * LETTERS] : bankDirectoryByAlpha2.clone();
+		directories[alpha2Index(bankDirectory.getCountryCode())] = bankDirectory;
+		bankDirectoryByAlpha2 = directories;
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public String generateIban(String countryCode, String bankCode,
 			String accountNumber) throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return createIban(countryCode, bankCode, accountNumber);
+		}
+		return recordEvent(events, "generateIban", countryCode, () -> createIban(countryCode, bankCode, accountNumber));
+	}
+	
+	@Override
+	public String generateRandomIbanForCountry(String countryCode)
+			throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return createRandomIban(countryCode);
+		}
+		return recordEvent(events, "generateRandomIbanForCountry", countryCode, () -> createRandomIban(countryCode));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> generateRandomIbans(String countryCode, int count) throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return createRandomIbans(countryCode, count);
+		}
+		return recordEvent(events, "generateRandomIbans", countryCode, () -> createRandomIbans(countryCode, count));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Stream<String> generateRandomIbanStream(String countryCode) throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return createRandomIbanStream(countryCode);
+		}
+		return recordEvent(events, "generateRandomIbanStream", countryCode, () -> createRandomIbanStream(countryCode));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<String> generateUniqueRandomIbans(String countryCode, int count) throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return createUniqueRandomIbans(countryCode, count);
+		}
+		return recordEvent(events, "generateUniqueRandomIbans", countryCode,
+				() -> createUniqueRandomIbans(countryCode, count));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Stream<String> generateUniqueRandomIbanStream(String countryCode, long count)
+			throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return getUniqueIbanGenerator(countryCode, count).stream(count);
+		}
+		return recordEvent(events, "generateUniqueRandomIbanStream", countryCode,
+				() -> getUniqueIbanGenerator(countryCode, count).stream(count));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Stream<String> generateIbanRange(String countryCode, String bankCode,
+			long firstAccountNumber, long count) throws IbanServiceException {
+		final IbanEvents events = IbanEvents.begin();
+		if (events == null) {
+			return new IbanRangeGenerator(countryCode, bankCode).stream(firstAccountNumber, count);
+		}
+		return recordEvent(events, "generateIbanRange", countryCode,
+				() -> new IbanRangeGenerator(countryCode, bankCode).stream(firstAccountNumber, count));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void validateIban(String ibanString) throws IbanServiceException {
+		IbanUtil.validate(ibanString);
+		final IbanValidationResult result = checkBank(ibanString, IbanValidationResult.valid());
+		if (!result.isValid()) {
+			throw result.toException();
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IbanValidationResult tryValidateIban(String ibanString) {
+		return checkBank(ibanString, IbanUtil.tryValidate(ibanString));
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<IbanValidationResult> validateIbans(List<String> ibans) {
+		if (!(ibans instanceof RandomAccess)) {
+			return Arrays.asList(validateIbans(ibans.toArray(new String[ibans.size()])));
+		}
+		final IbanValidationResult[] results = new IbanValidationResult[ibans.size()];
+		forEachIndex(results.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				results[i] = checkBank(ibans.get(i), IbanUtil.tryValidate(ibans.get(i)));
+			}
+		});
+		return Arrays.asList(results);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IbanValidationResult[] validateIbans(String[] ibans) {
+		final IbanValidationResult[] results = new IbanValidationResult[ibans.length];
+		forEachIndex(results.length, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				results[i] = checkBank(ibans[i], IbanUtil.tryValidate(ibans[i]));
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<IbanValidationResult> validateIbans(Stream<String> ibans) {
+		return Arrays.asList(validateIbans(ibans.toArray(String[]::new)));
+	}
+	
+	/**
+	 * Runs the call of an operation started while iban events are recorded. Public methods check
+	 * {@link IbanEvents#begin()} for null first and run their body directly, so no call object is
+	 * created outside of a recording.
+	 */
+	private <T> T recordEvent(IbanEvents events, String operation, String countryCode, IbanCall<T> call)
+			throws IbanServiceException {
+		try {
+			final T result = call.call();
+			events.commit(operation, countryCode);
+			return result;
+		} catch (IbanServiceException e) {
+			events.commitFailure(operation, countryCode, e.getIbanExceptionType());
+			throw e;
+		}
+	}
+	
+	private String createIban(String countryCode, String bankCode, String accountNumber) throws IbanServiceException {
 		if(StringUtils.isBlank(countryCode) || 
 		   StringUtils.isBlank(bankCode) || 
 		   StringUtils.isBlank(accountNumber)) {
-			
+		
 			logger.error("countryCode, bankCode and accountNumber must be filled");
 			throw new IbanServiceException("countryCode, bankCode and accountNumber must be filled");
 		}
-		
+	
 		final String formattedIban = formatIban(countryCode, bankCode, accountNumber);
-		
+	
 		final String checkDigit = IbanUtil.calculateCheckDigit(formattedIban);
-		
+	
 		final String ibanValue = IbanUtil.replaceCheckDigit(formattedIban, checkDigit);
-		
+	
 		validateIban(ibanValue);
-		
+	
 		return ibanValue;
 	}
 	
-	@Override
-	public String generateRandomIbanForCountry(String countryCode)
-			throws IbanServiceException {
-		if(StringUtils.isBlank(countryCode)) {
-			logger.error("Iban can not be created as countryCode is null");
-			throw new IbanServiceException("Iban can not be created as countryCode is null");
+	private String createRandomIban(String countryCode) throws IbanServiceException {
+		final Long seed = randomSeed;
+		if (seed == null) {
+			return getRandomIbanFormatter(countryCode).next(IbanRandom.THREAD_LOCAL);
 		}
-		
-		final String formattedIban = formatRandomIban(countryCode);
-		
-		final String checkDigit = IbanUtil.calculateCheckDigit(formattedIban);
-		
-		final String ibanValue = IbanUtil.replaceCheckDigit(formattedIban, checkDigit);
-		
-		validateIban(ibanValue);
-
-		return ibanValue;
+		return getRandomIbanFormatter(countryCode).next(
+				IbanRandom.seeded(seed).reset(seed, randomSequence.getAndIncrement()));
+	}
+	
+	private List<String> createRandomIbans(String countryCode, int count) throws IbanServiceException {
+		checkCount(count);
+		final RandomIbanFormatter randomIbanFormatter = getRandomIbanFormatter(countryCode);
+		final String[] ibans = new String[count];
+		final Long seed = randomSeed;
+		if (seed == null) {
+			forEachIndex(count, (from, to) -> {
+				for (int i = from; i < to; i++) {
+					ibans[i] = randomIbanFormatter.next(IbanRandom.THREAD_LOCAL);
+				}
+			});
+		} else {
+			final long firstIndex = randomSequence.getAndAdd(count);
+			forEachIndex(count, (from, to) -> {
+				final SeededIbanRandom random = IbanRandom.seeded(seed);
+				for (int i = from; i < to; i++) {
+					ibans[i] = randomIbanFormatter.next(random.reset(seed, firstIndex + i));
+				}
+			});
+		}
+		return Arrays.asList(ibans);
+	}
+	
+	private Stream<String> createRandomIbanStream(String countryCode) throws IbanServiceException {
+		final RandomIbanFormatter randomIbanFormatter = getRandomIbanFormatter(countryCode);
+		final Long seed = randomSeed;
+		if (seed == null) {
+			return Stream.generate(() -> randomIbanFormatter.next(IbanRandom.THREAD_LOCAL));
+		}
+		return Stream.generate(() -> randomIbanFormatter.next(
+				IbanRandom.seeded(seed).reset(seed, randomSequence.getAndIncrement())));
+	}
+	
+	private List<String> createUniqueRandomIbans(String countryCode, int count) throws IbanServiceException {
+		final UniqueIbanGenerator uniqueIbanGenerator = getUniqueIbanGenerator(countryCode, count);
+		final String[] ibans = new String[count];
+		forEachIndex(count, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				ibans[i] = uniqueIbanGenerator.get(i);
+			}
+		});
+		return Arrays.asList(ibans);
 	}
 	
 	/**
-	 * {@inheritDoc}
+	 * @return the result of the bank directory of the country for a valid iban, else the given result
 	 */
-	@Override
-	public void validateIban(String ibanString) throws IbanServiceException {
-		IbanUtil.validate(ibanString);
+	private IbanValidationResult checkBank(String iban, IbanValidationResult result) {
+		final BankDirectory[] directories = bankDirectoryByAlpha2;
+		if (directories == null || !result.isValid()) {
+			return result;
+		}
+		final BankDirectory bankDirectory = directories[alpha2Index(iban)];
+		return bankDirectory == null ? result : bankDirectory.checkBank(iban);
+	}
+	
+	private void checkCount(long count) throws IbanServiceException {
+		if (count < 0) {
+			logger.error("Negative count of ibans");
+			throw new IbanServiceException(String.format("count must not be negative: %d", count));
+		}
+	}
+	
+	private static int alpha2Index(String countryCode) {
+		return (countryCode.charAt(0) - 'A') * LETTERS + countryCode.charAt(1) - 'A';
+	}
+	
+	private void forEachIndex(int size, RangeTask.RangeAction rangeAction) {
+		if (executionMode == ExecutionMode.sequential) {
+			rangeAction.apply(0, size);
+			return;
+		}
+		final int batchSize = RangeTask.batchSize(size, forkJoinPool.getParallelism());
+		forkJoinPool.invoke(new RangeTask(rangeAction, 0, size, batchSize));
 	}
 	
 	
@@ -81,23 +387,46 @@ public class IbanServiceImpl implements IbanService {
         sb.append(countryCodeEnum.getAlpha2());
         sb.append(IbanUtil.DEFAULT_CHECK_DIGIT);
 
+        // only a bank code and an account number are passed in, anything else would shift the bban
         for(IbanAttribute ibanAttribute : ibanAttributeForCountry) {
-            switch (ibanAttribute.getAttributeType()) {
-                case bankCode:
-                    sb.append(bankCode);
-                    break;
-                case accountNumber:
-                    sb.append(accountNumber);
-                    break;
+            final AttributeType attributeType = ibanAttribute.getAttributeType();
+            if (attributeType != AttributeType.bankCode && attributeType != AttributeType.accountNumber) {
+                logger.error("Iban structure of the country has more than a bank code and an account number");
+                throw new IbanServiceException(String.format(
+                        "Ibans of %s also hold a %s, they can not be generated from a bank code and an account number only.",
+                        countryCode, attributeType));
             }
         }
+
+        for(IbanAttribute ibanAttribute : ibanAttributeForCountry) {
+            sb.append(ibanAttribute.getAttributeType() == AttributeType.bankCode ? bankCode : accountNumber);
+        }
         return sb.toString();
     }
 	
 	
-	private String formatRandomIban(String countryCode) throws IbanServiceException {
-        final StringBuilder sb = new StringBuilder();
-
+	/**
+	 * With a random seed set the same seed gives the same ibans, otherwise every call draws a new key.
+	 */
+	private UniqueIbanGenerator getUniqueIbanGenerator(String countryCode, long count) throws IbanServiceException {
+		checkCount(count);
+		final Long seed = randomSeed;
+		final UniqueIbanGenerator uniqueIbanGenerator = new UniqueIbanGenerator(countryCode,
+				seed != null ? seed : ThreadLocalRandom.current().nextLong());
+		if (count > uniqueIbanGenerator.getCapacity()) {
+			logger.error("Not enough distinct ibans for the country");
+			throw new IbanServiceException(String.format("Only %d distinct ibans exist for %s",
+					uniqueIbanGenerator.getCapacity(), countryCode));
+		}
+		return uniqueIbanGenerator;
+	}
+	
+	private RandomIbanFormatter getRandomIbanFormatter(String countryCode) throws IbanServiceException {
+		if(StringUtils.isBlank(countryCode)) {
+			logger.error("Iban can not be created as countryCode is null");
+			throw new IbanServiceException("Iban can not be created as countryCode is null");
+		}
+		
         CountryCode countryCodeEnum = CountryCode.getByCode(countryCode);
         final List<IbanAttribute> ibanAttributeForCountry = DefaultIbanStructure.getIbanAttributeForCountry(countryCodeEnum);
         
@@ -105,19 +434,6 @@ public class IbanServiceImpl implements IbanService {
         	logger.error("CountryCode is not supported");
             throw new IbanServiceException(IbanExceptionType.invalidCountryCode, "CountryCode is not supported.");
         }
-        sb.append(countryCodeEnum.getAlpha2());
-        sb.append(IbanUtil.DEFAULT_CHECK_DIGIT);
-
-        for(IbanAttribute ibanAttribute : ibanAttributeForCountry) {
-            switch (ibanAttribute.getAttributeType()) {
-                case bankCode:
-                    sb.append(ibanAttribute.getRandom());
-                    break;
-                case accountNumber:
-                	sb.append(ibanAttribute.getRandom());
-                    break;
-            }
-        }
-        return sb.toString();
+        return new RandomIbanFormatter(countryCodeEnum, ibanAttributeForCountry);
     }
 }
@@ -0,0 +1,13 @@
+package com.lendico.iban.service;
+
+/**
+ * Receives generated ibans as characters of a buffer owned by the generator.
+ * @author noman
+ */
+public interface IbanSink {
+
+	/**
+	 * The buffer is overwritten by the next iban, it must be copied if the iban is kept.
+	 */
+	void accept(char[] buffer, int offset, int length);
+}
@@ -0,0 +1,190 @@
+package com.lendico.iban.service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.metrics.IbanOperation;
+import com.lendico.iban.metrics.IbanServiceMetrics;
+import com.lendico.iban.metrics.OperationMetrics;
+import com.lendico.iban.util.IbanValidationResult;
+
+/**
+ * Decorator recording calls, latencies and failures of every operation of the delegate, per
+ * operation and country. Validation is recorded under the country of the iban, batch validation
+ * under {@link IbanServiceMetrics#OTHER_COUNTRIES} with one failure per invalid iban. For streams
+ * only the creation of the stream is measured.
+ * <p>
+ * Recording uses striped counters only, it is safe and cheap under any number of threads.
+ * @author noman
+ */
+public class InstrumentedIbanService implements IbanService {
+	private final IbanService delegate;
+	private final IbanServiceMetrics metrics;
+
+	public InstrumentedIbanService(IbanService delegate) {
+		this(delegate, new IbanServiceMetrics());
+	}
+
+	public InstrumentedIbanService(IbanService delegate, IbanServiceMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @return the metrics, to be registered over JMX with {@link IbanServiceMetrics#registerMBean(String)}
+	 */
+	public IbanServiceMetrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public String generateIban(String countryCode, String bankCode, String accountNumber)
+			throws IbanServiceException {
+		return record(IbanOperation.generateIban, countryCode,
+				() -> delegate.generateIban(countryCode, bankCode, accountNumber));
+	}
+
+	@Override
+	public String generateRandomIbanForCountry(String countryCode) throws IbanServiceException {
+		return record(IbanOperation.generateRandomIbanForCountry, countryCode,
+				() -> delegate.generateRandomIbanForCountry(countryCode));
+	}
+
+	@Override
+	public List<String> generateRandomIbans(String countryCode, int count) throws IbanServiceException {
+		return record(IbanOperation.generateRandomIbans, countryCode,
+				() -> delegate.generateRandomIbans(countryCode, count));
+	}
+
+	@Override
+	public Stream<String> generateRandomIbanStream(String countryCode) throws IbanServiceException {
+		return record(IbanOperation.generateRandomIbanStream, countryCode,
+				() -> delegate.generateRandomIbanStream(countryCode));
+	}
+
+	@Override
+	public List<String> generateUniqueRandomIbans(String countryCode, int count) throws IbanServiceException {
+		return record(IbanOperation.generateUniqueRandomIbans, countryCode,
+				() -> delegate.generateUniqueRandomIbans(countryCode, count));
+	}
+
+	@Override
+	public Stream<String> generateUniqueRandomIbanStream(String countryCode, long count)
+			throws IbanServiceException {
+		return record(IbanOperation.generateUniqueRandomIbanStream, countryCode,
+				() -> delegate.generateUniqueRandomIbanStream(countryCode, count));
+	}
+
+	@Override
+	public Stream<String> generateIbanRange(String countryCode, String bankCode, long firstAccountNumber,
+			long count) throws IbanServiceException {
+		return record(IbanOperation.generateIbanRange, countryCode,
+				() -> delegate.generateIbanRange(countryCode, bankCode, firstAccountNumber, count));
+	}
+
+	@Override
+	public void validateIban(String ibanString) throws IbanServiceException {
+		record(IbanOperation.validateIban, ibanString, () -> {
+			delegate.validateIban(ibanString);
+			return null;
+		});
+	}
+
+	@Override
+	public IbanValidationResult tryValidateIban(String ibanString) {
+		final OperationMetrics operationMetrics = metrics.get(IbanOperation.tryValidateIban, ibanString);
+		final long start = System.nanoTime();
+		try {
+			final IbanValidationResult result = delegate.tryValidateIban(ibanString);
+			if (!result.isValid()) {
+				operationMetrics.recordFailure(result.getIbanExceptionType());
+			}
+			return result;
+		} catch (RuntimeException e) {
+			operationMetrics.recordFailure(null);
+			throw e;
+		} finally {
+			operationMetrics.record(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public List<IbanValidationResult> validateIbans(List<String> ibans) {
+		final OperationMetrics operationMetrics = metrics.get(IbanOperation.validateIbans, null);
+		final long start = System.nanoTime();
+		try {
+			final List<IbanValidationResult> results = delegate.validateIbans(ibans);
+			for (final IbanValidationResult result : results) {
+				recordResult(operationMetrics, result);
+			}
+			return results;
+		} catch (RuntimeException e) {
+			operationMetrics.recordFailure(null);
+			throw e;
+		} finally {
+			operationMetrics.record(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public IbanValidationResult[] validateIbans(String[] ibans) {
+		final OperationMetrics operationMetrics = metrics.get(IbanOperation.validateIbans, null);
+		final long start = System.nanoTime();
+		try {
+			final IbanValidationResult[] results = delegate.validateIbans(ibans);
+			for (final IbanValidationResult result : results) {
+				recordResult(operationMetrics, result);
+			}
+			return results;
+		} catch (RuntimeException e) {
+			operationMetrics.recordFailure(null);
+			throw e;
+		} finally {
+			operationMetrics.record(System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public List<IbanValidationResult> validateIbans(Stream<String> ibans) {
+		final OperationMetrics operationMetrics = metrics.get(IbanOperation.validateIbans, null);
+		final long start = System.nanoTime();
+		try {
+			final List<IbanValidationResult> results = delegate.validateIbans(ibans);
+			for (final IbanValidationResult result : results) {
+				recordResult(operationMetrics, result);
+			}
+			return results;
+		} catch (RuntimeException e) {
+			operationMetrics.recordFailure(null);
+			throw e;
+		} finally {
+			operationMetrics.record(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Runs the call and records its latency and, if it throws, its failure.
+	 */
+	private <T> T record(IbanOperation operation, String countryCode, IbanCall<T> call) throws IbanServiceException {
+		final OperationMetrics operationMetrics = metrics.get(operation, countryCode);
+		final long start = System.nanoTime();
+		try {
+			return call.call();
+		} catch (IbanServiceException e) {
+			operationMetrics.recordFailure(e.getIbanExceptionType());
+			throw e;
+		} catch (RuntimeException e) {
+			operationMetrics.recordFailure(null);
+			throw e;
+		} finally {
+			operationMetrics.record(System.nanoTime() - start);
+		}
+	}
+
+	private static void recordResult(OperationMetrics operationMetrics, IbanValidationResult result) {
+		if (!result.isValid()) {
+			operationMetrics.recordFailure(result.getIbanExceptionType());
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package com.lendico.iban.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects single requests and hands them to a {@link BatchHandler} in batches on the executor.
+ * A batch holds the requests queued up while the previous one was handled, so batches grow
+ * with the load and a request alone is handled without waiting.
+ * @author noman
+ */
+class MicroBatcher<T, R> {
+
+	interface BatchHandler<T, R> {
+		/**
+		 * Completes the future at each index with the result of the input at the same index.
+		 */
+		void handle(List<T> inputs, List<CompletableFuture<R>> results);
+	}
+
+	private static final class Request<T, R> {
+		final T input;
+		final CompletableFuture<R> result = new CompletableFuture<R>();
+
+		Request(T input) {
+			this.input = input;
+		}
+	}
+
+	private final Executor executor;
+	private final int maxBatchSize;
+	private final BatchHandler<T, R> batchHandler;
+	private final Queue<Request<T, R>> requests = new ConcurrentLinkedQueue<Request<T, R>>();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	MicroBatcher(Executor executor, int maxBatchSize, BatchHandler<T, R> batchHandler) {
+		this.executor = executor;
+		this.maxBatchSize = maxBatchSize;
+		this.batchHandler = batchHandler;
+	}
+
+	CompletableFuture<R> submit(T input) {
+		final Request<T, R> request = new Request<T, R>(input);
+		requests.offer(request);
+		schedule();
+		return request.result;
+	}
+
+	private void schedule() {
+		if (scheduled.compareAndSet(false, true)) {
+			try {
+				executor.execute(this::handleBatch);
+			} catch (RuntimeException e) {
+				scheduled.set(false);
+				Request<T, R> request;
+				while ((request = requests.poll()) != null) {
+					request.result.completeExceptionally(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Handles one batch and schedules the next one, so other tasks of the executor are not starved.
+	 */
+	private void handleBatch() {
+		final List<T> inputs = new ArrayList<T>();
+		final List<CompletableFuture<R>> results = new ArrayList<CompletableFuture<R>>();
+		Request<T, R> request;
+		while (inputs.size() < maxBatchSize && (request = requests.poll()) != null) {
+			inputs.add(request.input);
+			results.add(request.result);
+		}
+		try {
+			if (!inputs.isEmpty()) {
+				batchHandler.handle(inputs, results);
+			}
+		} catch (RuntimeException e) {
+			for (final CompletableFuture<R> result : results) {
+				result.completeExceptionally(e);
+			}
+		} finally {
+			scheduled.set(false);
+			if (!requests.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+}
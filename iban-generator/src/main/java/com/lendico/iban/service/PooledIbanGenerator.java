@@ -0,0 +1,221 @@
+package com.lendico.iban.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Hands out random ibans generated ahead of time, so callers measuring their own latency do not
+ * pay for the generation. Every country has a bounded {@link IbanRingBuffer}, filled to capacity
+ * by a background thread from {@link #prefill(String)} or the first take of the country, and
+ * refilled whenever a take leaves no more than the low water mark. Takes racing with the first
+ * fill get the ibans as they arrive, a dry pool is handled by the {@link DryPoolPolicy}, except
+ * that {@link DryPoolPolicy#fail} waits like {@link DryPoolPolicy#block} until the first fill of
+ * the pool is done. Taking an iban from a pool that is not dry allocates nothing.
+ * <p>
+ * The ibans come from {@link IbanService#generateRandomIbans(String, int)} of the delegate, so a
+ * random seed set on it makes the pools reproducible. Close the generator to stop the refill thread.
+ * @author noman
+ */
+public class PooledIbanGenerator implements AutoCloseable {
+	private static final int REFILL_BATCH_SIZE = 1024;
+	private static final long DRY_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final IbanService delegate;
+	private final int capacity;
+	private final int lowWaterMark;
+	private final DryPoolPolicy dryPoolPolicy;
+	private final ExecutorService refillExecutor;
+	private final ConcurrentMap<String, CountryPool> pools = new ConcurrentHashMap<String, CountryPool>();
+	private final LongAdder dryTakes = new LongAdder();
+	private volatile boolean closed;
+
+	/**
+	 * A pool of ibans of one country with the state of its refill.
+	 */
+	private final class CountryPool {
+		final String countryCode;
+		final IbanRingBuffer ibans = new IbanRingBuffer(capacity);
+		final AtomicBoolean refilling = new AtomicBoolean();
+		/** Failure of the last refill, null if it succeeded. */
+		volatile IbanServiceException refillFailure;
+		/** Whether the first fill of the pool is done, successful or not. */
+		volatile boolean filled;
+
+		CountryPool(String countryCode) {
+			this.countryCode = countryCode;
+		}
+
+		void fill() throws IbanServiceException {
+			int missing;
+			while (!closed && (missing = capacity - ibans.size()) > 0) {
+				final List<String> generated = delegate.generateRandomIbans(countryCode, Math.min(missing, REFILL_BATCH_SIZE));
+				for (int i = 0; i < generated.size(); i++) {
+					if (!ibans.offer(generated.get(i))) {
+						return;
+					}
+				}
+			}
+		}
+
+		void requestRefill() {
+			if (closed || !refilling.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				refillExecutor.execute(this::refill);
+			} catch (RejectedExecutionException e) {
+				refilling.set(false);
+			}
+		}
+
+		private void refill() {
+			try {
+				fill();
+				refillFailure = null;
+			} catch (IbanServiceException e) {
+				refillFailure = e;
+			} finally {
+				filled = true;
+				refilling.set(false);
+			}
+			if (ibans.size() <= lowWaterMark && refillFailure == null) {
+				requestRefill();
+			}
+		}
+	}
+
+	/**
+	 * @param capacity most ibans pooled per country, rounded up to the next power of two
+	 * @param lowWaterMark a take leaving no more ibans than this in the pool starts a refill
+	 */
+	public PooledIbanGenerator(IbanService delegate, int capacity, int lowWaterMark, DryPoolPolicy dryPoolPolicy) {
+		if (lowWaterMark < 0 || lowWaterMark >= capacity) {
+			throw new IllegalArgumentException(String.format("lowWaterMark must be between 0 and %d: %d", capacity - 1, lowWaterMark));
+		}
+		this.delegate = delegate;
+		this.capacity = new IbanRingBuffer(capacity).capacity();
+		this.lowWaterMark = lowWaterMark;
+		this.dryPoolPolicy = dryPoolPolicy;
+		this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "iban-pool-refill");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Starts filling the pool of the country in the background instead of on the first take, returns
+	 * without waiting for the fill.
+	 * @throws IbanServiceException if the country is not supported
+	 */
+	public void prefill(String countryCode) throws IbanServiceException {
+		getPool(countryCode);
+	}
+
+	/**
+	 * @return a random iban of the country, taken from its pool
+	 * @throws IbanServiceException if the country is not supported, or the pool is dry and the
+	 * policy is {@link DryPoolPolicy#fail}, or a blocked take can not be served
+	 */
+	public String take(String countryCode) throws IbanServiceException {
+		final CountryPool pool = getPool(countryCode);
+		String iban = pool.ibans.poll();
+		if (iban == null) {
+			dryTakes.increment();
+			iban = takeFromDryPool(pool);
+		}
+		if (pool.ibans.size() <= lowWaterMark) {
+			pool.requestRefill();
+		}
+		return iban;
+	}
+
+	/**
+	 * @return number of ibans pooled for the country, 0 before its first take
+	 */
+	public int size(String countryCode) {
+		final CountryPool pool = pools.get(countryCode);
+		return pool == null ? 0 : pool.ibans.size();
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return number of takes that found their pool empty
+	 */
+	public long getDryTakes() {
+		return dryTakes.sum();
+	}
+
+	/**
+	 * Stops the refill, takes from dry pools fail afterwards unless the policy is inline.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		refillExecutor.shutdownNow();
+	}
+
+	private CountryPool getPool(String countryCode) throws IbanServiceException {
+		CountryPool pool = pools.get(countryCode);
+		if (pool == null) {
+			if (StringUtils.isBlank(countryCode)) {
+				throw new IbanServiceException("Iban can not be created as countryCode is null");
+			}
+			// checked up front as the generation runs in the background
+			if (DefaultIbanStructure.getCountryStructure(CountryCode.getByCode(countryCode)) == null) {
+				throw new IbanServiceException(IbanExceptionType.invalidCountryCode, "CountryCode is not supported.");
+			}
+			final CountryPool newPool = new CountryPool(countryCode);
+			pool = pools.putIfAbsent(countryCode, newPool);
+			if (pool == null) {
+				newPool.requestRefill();
+				return newPool;
+			}
+		}
+		return pool;
+	}
+
+	private String takeFromDryPool(CountryPool pool) throws IbanServiceException {
+		final DryPoolPolicy policy = dryPoolPolicy == DryPoolPolicy.fail && !pool.filled ? DryPoolPolicy.block : dryPoolPolicy;
+		switch (policy) {
+		case inline:
+			return delegate.generateRandomIbanForCountry(pool.countryCode);
+		case block:
+			String iban;
+			while ((iban = pool.ibans.poll()) == null) {
+				if (closed) {
+					throw new IbanServiceException("Pooled iban generator is closed");
+				}
+				if (pool.refillFailure != null) {
+					throw pool.refillFailure;
+				}
+				pool.requestRefill();
+				LockSupport.parkNanos(DRY_WAIT_NANOS);
+				if (Thread.currentThread().isInterrupted()) {
+					throw new IbanServiceException("Interrupted while waiting for ibans of " + pool.countryCode);
+				}
+			}
+			return iban;
+		default:
+			throw new IbanServiceException(String.format("Pool of ibans of %s is empty", pool.countryCode));
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.lendico.iban.service;
+
+import java.util.List;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.IbanAttribute;
+import com.lendico.iban.structure.IbanRandom;
+import com.lendico.iban.util.IbanFormat;
+import com.lendico.iban.util.IbanUtil;
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Writes random ibans of one country into a reusable char array. The ibans are valid by
+ * construction, so they are not validated again.
+ * @author noman
+ */
+class RandomIbanFormatter {
+	private static final int CHECK_DIGIT_INDEX = 2;
+	private static final int IBAN_INDEX = 4;
+
+	private static final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[IbanFormat.MAX_IBAN_LENGTH]);
+
+	private final CountryCode countryCode;
+	private final List<IbanAttribute> ibanAttributes;
+	private final int ibanLength;
+
+	RandomIbanFormatter(CountryCode countryCode, List<IbanAttribute> ibanAttributes) {
+		this.countryCode = countryCode;
+		this.ibanAttributes = ibanAttributes;
+		this.ibanLength = IbanUtil.getDefaultIbanLengthForCountry(countryCode);
+	}
+
+	int getIbanLength() {
+		return ibanLength;
+	}
+
+	/**
+	 * Writes one random iban into the first {@link #getIbanLength()} chars of the buffer.
+	 */
+	void format(char[] buffer, IbanRandom random) {
+		final String alpha2 = countryCode.getAlpha2();
+		buffer[0] = alpha2.charAt(0);
+		buffer[1] = alpha2.charAt(1);
+
+		int index = IBAN_INDEX;
+		for (int i = 0; i < ibanAttributes.size(); i++) {
+			final IbanAttribute ibanAttribute = ibanAttributes.get(i);
+			ibanAttribute.fillRandom(buffer, index, random);
+			index += ibanAttribute.getAttributeLength();
+		}
+
+		final int checkDigit;
+		try {
+			checkDigit = IbanUtil.calculateCheckDigit(buffer, 0, ibanLength);
+		} catch (IbanServiceException e) {
+			throw new IllegalStateException("Generated iban contains an invalid character", e);
+		}
+		buffer[CHECK_DIGIT_INDEX] = (char) ('0' + checkDigit / 10);
+		buffer[CHECK_DIGIT_INDEX + 1] = (char) ('0' + checkDigit % 10);
+	}
+
+	/**
+	 * Formats into a buffer reused by the calling thread and copies the result into a String.
+	 */
+	String next(IbanRandom random) {
+		final char[] buffer = buffers.get();
+		format(buffer, random);
+		return new String(buffer, 0, ibanLength);
+	}
+}
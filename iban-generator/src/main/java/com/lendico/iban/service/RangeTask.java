@@ -0,0 +1,48 @@
+package com.lendico.iban.service;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork join task splitting an index range in halves until it is small enough to run
+ * {@link RangeAction} on it directly.
+ * @author noman
+ */
+class RangeTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int MIN_BATCH_SIZE = 1024;
+
+	private static final int BATCHES_PER_WORKER = 4;
+
+	interface RangeAction {
+		void apply(int from, int to);
+	}
+
+	private final RangeAction rangeAction;
+	private final int from;
+	private final int to;
+	private final int batchSize;
+
+	RangeTask(RangeAction rangeAction, int from, int to, int batchSize) {
+		this.rangeAction = rangeAction;
+		this.from = from;
+		this.to = to;
+		this.batchSize = batchSize;
+	}
+
+	static int batchSize(int size, int parallelism) {
+		return Math.max(MIN_BATCH_SIZE, size / (parallelism * BATCHES_PER_WORKER));
+	}
+
+	@Override
+	protected void compute() {
+		if (to - from <= batchSize) {
+			rangeAction.apply(from, to);
+			return;
+		}
+		final int middle = (from + to) >>> 1;
+		invokeAll(new RangeTask(rangeAction, from, middle, batchSize),
+				new RangeTask(rangeAction, middle, to, batchSize));
+	}
+}
@@ -0,0 +1,100 @@
+package com.lendico.iban.service;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.lendico.iban.exception.IbanServiceException;
+
+/**
+ * One of shardCount disjoint slices of the ibans of a {@link UniqueIbanGenerator}, so nodes
+ * generating with the same master seed produce distinct ibans without coordinating. The iban at
+ * index n of shard k is the iban at index k + n * shardCount of the unique generator, so every
+ * index is formatted on its own and the same inputs always give the same ibans.
+ * @author noman
+ */
+public class ShardedIbanGenerator {
+	private final UniqueIbanGenerator generator;
+	private final int shardIndex;
+	private final int shardCount;
+	private final long capacity;
+
+	/**
+	 * @param masterSeed seed shared by all shards
+	 * @param shardIndex shard of this generator, from 0 to shardCount - 1
+	 */
+	public ShardedIbanGenerator(String countryCode, long masterSeed, int shardIndex, int shardCount)
+			throws IbanServiceException {
+		if (shardCount < 1 || shardIndex < 0 || shardIndex >= shardCount) {
+			throw new IllegalArgumentException(String.format("Invalid shard %d of %d", shardIndex, shardCount));
+		}
+		this.generator = new UniqueIbanGenerator(countryCode, masterSeed);
+		this.shardIndex = shardIndex;
+		this.shardCount = shardCount;
+		final long totalCapacity = generator.getCapacity();
+		this.capacity = totalCapacity > shardIndex ? (totalCapacity - shardIndex - 1) / shardCount + 1 : 0;
+	}
+
+	public int getShardIndex() {
+		return shardIndex;
+	}
+
+	public int getShardCount() {
+		return shardCount;
+	}
+
+	/**
+	 * @return number of distinct ibans of this shard
+	 */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	public int getIbanLength() {
+		return generator.getIbanLength();
+	}
+
+	/**
+	 * Writes the iban at index of this shard into buffer, starting at offset.
+	 * @throws IndexOutOfBoundsException if index is not below {@link #getCapacity()}
+	 */
+	public void format(long index, char[] buffer, int offset) {
+		if (index < 0 || index >= capacity) {
+			throw new IndexOutOfBoundsException(String.format("Index %d is not below %d", index, capacity));
+		}
+		generator.format(shardIndex + index * shardCount, buffer, offset);
+	}
+
+	public String get(long index) {
+		final char[] buffer = new char[getIbanLength()];
+		format(index, buffer, 0);
+		return new String(buffer);
+	}
+
+	/**
+	 * Passes the ibans from firstIndex to firstIndex + count - 1 of this shard to the sink, in a
+	 * reused buffer.
+	 */
+	public void generate(long firstIndex, long count, IbanSink sink) throws IbanServiceException {
+		checkRange(firstIndex, count);
+		final char[] buffer = new char[getIbanLength()];
+		for (long index = firstIndex; index < firstIndex + count; index++) {
+			format(index, buffer, 0);
+			sink.accept(buffer, 0, buffer.length);
+		}
+	}
+
+	/**
+	 * The first count ibans of this shard, the stream may be run in parallel.
+	 */
+	public Stream<String> stream(long count) throws IbanServiceException {
+		checkRange(0, count);
+		return LongStream.range(0, count).mapToObj(this::get);
+	}
+
+	private void checkRange(long firstIndex, long count) throws IbanServiceException {
+		if (firstIndex < 0 || count < 0 || count > capacity - firstIndex) {
+			throw new IbanServiceException(String.format("Only %d distinct ibans exist in shard %d of %d",
+					capacity, shardIndex, shardCount));
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.lendico.iban.service;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.lendico.iban.exception.IbanServiceException;
+
+/**
+ * Publishes the items of a stream of the delegate, opened on the executor for every subscriber.
+ * Items are only pulled from the stream while the subscriber has demand, so an infinite stream
+ * is fine. A failure opening or pulling the stream is sent as onError.
+ * <p>
+ * All signals to a subscriber are sent from a drain loop of which at most one runs at a time, it
+ * hands the executor back after {@link #MAX_ITEMS_PER_DRAIN} items.
+ * @author noman
+ */
+class StreamPublisher<T> implements Flow.Publisher<T> {
+	private static final int MAX_ITEMS_PER_DRAIN = 1024;
+
+	private final Executor executor;
+	private final IbanCall<Stream<T>> streamCall;
+
+	StreamPublisher(Executor executor, IbanCall<Stream<T>> streamCall) {
+		this.executor = executor;
+		this.streamCall = streamCall;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		final Subscription subscription = new Subscription(subscriber);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private class Subscription implements Flow.Subscription {
+		private final Flow.Subscriber<? super T> subscriber;
+		private final AtomicInteger pendingDrains = new AtomicInteger();
+		private final AtomicLong demand = new AtomicLong();
+		private volatile boolean cancelled;
+		private volatile IllegalArgumentException invalidRequest;
+
+		/** Only accessed by the drain loop. */
+		private Stream<T> stream;
+		private Iterator<T> iterator;
+		private boolean terminated;
+
+		Subscription(Flow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				invalidRequest = new IllegalArgumentException("Requested " + n + " items, must be positive (rule 3.9)");
+			} else {
+				demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			drain();
+		}
+
+		private void drain() {
+			if (pendingDrains.getAndIncrement() == 0) {
+				executor.execute(this::drainLoop);
+			}
+		}
+
+		private void drainLoop() {
+			int missed = 1;
+			do {
+				if (drainOnce()) {
+					// more demand than one drain may serve, continued in a new task
+					executor.execute(this::drainLoop);
+					return;
+				}
+				missed = pendingDrains.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		/**
+		 * @return whether items are left for the demand after {@link #MAX_ITEMS_PER_DRAIN}
+		 */
+		private boolean drainOnce() {
+			if (terminated) {
+				return false;
+			}
+			if (cancelled || invalidRequest != null) {
+				terminate();
+				if (!cancelled) {
+					subscriber.onError(invalidRequest);
+				}
+				return false;
+			}
+			try {
+				if (iterator == null) {
+					if (demand.get() == 0) {
+						return false;
+					}
+					stream = streamCall.call();
+					iterator = stream.iterator();
+				}
+				int emitted = 0;
+				while (!cancelled && demand.get() > 0 && iterator.hasNext()) {
+					if (emitted == MAX_ITEMS_PER_DRAIN) {
+						return true;
+					}
+					final T item = iterator.next();
+					if (demand.get() != Long.MAX_VALUE) {
+						demand.decrementAndGet();
+					}
+					subscriber.onNext(item);
+					emitted++;
+				}
+				if (!cancelled && !iterator.hasNext()) {
+					terminate();
+					subscriber.onComplete();
+				}
+			} catch (IbanServiceException | RuntimeException e) {
+				terminate();
+				subscriber.onError(e);
+			}
+			return false;
+		}
+
+		private void terminate() {
+			terminated = true;
+			if (stream != null) {
+				stream.close();
+			}
+		}
+	}
+}
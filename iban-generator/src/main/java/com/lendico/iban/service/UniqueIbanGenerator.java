@@ -0,0 +1,144 @@
+package com.lendico.iban.service;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang.StringUtils;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.lendico.iban.structure.IbanAttribute;
+import com.lendico.iban.structure.IbanRandom;
+import com.lendico.iban.structure.SeededIbanRandom;
+import com.lendico.iban.util.FeistelPermutation;
+import com.lendico.iban.util.Mod97;
+
+/**
+ * Generates distinct random ibans of one country without remembering the generated ones. The iban
+ * at index n is formatted from a keyed {@link FeistelPermutation} of n over the bban space, so
+ * distinct indexes give distinct ibans and every index can be formatted on its own.
+ * <p>
+ * Where the bban space is larger than {@link FeistelPermutation#MAX_SIZE} the permutation covers
+ * the trailing positions only, the leading positions are drawn from a random seeded with the
+ * permuted value.
+ * @author noman
+ */
+public class UniqueIbanGenerator {
+	private static final int CHECK_DIGIT_INDEX = 2;
+	private static final int IBAN_INDEX = 4;
+
+	private final char first;
+	private final char second;
+	private final int ibanLength;
+	private final char[][] charChoicesByPosition;
+	private final int permutedIndex;
+	private final FeistelPermutation permutation;
+	private final long seed;
+
+	/**
+	 * @param seed key of the permutation, the same seed gives the same ibans in the same order
+	 */
+	public UniqueIbanGenerator(String countryCode, long seed) throws IbanServiceException {
+		if (StringUtils.isBlank(countryCode)) {
+			throw new IbanServiceException("Iban can not be created as countryCode is null");
+		}
+		final CountryStructure countryStructure = countryCode.length() == 2
+				? DefaultIbanStructure.getCountryStructure(countryCode.charAt(0), countryCode.charAt(1)) : null;
+		if (countryStructure == null) {
+			throw new IbanServiceException(IbanExceptionType.invalidCountryCode, "CountryCode is not supported.");
+		}
+		this.first = countryCode.charAt(0);
+		this.second = countryCode.charAt(1);
+		this.ibanLength = IBAN_INDEX + countryStructure.getBbanLength();
+		this.seed = seed;
+
+		this.charChoicesByPosition = new char[ibanLength][];
+		int position = IBAN_INDEX;
+		for (final IbanAttribute ibanAttribute : countryStructure.getIbanAttributes()) {
+			final char[] charChoices = ibanAttribute.getCharChoices();
+			for (int i = 0; i < ibanAttribute.getAttributeLength(); i++) {
+				charChoicesByPosition[position++] = charChoices;
+			}
+		}
+
+		long size = 1;
+		int index = ibanLength;
+		while (index > IBAN_INDEX && size <= FeistelPermutation.MAX_SIZE / charChoicesByPosition[index - 1].length) {
+			size *= charChoicesByPosition[--index].length;
+		}
+		this.permutedIndex = index;
+		this.permutation = new FeistelPermutation(size, seed);
+	}
+
+	/**
+	 * @return number of distinct ibans this generator can produce
+	 */
+	public long getCapacity() {
+		return permutation.getSize();
+	}
+
+	public int getIbanLength() {
+		return ibanLength;
+	}
+
+	/**
+	 * Writes the iban at index into buffer, starting at offset.
+	 * @throws IndexOutOfBoundsException if index is not below {@link #getCapacity()}
+	 */
+	public void format(long index, char[] buffer, int offset) {
+		final long permuted = permutation.permute(index);
+		long value = permuted;
+		for (int i = ibanLength - 1; i >= permutedIndex; i--) {
+			final char[] charChoices = charChoicesByPosition[i];
+			buffer[offset + i] = charChoices[(int) (value % charChoices.length)];
+			value /= charChoices.length;
+		}
+		if (permutedIndex > IBAN_INDEX) {
+			final SeededIbanRandom random = IbanRandom.seeded(seed).reset(seed, permuted);
+			for (int i = IBAN_INDEX; i < permutedIndex; i++) {
+				final char[] charChoices = charChoicesByPosition[i];
+				buffer[offset + i] = charChoices[random.nextInt(charChoices.length)];
+			}
+		}
+		buffer[offset] = first;
+		buffer[offset + 1] = second;
+		final int checkDigit = Mod97.checkDigit(buffer, offset, ibanLength);
+		buffer[offset + CHECK_DIGIT_INDEX] = (char) ('0' + checkDigit / 10);
+		buffer[offset + CHECK_DIGIT_INDEX + 1] = (char) ('0' + checkDigit % 10);
+	}
+
+	public String get(long index) {
+		final char[] buffer = new char[ibanLength];
+		format(index, buffer, 0);
+		return new String(buffer);
+	}
+
+	/**
+	 * Passes the ibans from firstIndex to firstIndex + count - 1 to the sink, in a reused buffer.
+	 */
+	public void generate(long firstIndex, long count, IbanSink sink) throws IbanServiceException {
+		checkRange(firstIndex, count);
+		final char[] buffer = new char[ibanLength];
+		for (long index = firstIndex; index < firstIndex + count; index++) {
+			format(index, buffer, 0);
+			sink.accept(buffer, 0, ibanLength);
+		}
+	}
+
+	/**
+	 * The first count ibans, the stream may be run in parallel.
+	 */
+	public Stream<String> stream(long count) throws IbanServiceException {
+		checkRange(0, count);
+		return LongStream.range(0, count).mapToObj(this::get);
+	}
+
+	private void checkRange(long firstIndex, long count) throws IbanServiceException {
+		if (firstIndex < 0 || count < 0 || count > getCapacity() - firstIndex) {
+			throw new IbanServiceException(String.format("Only %d distinct ibans exist for %c%c",
+					getCapacity(), first, second));
+		}
+	}
+}
@@ -1,6 +1,27 @@
 package com.lendico.iban.structure;
 
+/**
+ * Characters allowed in a bban segment. The ordinal is stored in the bundled iban registry,
+ * so new types must only be appended.
+ */
 public enum AttributeChracterType {
 	 numeric,
      upperAlpha,
+     alphaNumeric,
+     ;
+
+    /**
+     * Non ASCII characters are checked with {@link Character}, like the validation always did.
+     */
+    public boolean matches(final char ch) {
+        switch (this) {
+        case numeric:
+            return ch < 128 ? ch >= '0' && ch <= '9' : Character.isDigit(ch);
+        case upperAlpha:
+            return ch < 128 ? ch >= 'A' && ch <= 'Z' : Character.isUpperCase(ch);
+        case alphaNumeric:
+            return numeric.matches(ch) || upperAlpha.matches(ch);
+        }
+        return false;
+    }
 }
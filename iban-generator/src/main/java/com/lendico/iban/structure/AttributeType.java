@@ -1,6 +1,16 @@
 package com.lendico.iban.structure;
 
+/**
+ * Kinds of bban segments. The ordinal is stored in the bundled iban registry, so new
+ * types must only be appended.
+ */
 public enum AttributeType {
 	bankCode,
     accountNumber,
+    branchCode,
+    accountType,
+    nationalCheckDigit,
+    identificationNumber,
+    currencyCode,
+    reserved,
 }
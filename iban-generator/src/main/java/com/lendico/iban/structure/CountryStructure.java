@@ -0,0 +1,91 @@
+package com.lendico.iban.structure;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Iban structure of one country compiled into a flat form, the bban length is summed once and
+ * the character type of every bban position is held in a table.
+ * @author noman
+ */
+public final class CountryStructure {
+	private final CountryCode countryCode;
+	private final List<IbanAttribute> ibanAttributes;
+	private final int bbanLength;
+	private final AttributeChracterType[] characterTypeByPosition;
+
+	CountryStructure(final CountryCode countryCode, final List<IbanAttribute> ibanAttributes) {
+		this.countryCode = countryCode;
+		this.ibanAttributes = Collections.unmodifiableList(new ArrayList<IbanAttribute>(ibanAttributes));
+
+		int length = 0;
+		for (IbanAttribute ibanAttribute : ibanAttributes) {
+			length += ibanAttribute.getAttributeLength();
+		}
+		this.bbanLength = length;
+
+		this.characterTypeByPosition = new AttributeChracterType[length];
+		int position = 0;
+		for (IbanAttribute ibanAttribute : ibanAttributes) {
+			for (int i = 0; i < ibanAttribute.getAttributeLength(); i++) {
+				characterTypeByPosition[position++] = ibanAttribute.getAttributeCharacterType();
+			}
+		}
+	}
+
+	public CountryCode getCountryCode() {
+		return countryCode;
+	}
+
+	public List<IbanAttribute> getIbanAttributes() {
+		return ibanAttributes;
+	}
+
+	/**
+	 * @return length of the iban without country code and check digit
+	 */
+	public int getBbanLength() {
+		return bbanLength;
+	}
+
+	public AttributeChracterType getCharacterType(final int bbanPosition) {
+		return characterTypeByPosition[bbanPosition];
+	}
+
+	/**
+	 * @return position in the bban of the first segment of the type, -1 if there is none
+	 */
+	public int getAttributeOffset(final AttributeType attributeType) {
+		int position = 0;
+		for (IbanAttribute ibanAttribute : ibanAttributes) {
+			if (ibanAttribute.getAttributeType() == attributeType) {
+				return position;
+			}
+			position += ibanAttribute.getAttributeLength();
+		}
+		return -1;
+	}
+
+	/**
+	 * @return length of the segments of the type, like the bank code of MU split over two segments
+	 */
+	public int getAttributeLength(final AttributeType attributeType) {
+		int length = 0;
+		for (IbanAttribute ibanAttribute : ibanAttributes) {
+			if (ibanAttribute.getAttributeType() == attributeType) {
+				length += ibanAttribute.getAttributeLength();
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * @return whether ch is allowed at the given position of the bban
+	 */
+	public boolean matches(final int bbanPosition, final char ch) {
+		return characterTypeByPosition[bbanPosition].matches(ch);
+	}
+}
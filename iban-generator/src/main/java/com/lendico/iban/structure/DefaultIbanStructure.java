@@ -1,55 +1,44 @@
 package com.lendico.iban.structure;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.neovisionaries.i18n.CountryCode;
 
 public class DefaultIbanStructure {
 
-    private static final Map<CountryCode, List<IbanAttribute>> defaultIbanStructureForCountry;
-
-    static {
-        defaultIbanStructureForCountry = new HashMap<CountryCode, List<IbanAttribute>>();
-
-        List<IbanAttribute> ibanAttributeForDe = new ArrayList<IbanAttribute>();
-        ibanAttributeForDe.add(new IbanAttribute(AttributeType.bankCode, AttributeChracterType.numeric, 8));
-        ibanAttributeForDe.add(new IbanAttribute(AttributeType.accountNumber, AttributeChracterType.numeric, 10));
-        defaultIbanStructureForCountry.put(CountryCode.DE, ibanAttributeForDe);
-        
-        List<IbanAttribute> ibanAttributeForAt = new ArrayList<IbanAttribute>();
-        ibanAttributeForAt.add(new IbanAttribute(AttributeType.bankCode, AttributeChracterType.numeric, 5));
-        ibanAttributeForAt.add(new IbanAttribute(AttributeType.accountNumber, AttributeChracterType.numeric, 11));
-        defaultIbanStructureForCountry.put(CountryCode.AT, ibanAttributeForAt);
-
-        List<IbanAttribute> ibanAttributeForNl = new ArrayList<IbanAttribute>();
-        ibanAttributeForNl.add(new IbanAttribute(AttributeType.bankCode, AttributeChracterType.upperAlpha, 4));
-        ibanAttributeForNl.add(new IbanAttribute(AttributeType.accountNumber, AttributeChracterType.numeric, 10));
-        defaultIbanStructureForCountry.put(CountryCode.NL, ibanAttributeForNl);
+    /** Registry bundled with the library, countries are decoded on first use. */
+    private static final IbanRegistry ibanRegistry = IbanRegistry.loadDefault();
+
+    /**
+     * Direct lookup of the compiled structure by the two letters of the country code, without
+     * creating a String or resolving the {@link CountryCode}.
+     * @return the structure or null if the letters are not an upper case supported country code
+     */
+    public static CountryStructure getCountryStructure(final char first, final char second) {
+        return ibanRegistry.getCountryStructure(first, second);
+    }
+
+    public static CountryStructure getCountryStructure(final CountryCode countryCode) {
+        if (countryCode == null) {
+            return null;
+        }
+        final String alpha2 = countryCode.getAlpha2();
+        return getCountryStructure(alpha2.charAt(0), alpha2.charAt(1));
     }
 
     public static List<IbanAttribute> getIbanAttributeForCountry(final CountryCode countryCode) {
-    	List<IbanAttribute> ibanAttribute =  defaultIbanStructureForCountry.get(countryCode);
-    	if(ibanAttribute != null) {
-    		return ibanAttribute;
+    	CountryStructure countryStructure = getCountryStructure(countryCode);
+    	if(countryStructure != null) {
+    		return countryStructure.getIbanAttributes();
     	}
     	return null;
     }
 
     public static List<CountryCode> supportedCountries() {
-        final List<CountryCode> countryCodes = new ArrayList<CountryCode>(defaultIbanStructureForCountry.size());
-        countryCodes.addAll(defaultIbanStructureForCountry.keySet());
-        return Collections.unmodifiableList(countryCodes);
+        return ibanRegistry.getCountryCodes();
     }
 
     public static int getIbanLengthWithoutCountryAndCheckDigit(CountryCode countryCode) {
-        int length = 0;
-        for (IbanAttribute entry : defaultIbanStructureForCountry.get(countryCode)) {
-            length += entry.getAttributeLength();
-        }
-        return length;
+        return getCountryStructure(countryCode).getBbanLength();
     }
-}
\ No newline at end of file
+}
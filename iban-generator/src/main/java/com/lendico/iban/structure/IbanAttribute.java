@@ -2,7 +2,6 @@ package com.lendico.iban.structure;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
 
 public class IbanAttribute {
 	private final AttributeType attributeType;
@@ -10,7 +9,6 @@ public class IbanAttribute {
     private final int attributeLength;
 
     private static final Map<AttributeChracterType, char[]> charByCharacterType;
-    private final Random random = new Random();
 
     static {
         charByCharacterType = new HashMap<AttributeChracterType, char[]>();
@@ -26,6 +24,9 @@ public class IbanAttribute {
             upperAlphaChracter.append(ch);
         }
         charByCharacterType.put(AttributeChracterType.upperAlpha, upperAlphaChracter.toString().toCharArray());
+
+        charByCharacterType.put(AttributeChracterType.alphaNumeric,
+                (numericChracter.toString() + upperAlphaChracter.toString()).toCharArray());
     }
 
     public IbanAttribute(final AttributeType attributeType, 
@@ -56,15 +57,41 @@ public class IbanAttribute {
     }
 
     public String getRandom() {
+        return getRandom(IbanRandom.THREAD_LOCAL);
+    }
+
+    public String getRandom(final IbanRandom random) {
         StringBuilder s = new StringBuilder("");
+        char[] charChoices = charChoices();
+        for (int i = 0; i < getAttributeLength(); i++) {
+            s.append(charChoices[random.nextInt(charChoices.length)]);
+        }
+        return s.toString();
+    }
+
+    /**
+     * Writes a random value of this attribute into the target array, starting at offset.
+     */
+    public void fillRandom(final char[] target, final int offset, final IbanRandom random) {
+        char[] charChoices = charChoices();
+        for (int i = 0; i < getAttributeLength(); i++) {
+            target[offset + i] = charChoices[random.nextInt(charChoices.length)];
+        }
+    }
+
+    /**
+     * @return the characters a random value of this attribute is drawn from, in ascending order
+     */
+    public char[] getCharChoices() {
+        return charChoices().clone();
+    }
+
+    private char[] charChoices() {
         char[] charChoices = charByCharacterType.get(this.attributeCharacterType);
         if (charChoices == null) {
             throw new RuntimeException(String.format("Unsupported ChracterType %s",
                     attributeCharacterType.name()));
         }
-        for (int i = 0; i < getAttributeLength(); i++) {
-            s.append(charChoices[random.nextInt(charChoices.length)]);
-        }
-        return s.toString();
+        return charChoices;
     }
 }
@@ -0,0 +1,32 @@
+package com.lendico.iban.structure;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of randomness for generating iban attributes.
+ * @author noman
+ */
+public interface IbanRandom {
+
+	/**
+	 * Default source, draws from the random of the calling thread so no state is shared between threads.
+	 */
+	IbanRandom THREAD_LOCAL = bound -> ThreadLocalRandom.current().nextInt(bound);
+
+	/**
+	 * @return a value between 0 (inclusive) and bound (exclusive)
+	 */
+	int nextInt(int bound);
+
+	static IbanRandom of(final Random random) {
+		return random::nextInt;
+	}
+
+	/**
+	 * @return a reproducible source, not safe for use by several threads
+	 */
+	static SeededIbanRandom seeded(final long seed) {
+		return new SeededIbanRandom(seed);
+	}
+}
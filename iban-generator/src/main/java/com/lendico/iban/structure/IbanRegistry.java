@@ -0,0 +1,134 @@
+package com.lendico.iban.structure;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Iban structures of all countries, read from the compact binary registry bundled as
+ * <code>iban-registry.bin</code>. Loading only reads the country index, the structure of a
+ * country is decoded the first time it is used.
+ * <p>
+ * Format: magic <code>IR</code>, version byte, country count byte, then per country its two
+ * letters and the unsigned short offset of its record. A record is the segment count followed
+ * by two bytes per segment: <code>attributeType &lt;&lt; 2 | characterType</code> and the length.
+ * @author noman
+ */
+public final class IbanRegistry {
+	static final byte[] MAGIC = {'I', 'R'};
+	static final int VERSION = 1;
+	static final int HEADER_LENGTH = MAGIC.length + 2;
+	static final int INDEX_ENTRY_LENGTH = 4;
+	static final int CHARACTER_TYPE_BITS = 2;
+
+	private static final String DEFAULT_RESOURCE = "/iban-registry.bin";
+
+	private static final int ALPHABET_SIZE = 26;
+
+	private static final AttributeType[] attributeTypes = AttributeType.values();
+	private static final AttributeChracterType[] characterTypes = AttributeChracterType.values();
+
+	private final byte[] data;
+
+	/** Record offset of every country indexed by {@link #alpha2Index(char, char)}, 0 if unknown. */
+	private final int[] recordOffsetByAlpha2 = new int[ALPHABET_SIZE * ALPHABET_SIZE];
+
+	/**
+	 * Decoded structures, racing threads may both decode a country but publish equal
+	 * immutable structures.
+	 */
+	private final CountryStructure[] countryStructureByAlpha2 = new CountryStructure[ALPHABET_SIZE * ALPHABET_SIZE];
+
+	private final List<CountryCode> countryCodes;
+
+	private IbanRegistry(final byte[] data) throws IOException {
+		this.data = data;
+		if (data.length < HEADER_LENGTH || data[0] != MAGIC[0] || data[1] != MAGIC[1] || data[2] != VERSION) {
+			throw new IOException("Not an iban registry of version " + VERSION);
+		}
+
+		final int countryCount = data[3] & 0xFF;
+		final List<CountryCode> codes = new ArrayList<CountryCode>(countryCount);
+		for (int i = 0; i < countryCount; i++) {
+			final int entry = HEADER_LENGTH + i * INDEX_ENTRY_LENGTH;
+			final char first = (char) data[entry];
+			final char second = (char) data[entry + 1];
+			recordOffsetByAlpha2[alpha2Index(first, second)] = (data[entry + 2] & 0xFF) << 8 | (data[entry + 3] & 0xFF);
+			codes.add(CountryCode.getByCode(new String(new char[] {first, second})));
+		}
+		this.countryCodes = Collections.unmodifiableList(codes);
+	}
+
+	public static IbanRegistry load(final InputStream inputStream) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final byte[] buffer = new byte[4096];
+		int read;
+		while ((read = inputStream.read(buffer)) != -1) {
+			bytes.write(buffer, 0, read);
+		}
+		return new IbanRegistry(bytes.toByteArray());
+	}
+
+	/**
+	 * Loads the registry bundled with this library.
+	 */
+	static IbanRegistry loadDefault() {
+		final InputStream inputStream = IbanRegistry.class.getResourceAsStream(DEFAULT_RESOURCE);
+		if (inputStream == null) {
+			throw new IllegalStateException("Iban registry " + DEFAULT_RESOURCE + " is missing");
+		}
+		try {
+			try {
+				return load(inputStream);
+			} finally {
+				inputStream.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Iban registry " + DEFAULT_RESOURCE + " can not be read", e);
+		}
+	}
+
+	/**
+	 * @return the structure or null if the letters are not an upper case country code of the registry
+	 */
+	public CountryStructure getCountryStructure(final char first, final char second) {
+		if (first < 'A' || first > 'Z' || second < 'A' || second > 'Z') {
+			return null;
+		}
+		final int index = alpha2Index(first, second);
+		CountryStructure countryStructure = countryStructureByAlpha2[index];
+		if (countryStructure == null && recordOffsetByAlpha2[index] != 0) {
+			countryStructure = decode(first, second, recordOffsetByAlpha2[index]);
+			countryStructureByAlpha2[index] = countryStructure;
+		}
+		return countryStructure;
+	}
+
+	/**
+	 * @return the countries of the registry, in registry order
+	 */
+	public List<CountryCode> getCountryCodes() {
+		return countryCodes;
+	}
+
+	private CountryStructure decode(final char first, final char second, final int recordOffset) {
+		final int segmentCount = data[recordOffset] & 0xFF;
+		final List<IbanAttribute> ibanAttributes = new ArrayList<IbanAttribute>(segmentCount);
+		for (int i = 0; i < segmentCount; i++) {
+			final int types = data[recordOffset + 1 + 2 * i] & 0xFF;
+			final int length = data[recordOffset + 2 + 2 * i] & 0xFF;
+			ibanAttributes.add(new IbanAttribute(attributeTypes[types >>> CHARACTER_TYPE_BITS],
+					characterTypes[types & ((1 << CHARACTER_TYPE_BITS) - 1)], length));
+		}
+		return new CountryStructure(CountryCode.getByCode(new String(new char[] {first, second})), ibanAttributes);
+	}
+
+	static int alpha2Index(final char first, final char second) {
+		return (first - 'A') * ALPHABET_SIZE + (second - 'A');
+	}
+}
@@ -0,0 +1,47 @@
+package com.lendico.iban.structure;
+
+/**
+ * Reproducible {@link IbanRandom} based on the SplitMix64 generator. A sequence can be started
+ * for any index of a seed with {@link #reset(long, long)}, so the n-th generated iban does not
+ * depend on the thread or the order in which ibans are generated. Not thread safe.
+ * @author noman
+ */
+public final class SeededIbanRandom implements IbanRandom {
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private long state;
+
+	SeededIbanRandom(final long seed) {
+		this.state = seed;
+	}
+
+	/**
+	 * Starts the sequence belonging to index of the given seed.
+	 */
+	public SeededIbanRandom reset(final long seed, final long index) {
+		this.state = mix64(seed + index * GOLDEN_GAMMA);
+		return this;
+	}
+
+	@Override
+	public int nextInt(final int bound) {
+		// rejects values of the last incomplete range so every value is equally likely
+		int u = (int) (nextLong() >>> 33);
+		int r = u % bound;
+		while (u - r + bound - 1 < 0) {
+			u = (int) (nextLong() >>> 33);
+			r = u % bound;
+		}
+		return r;
+	}
+
+	private long nextLong() {
+		return mix64(state += GOLDEN_GAMMA);
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,68 @@
+package com.lendico.iban.util;
+
+/**
+ * Keyed bijection of the range 0 to size - 1 onto itself. A balanced Feistel network permutes
+ * the smallest even number of bits covering the range, values outside of the range are encrypted
+ * again until they fall into it (cycle walking). Stateless and thread safe.
+ * @author noman
+ */
+public final class FeistelPermutation {
+	/** Largest supported size, both halves then fit into 31 bits. */
+	public static final long MAX_SIZE = 1L << 62;
+
+	private static final int ROUNDS = 6;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long size;
+	private final int halfBits;
+	private final long halfMask;
+	private final long[] roundKeys = new long[ROUNDS];
+
+	public FeistelPermutation(final long size, final long key) {
+		if (size <= 0 || size > MAX_SIZE) {
+			throw new IllegalArgumentException(String.format("Size must be between 1 and %d: %d", MAX_SIZE, size));
+		}
+		this.size = size;
+		final int bits = 64 - Long.numberOfLeadingZeros(size - 1);
+		this.halfBits = Math.max(1, (bits + 1) / 2);
+		this.halfMask = (1L << halfBits) - 1;
+		for (int i = 0; i < ROUNDS; i++) {
+			roundKeys[i] = mix64(key + (i + 1) * GOLDEN_GAMMA);
+		}
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the value index is mapped to, distinct indexes are mapped to distinct values
+	 */
+	public long permute(final long index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException(String.format("Index %d is not below %d", index, size));
+		}
+		long value = index;
+		do {
+			value = encrypt(value);
+		} while (value >= size);
+		return value;
+	}
+
+	private long encrypt(final long value) {
+		long left = value >>> halfBits;
+		long right = value & halfMask;
+		for (int i = 0; i < ROUNDS; i++) {
+			final long next = left ^ (mix64(right ^ roundKeys[i]) & halfMask);
+			left = right;
+			right = next;
+		}
+		return left << halfBits | right;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
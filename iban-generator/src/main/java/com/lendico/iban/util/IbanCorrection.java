@@ -0,0 +1,216 @@
+package com.lendico.iban.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lendico.iban.structure.AttributeChracterType;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+
+/**
+ * Suggests the valid ibans one typo away from an invalid one: one character replaced by another
+ * of the character type of its position, or two adjacent characters swapped. The country code is
+ * taken as typed.
+ * <p>
+ * The remainders mod 97 of every prefix and suffix of the rearranged iban are computed once, so
+ * the remainder of each candidate follows in constant time from the ones around the edit, without
+ * validating the candidate again. A search costs length times alphabet steps.
+ * @author noman
+ */
+public final class IbanCorrection {
+	private static final int CHECK_DIGIT_INDEX = 2;
+	private static final int IBAN_INDEX = 4;
+
+	private static final char[] DIGITS = "0123456789".toCharArray();
+	private static final char[] LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+	private static final char[] DIGITS_AND_LETTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+	/** Powers of ten mod 97, up to the decimal length of the longest rearranged iban. */
+	private static final int[] powersOfTen = new int[2 * IbanFormat.MAX_IBAN_LENGTH + 1];
+
+	static {
+		powersOfTen[0] = 1;
+		for (int i = 1; i < powersOfTen.length; i++) {
+			powersOfTen[i] = powersOfTen[i - 1] * 10 % Mod97.MODULUS;
+		}
+	}
+
+	private final CharSequence iban;
+	private final CountryStructure countryStructure;
+	private final int length;
+	/** Value and decimal width of each character in rearranged order, 0 and 1 for a character without value. */
+	private final int[] values;
+	private final int[] widths;
+	/** Remainder of the rearranged characters before, and from, each position. */
+	private final int[] prefixRemainders;
+	private final int[] suffixRemainders;
+	/** Decimal width of the rearranged characters from each position. */
+	private final int[] suffixWidths;
+	private final int firstInvalidIndex;
+	private final int lastInvalidIndex;
+	private final int invalidCount;
+
+	private IbanCorrection(final CharSequence iban, final CountryStructure countryStructure) {
+		this.iban = iban;
+		this.countryStructure = countryStructure;
+		this.length = iban.length();
+		this.values = new int[length];
+		this.widths = new int[length];
+		int firstInvalid = -1;
+		int lastInvalid = -1;
+		int invalid = 0;
+		for (int index = 0; index < length; index++) {
+			final char ch = iban.charAt(index);
+			final int value = Mod97.valueOf(ch);
+			if (index >= CHECK_DIGIT_INDEX && !fits(index, ch)) {
+				if (firstInvalid < 0) {
+					firstInvalid = index;
+				}
+				lastInvalid = index;
+				invalid++;
+			}
+			values[rearranged(index)] = value < 0 ? 0 : value;
+			widths[rearranged(index)] = value > 9 ? 2 : 1;
+		}
+		this.firstInvalidIndex = firstInvalid;
+		this.lastInvalidIndex = lastInvalid;
+		this.invalidCount = invalid;
+
+		this.prefixRemainders = new int[length + 1];
+		for (int position = 0; position < length; position++) {
+			prefixRemainders[position + 1] = (prefixRemainders[position] * powersOfTen[widths[position]]
+					+ values[position]) % Mod97.MODULUS;
+		}
+		this.suffixRemainders = new int[length + 1];
+		this.suffixWidths = new int[length + 1];
+		for (int position = length - 1; position >= 0; position--) {
+			suffixRemainders[position] = (values[position] * powersOfTen[suffixWidths[position + 1]]
+					+ suffixRemainders[position + 1]) % Mod97.MODULUS;
+			suffixWidths[position] = widths[position] + suffixWidths[position + 1];
+		}
+	}
+
+	/**
+	 * @param iban in electronic format
+	 * @return the valid ibans one substitution or adjacent transposition away, by position of the
+	 * edit. Empty if the country is not supported, the length is not the one of the country or
+	 * no single edit makes the iban valid.
+	 */
+	public static List<String> suggest(final CharSequence iban) {
+		final List<String> corrections = new ArrayList<String>();
+		if (iban == null || iban.length() <= IBAN_INDEX) {
+			return corrections;
+		}
+		final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(iban.charAt(0), iban.charAt(1));
+		if (countryStructure == null || iban.length() != IBAN_INDEX + countryStructure.getBbanLength()) {
+			return corrections;
+		}
+		new IbanCorrection(iban, countryStructure).suggest(corrections);
+		return corrections;
+	}
+
+	private void suggest(final List<String> corrections) {
+		if (invalidCount > 2) {
+			return;
+		}
+		for (int index = CHECK_DIGIT_INDEX; index < length; index++) {
+			if (invalidCount == 0 || invalidCount == 1 && firstInvalidIndex == index) {
+				suggestSubstitutions(index, corrections);
+			}
+			if (index + 1 < length && (invalidCount == 0
+					|| firstInvalidIndex >= index && lastInvalidIndex <= index + 1)) {
+				suggestTransposition(index, corrections);
+			}
+		}
+	}
+
+	private void suggestSubstitutions(final int index, final List<String> corrections) {
+		final int position = rearranged(index);
+		final char original = iban.charAt(index);
+		for (final char ch : alphabet(index)) {
+			if (ch == original) {
+				continue;
+			}
+			final int value = Mod97.valueOf(ch);
+			final int width = value > 9 ? 2 : 1;
+			final int remainder = (prefixRemainders[position] * powersOfTen[width + suffixWidths[position + 1]]
+					+ value * powersOfTen[suffixWidths[position + 1]] + suffixRemainders[position + 1]) % Mod97.MODULUS;
+			if (remainder == Mod97.VALID_REMAINDER) {
+				final char[] correction = toCharArray();
+				correction[index] = ch;
+				corrections.add(new String(correction));
+			}
+		}
+	}
+
+	/**
+	 * Swaps the characters at index and index + 1.
+	 */
+	private void suggestTransposition(final int index, final List<String> corrections) {
+		final char left = iban.charAt(index);
+		final char right = iban.charAt(index + 1);
+		if (left == right || !fits(index, right) || !fits(index + 1, left)) {
+			return;
+		}
+		final int leftPosition = rearranged(index);
+		final int rightPosition = rearranged(index + 1);
+		final int remainder;
+		if (rightPosition == leftPosition + 1) {
+			final int suffixWidth = suffixWidths[rightPosition + 1];
+			final int swapped = values[rightPosition] * powersOfTen[widths[leftPosition]] + values[leftPosition];
+			remainder = (prefixRemainders[leftPosition]
+					* powersOfTen[widths[leftPosition] + widths[rightPosition] + suffixWidth]
+					+ swapped * powersOfTen[suffixWidth] + suffixRemainders[rightPosition + 1]) % Mod97.MODULUS;
+		} else {
+			// the last check digit and the first bban character, at the two ends of the rearranged iban
+			final int middleWidth = suffixWidths[rightPosition + 1] - widths[leftPosition];
+			final int middle = prefixRemainders[leftPosition]
+					- values[rightPosition] * powersOfTen[middleWidth] % Mod97.MODULUS + Mod97.MODULUS;
+			remainder = (values[leftPosition] * powersOfTen[middleWidth + widths[rightPosition]]
+					+ middle * powersOfTen[widths[rightPosition]] + values[rightPosition]) % Mod97.MODULUS;
+		}
+		if (remainder == Mod97.VALID_REMAINDER) {
+			final char[] correction = toCharArray();
+			correction[index] = right;
+			correction[index + 1] = left;
+			corrections.add(new String(correction));
+		}
+	}
+
+	private boolean fits(final int index, final char ch) {
+		if (ch >= 128) {
+			return false;
+		}
+		return index < IBAN_INDEX ? AttributeChracterType.numeric.matches(ch)
+				: countryStructure.getCharacterType(index - IBAN_INDEX).matches(ch);
+	}
+
+	private char[] alphabet(final int index) {
+		final AttributeChracterType characterType = index < IBAN_INDEX ? AttributeChracterType.numeric
+				: countryStructure.getCharacterType(index - IBAN_INDEX);
+		switch (characterType) {
+		case upperAlpha:
+			return LETTERS;
+		case alphaNumeric:
+			return DIGITS_AND_LETTERS;
+		default:
+			return DIGITS;
+		}
+	}
+
+	/**
+	 * @return position of the character at index in the rearranged iban, bban first and then
+	 * country code and check digit
+	 */
+	private int rearranged(final int index) {
+		return index >= IBAN_INDEX ? index - IBAN_INDEX : length - IBAN_INDEX + index;
+	}
+
+	private char[] toCharArray() {
+		final char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = iban.charAt(i);
+		}
+		return chars;
+	}
+}
@@ -0,0 +1,82 @@
+package com.lendico.iban.util;
+
+/**
+ * Conversion between the print format of an iban, like <code>DE89 3704 0044 0532 0130 00</code>,
+ * and the electronic format validated by {@link IbanUtil}. Both directions take one pass over
+ * the input and write into a buffer of the caller.
+ * @author noman
+ */
+public final class IbanFormat {
+	/** Longest iban in electronic format. */
+	public static final int MAX_IBAN_LENGTH = 34;
+
+	private static final int GROUP_LENGTH = 4;
+
+	private IbanFormat() {
+	}
+
+	/**
+	 * Writes the electronic format of the input into the buffer: spaces, tabs, non-breaking spaces
+	 * and dashes are dropped and lower case letters are upper cased. Other characters are copied,
+	 * so validating the result reports them.
+	 * @return number of characters written, or -1 if they do not fit into the buffer
+	 */
+	public static int normalize(final CharSequence input, final char[] buffer, final int offset) {
+		int index = offset;
+		for (int i = 0; i < input.length(); i++) {
+			final char ch = input.charAt(i);
+			if (isSeparator(ch)) {
+				continue;
+			}
+			if (index == buffer.length) {
+				return -1;
+			}
+			buffer[index++] = ch >= 'a' && ch <= 'z' ? (char) (ch - ('a' - 'A')) : ch;
+		}
+		return index - offset;
+	}
+
+	/**
+	 * @return the electronic format of the input
+	 */
+	public static String toElectronicFormat(final CharSequence input) {
+		final char[] buffer = new char[input.length()];
+		return new String(buffer, 0, normalize(input, buffer, 0));
+	}
+
+	/**
+	 * Writes the iban in groups of four characters separated by a space into the buffer. The iban
+	 * is expected in electronic format, it is not validated.
+	 * @return number of characters written
+	 * @throws ArrayIndexOutOfBoundsException if the buffer is too small, see {@link #printLength(int)}
+	 */
+	public static int formatPrint(final CharSequence iban, final char[] buffer, final int offset) {
+		int index = offset;
+		for (int i = 0; i < iban.length(); i++) {
+			if (i > 0 && i % GROUP_LENGTH == 0) {
+				buffer[index++] = ' ';
+			}
+			buffer[index++] = iban.charAt(i);
+		}
+		return index - offset;
+	}
+
+	/**
+	 * @return the print format of an iban in electronic format
+	 */
+	public static String toPrintFormat(final CharSequence iban) {
+		final char[] buffer = new char[printLength(iban.length())];
+		return new String(buffer, 0, formatPrint(iban, buffer, 0));
+	}
+
+	/**
+	 * @return length of the print format of an iban of the given length in electronic format
+	 */
+	public static int printLength(final int length) {
+		return length == 0 ? 0 : length + (length - 1) / GROUP_LENGTH;
+	}
+
+	static boolean isSeparator(final char ch) {
+		return ch == ' ' || ch == '-' || ch == '\t' || ch == '\u00A0';
+	}
+}
@@ -0,0 +1,14 @@
+package com.lendico.iban.util;
+
+/**
+ * State of an iban typed so far, reported by {@link IncrementalIbanValidator}.
+ * @author noman
+ */
+public enum IbanInputState {
+	/** Every character fits, more are needed. */
+	incomplete,
+	/** The input is a complete valid iban. */
+	valid,
+	/** No further characters can make the input valid. */
+	invalid,
+}
@@ -1,17 +1,19 @@
 package com.lendico.iban.util;
 
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import com.lendico.iban.event.IbanEvents;
 import com.lendico.iban.exception.IbanExceptionType;
 import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.AttributeChracterType;
+import com.lendico.iban.structure.AttributeType;
+import com.lendico.iban.structure.CountryStructure;
 import com.lendico.iban.structure.DefaultIbanStructure;
 import com.lendico.iban.structure.IbanAttribute;
 import com.neovisionaries.i18n.CountryCode;
 
 public class IbanUtil {
-	private static final int MOD = 97;
-    private static final long MAX = 999999999;
-	
     public static final String DEFAULT_CHECK_DIGIT = "00";
     
 	private static final int COUNTRY_CODE_INDEX = 0;
@@ -22,174 +24,501 @@ public class IbanUtil {
     private static final int CHECK_DIGIT_LENGTH = 2;
     
     private static final int IBAN_INDEX = CHECK_DIGIT_INDEX + CHECK_DIGIT_LENGTH;
+    
+    /** Status returned by {@link #tryValidateStatus(ByteBuffer, int, int)} for a valid iban. */
+    public static final int VALID = 0;
+
+    private static final int ERROR_OFFSET_BITS = 24;
+    private static final int ERROR_OFFSET_MASK = (1 << ERROR_OFFSET_BITS) - 1;
+
+    private static final IbanExceptionType[] ibanExceptionTypes = IbanExceptionType.values();
+
+    private static final String VALIDATE_OPERATION = "validate";
+
 	
+    /**
+     * Throwing wrapper over {@link #tryValidate(CharSequence)}, recorded as flight recorder event.
+     */
     public static void validate(final String iban) throws IbanServiceException {
-        try {
-            validateEmpty(iban);
-            
-            validateCountryCode(iban);
-            
-            validateCheckDigitPresence(iban);
+        final IbanEvents events = IbanEvents.begin();
+        final IbanValidationResult result = tryValidate(iban);
+        if (!result.isValid()) {
+            if (events != null) {
+                events.commitFailure(VALIDATE_OPERATION, iban, result.getIbanExceptionType());
+            }
+            throw result.toException();
+        }
+        if (events != null) {
+            events.commit(VALIDATE_OPERATION, iban);
+        }
+    }
+
+    /**
+     * Validates the iban without throwing, the returned result carries the failure type and offset.
+     * The error message is only built when it is asked for.
+     */
+    public static IbanValidationResult tryValidate(final CharSequence iban) {
+        if (iban == null) {
+            return IbanValidationResult.invalid(IbanExceptionType.emptyIban, 0, null, 0, 0);
+        }
+        return toResult(iban, 0, iban.length());
+    }
 
-            CountryCode countryCode = CountryCode.getByCode(getCountryCode(iban));
+    public static IbanValidationResult tryValidate(final CharSequence iban, final int offset, final int length) {
+        if (iban == null) {
+            return IbanValidationResult.invalid(IbanExceptionType.emptyIban, 0, null, 0, 0);
+        }
+        return toResult(iban, offset, length);
+    }
 
-            validateIbanLength(iban, countryCode);
-            
-            validateIbanEntries(iban, countryCode);
+    public static IbanValidationResult tryValidate(final char[] iban, final int offset, final int length) {
+        if (iban == null) {
+            return IbanValidationResult.invalid(IbanExceptionType.emptyIban, 0, null, 0, 0);
+        }
+        return toResult(iban, offset, length);
+    }
 
-            validateCheckDigit(iban);
-            
-        }  catch (RuntimeException e) {
-            throw new IbanServiceException(e.getMessage());
-        }
-    }
-    
-    private static void validateEmpty(final String iban) throws IbanServiceException {
-        if(iban == null || iban.length() == 0) {
-            throw new IbanServiceException(IbanExceptionType.emptyIban, "Not Valid because, Iban is null or empty");
-        }
-    }
-    
-    private static void validateCountryCode(final String iban) throws IbanServiceException {
-        if(iban.length() < COUNTRY_CODE_LENGTH) {
-            throw new IbanServiceException(IbanExceptionType.invalidCountryCode, 
-            		"Iban must contain 2 char country code.");
-        }
-
-        final String countryCode = getCountryCode(iban);
-
-        if(!countryCode.equals(countryCode.toUpperCase()) ||
-            !Character.isLetter(countryCode.charAt(0)) ||
-            !Character.isLetter(countryCode.charAt(1))) {
-            throw new IbanServiceException(IbanExceptionType.invalidCountryCode, 
-            		"Iban country code must contain upper case letters.");
-        }
-
-        List<IbanAttribute> ibanAttributes = DefaultIbanStructure.getIbanAttributeForCountry(
-        		CountryCode.getByCode(countryCode));
-        if (ibanAttributes == null || ibanAttributes.isEmpty()) {
-            throw new IbanServiceException(IbanExceptionType.invalidCountryCode, 
-            		"Country code is not supported.");
-        }
-    }
-    
-    private static void validateCheckDigitPresence(final String iban) throws IbanServiceException {
-        if(iban.length() < COUNTRY_CODE_LENGTH + CHECK_DIGIT_LENGTH) {
-            throw new IbanServiceException(IbanExceptionType.invalidCheckDigit, 
-            		"Iban must contain 2 digit check digit.");
-        }
-
-        final String checkDigit = getCheckDigit(iban);
-
-        if(!Character.isDigit(checkDigit.charAt(0)) ||
-           !Character.isDigit(checkDigit.charAt(1))) {
-            throw new IbanServiceException(IbanExceptionType.invalidCheckDigit,
-            		"Iban's check digit should contain only digits.");
-        }
-    }
-    
-    private static void validateIbanLength(final String iban, 
-    		final CountryCode countryCode) throws IbanServiceException {
-    	
-		final int expectedIbanLength = DefaultIbanStructure.getIbanLengthWithoutCountryAndCheckDigit(countryCode);
-		final String ibanWithoutCountryAndCheckDigit = getIbanWithoutCountryAndCheckDigit(iban);
-		
-		final int ibanLength = ibanWithoutCountryAndCheckDigit.length();
-		
-		if (expectedIbanLength != ibanLength) {
-			throw new IbanServiceException(IbanExceptionType.invalidIbanLength,
-			String.format("[%s] length is %d, expected IBAN length is: %d",
-			ibanWithoutCountryAndCheckDigit, ibanLength, expectedIbanLength));
-		}
-    }
-    
-    
-    private static void validateIbanEntries(final String iban,
-            final CountryCode countryCode) throws IbanServiceException {
-    	
-    	List<IbanAttribute> ibanAttributeListForCountry = getIbanAttribute(countryCode);
-    	
-		final String ibanWithoutCountryAndCheckDigit = getIbanWithoutCountryAndCheckDigit(iban);
-		
-		int ibanAttributeIndex = 0;
-		
-		for(final IbanAttribute ibanAttribute : ibanAttributeListForCountry) {
-			final int entryLength = ibanAttribute.getAttributeLength();
-			
-			final String entryValue = ibanWithoutCountryAndCheckDigit.substring(ibanAttributeIndex,
-					ibanAttributeIndex + entryLength);
-		
-			ibanAttributeIndex = ibanAttributeIndex + entryLength;
-		
-			// validate character type
-			validateIbanEntryCharacterType(ibanAttribute, entryValue);
-		}
-    }
-    
-    private static void validateIbanEntryCharacterType(final IbanAttribute entry,
-            final String entryValue) throws IbanServiceException {
-		switch (entry.getAttributeCharacterType()) {
-		case upperAlpha:
-			for(char ch: entryValue.toCharArray()) {
-				if(!Character.isUpperCase(ch)) {
-					throw new IbanServiceException(IbanExceptionType.invalidChracter,
-							String.format("[%s] must contain only upper case letters.", entryValue));
-				}
-			}
-			break;
-			
-		case numeric:
-			for(char ch: entryValue.toCharArray()) {
-				if(!Character.isDigit(ch)) {
-					throw new IbanServiceException(IbanExceptionType.invalidChracter,
-							String.format("[%s] must contain only digits.", entryValue));
-				}
-			}
-			break;
-		}
-	 }
-    
-    private static void validateCheckDigit(final String iban) throws IbanServiceException {
-        if (calculateMod(iban) != 1) {
-            final String checkDigit = getCheckDigit(iban);
-            final String expectedCheckDigit = calculateCheckDigit(iban);
-            
-            throw new IbanServiceException(IbanExceptionType.invalidCheckDigit,
-                    String.format("[%s] has invalid check digit: %s, " +
-                                    "expected check digit is: %s",
-                            iban, checkDigit, expectedCheckDigit));
+    /**
+     * Bytes are read as ISO-8859-1.
+     */
+    public static IbanValidationResult tryValidate(final byte[] iban, final int offset, final int length) {
+        if (iban == null) {
+            return IbanValidationResult.invalid(IbanExceptionType.emptyIban, 0, null, 0, 0);
         }
+        return toResult(iban, offset, length);
+    }
+
+    /**
+     * Validates the bytes in place, read as ISO-8859-1 with absolute gets, so a mapped file needs
+     * no copy. Only an invalid iban is copied, for the message of its result.
+     */
+    public static IbanValidationResult tryValidate(final ByteBuffer iban, final int offset, final int length) {
+        if (iban == null) {
+            return IbanValidationResult.invalid(IbanExceptionType.emptyIban, 0, null, 0, 0);
+        }
+        return toResult(iban, offset, length);
     }
     
-    public static String calculateCheckDigit(final String iban) throws IbanServiceException {
-        final String reformattedIban = replaceCheckDigit(iban, DEFAULT_CHECK_DIGIT);
-        final int modResult = calculateMod(reformattedIban);
-        final int checkDigitIntValue = (98 - modResult);
-        final String checkDigit = Integer.toString(checkDigitIntValue);
-        return checkDigitIntValue > 9 ? checkDigit : "0" + checkDigit;
+    /**
+     * Allocation free counterpart of {@link #tryValidate(ByteBuffer, int, int)} for callers that
+     * keep the failure themselves, such as a file validator that reports lines later.
+     * @return {@link #VALID} or the failing type and offset packed into an int, read with
+     * {@link #getStatusType(int)} and {@link #getStatusOffset(int)}
+     */
+    public static int tryValidateStatus(final ByteBuffer iban, final int offset, final int length) {
+        return iban == null ? invalid(IbanExceptionType.emptyIban, 0) : check(iban, offset, length);
+    }
+
+    /**
+     * @return the failing type of a status of {@link #tryValidateStatus(ByteBuffer, int, int)},
+     * null for {@link #VALID}
+     */
+    public static IbanExceptionType getStatusType(final int status) {
+        return status == VALID ? null : ibanExceptionTypes[(status >>> ERROR_OFFSET_BITS) - 1];
+    }
+
+    /**
+     * @return the error offset of a status of {@link #tryValidateStatus(ByteBuffer, int, int)},
+     * relative to the start of the iban
+     */
+    public static int getStatusOffset(final int status) {
+        return status & ERROR_OFFSET_MASK;
+    }
+
+    /**
+     * Allocation free counterpart of {@link #validate(String)}, gives the same verdict without
+     * creating substrings or exceptions.
+     */
+    public static boolean isValid(final CharSequence iban) {
+        return iban != null && check(iban, 0, iban.length()) == VALID;
     }
     
-    public static String replaceCheckDigit(final String iban, final String checkDigit) {
-        return getCountryCode(iban) + checkDigit + getIbanWithoutCountryAndCheckDigit(iban);
+    public static boolean isValid(final CharSequence iban, final int offset, final int length) {
+        return iban != null && check(iban, offset, length) == VALID;
+    }
+    
+    public static boolean isValid(final char[] iban, final int offset, final int length) {
+        return iban != null && check(iban, offset, length) == VALID;
     }
     
-    private static int calculateMod(final String iban) throws IbanServiceException {
-        final String reformattedIban = getIbanWithoutCountryAndCheckDigit(iban) + getCountryCodeAndCheckDigit(iban);
-        long total = 0;
-        for (int i = 0; i < reformattedIban.length(); i++) {
-            final int numericValue = Character.getNumericValue(reformattedIban.charAt(i));
-            if (numericValue < 0 || numericValue > 35) {
-                throw new IbanServiceException(
-                        String.format("Invalid Character[%d] = '%d'", i, numericValue));
+    /**
+     * Bytes are read as ISO-8859-1, so ASCII encoded input gives the same verdict as its String form.
+     */
+    public static boolean isValid(final byte[] iban, final int offset, final int length) {
+        return iban != null && check(iban, offset, length) == VALID;
+    }
+
+    public static boolean isValid(final ByteBuffer iban, final int offset, final int length) {
+        return iban != null && check(iban, offset, length) == VALID;
+    }
+    
+    /**
+     * Validates an iban in print format or with lower case letters, as converted by
+     * {@link IbanFormat#normalize(CharSequence, char[], int)}. The input is read once and not copied,
+     * the error offset of an invalid result refers to the electronic format.
+     */
+    public static IbanValidationResult tryValidatePrintFormat(final CharSequence iban) {
+        if (iban == null) {
+            return IbanValidationResult.invalid(IbanExceptionType.emptyIban, 0, null, 0, 0);
+        }
+        final int status = checkPrintFormat(iban);
+        if (status == VALID) {
+            return IbanValidationResult.valid();
+        }
+        // offsets refer to the electronic format, so the message is built from it
+        final String electronicFormat = IbanFormat.toElectronicFormat(iban);
+        return toResult(status, electronicFormat, 0, electronicFormat.length());
+    }
+
+    public static boolean isValidPrintFormat(final CharSequence iban) {
+        return iban != null && checkPrintFormat(iban) == VALID;
+    }
+
+    /**
+     * Throwing counterpart of {@link #tryValidatePrintFormat(CharSequence)}.
+     */
+    public static void validatePrintFormat(final CharSequence iban) throws IbanServiceException {
+        final IbanValidationResult result = tryValidatePrintFormat(iban);
+        if (!result.isValid()) {
+            throw result.toException();
+        }
+    }
+
+    private static IbanValidationResult toResult(final Object iban, final int offset, final int length) {
+        return toResult(check(iban, offset, length), iban, offset, length);
+    }
+
+    private static IbanValidationResult toResult(final int status, final Object iban, final int offset, final int length) {
+        if (status == VALID) {
+            return IbanValidationResult.valid();
+        }
+        return IbanValidationResult.invalid(getStatusType(status), getStatusOffset(status), iban, offset, length);
+    }
+
+    private static int invalid(final IbanExceptionType type, final int errorOffset) {
+        return (type.ordinal() + 1) << ERROR_OFFSET_BITS | (errorOffset & ERROR_OFFSET_MASK);
+    }
+
+    /**
+     * Runs all validation steps in the order of the legacy validation, by index over the input.
+     * @return {@link #VALID} or the failing {@link IbanExceptionType} and offset packed into an int
+     */
+    private static int check(final Object iban, final int offset, final int length) {
+        if (length == 0) {
+            return invalid(IbanExceptionType.emptyIban, 0);
+        }
+
+        if (length < COUNTRY_CODE_LENGTH) {
+            return invalid(IbanExceptionType.invalidCountryCode, length);
+        }
+
+        final char first = charAt(iban, offset);
+        final char second = charAt(iban, offset + 1);
+        final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(first, second);
+        if (countryStructure == null) {
+            return invalid(IbanExceptionType.invalidCountryCode, first >= 'A' && first <= 'Z' ? 1 : 0);
+        }
+        
+        if (length < COUNTRY_CODE_LENGTH + CHECK_DIGIT_LENGTH) {
+            return invalid(IbanExceptionType.invalidCheckDigit, length);
+        }
+        for (int i = CHECK_DIGIT_INDEX; i < IBAN_INDEX; i++) {
+            if (!isDigit(charAt(iban, offset + i))) {
+                return invalid(IbanExceptionType.invalidCheckDigit, i);
+            }
+        }
+        
+        final int bbanLength = countryStructure.getBbanLength();
+        if (IBAN_INDEX + bbanLength != length) {
+            return invalid(IbanExceptionType.invalidIbanLength, Math.min(IBAN_INDEX + bbanLength, length));
+        }
+        
+        for (int i = 0; i < bbanLength; i++) {
+            if (!countryStructure.matches(i, charAt(iban, offset + IBAN_INDEX + i))) {
+                return invalid(IbanExceptionType.invalidChracter, IBAN_INDEX + i);
             }
-            total = (numericValue > 9 ? total * 100 : total * 10) + numericValue;
+        }
+        
+        final int mod = remainder(iban, offset, length);
+        if (mod < 0) {
+            return invalid(IbanExceptionType.invalidChracter, -mod - 1);
+        }
+        if (mod != Mod97.VALID_REMAINDER) {
+            return invalid(IbanExceptionType.invalidCheckDigit, CHECK_DIGIT_INDEX);
+        }
+        return VALID;
+    }
+    
+    /**
+     * Runs the steps of {@link #check(Object, int, int)} in one pass over an iban in print format,
+     * skipping separators and upper casing letters on the fly. A failing country code ends the
+     * pass, a failing check digit is reported after the length is known to reach it, as in
+     * {@link #check(Object, int, int)}. Failing characters are only reported once the length is known
+     * to be right, and characters without value after those not matching the structure, bban
+     * first as in the rearranged iban. The remainder is summed up while reading, bban and the
+     * first four characters apart.
+     */
+    private static int checkPrintFormat(final CharSequence iban) {
+        CountryStructure countryStructure = null;
+        char first = 0;
+        int bbanLength = 0;
+        int length = 0;
+        int checkDigitStatus = VALID;
+        int characterStatus = VALID;
+        // first character without value in rearranged order, of the bban and then of the first four
+        int bbanValueStatus = VALID;
+        int headValueStatus = VALID;
+        long headTotal = 0;
+        int headWidth = 0;
+        long bbanTotal = 0;
+        for (int i = 0; i < iban.length(); i++) {
+            char ch = iban.charAt(i);
+            if (IbanFormat.isSeparator(ch)) {
+                continue;
+            }
+            if (ch >= 'a' && ch <= 'z') {
+                ch = (char) (ch - ('a' - 'A'));
+            }
+            final int index = length++;
+            final int value = Mod97.valueOf(ch);
+            if (index < IBAN_INDEX) {
+                if (index == 0) {
+                    first = ch;
+                } else if (index == 1) {
+                    countryStructure = DefaultIbanStructure.getCountryStructure(first, ch);
+                    if (countryStructure == null) {
+                        return invalid(IbanExceptionType.invalidCountryCode, first >= 'A' && first <= 'Z' ? 1 : 0);
+                    }
+                    bbanLength = countryStructure.getBbanLength();
+                } else if (!isDigit(ch) && checkDigitStatus == VALID) {
+                    checkDigitStatus = invalid(IbanExceptionType.invalidCheckDigit, index);
+                }
+                if (value < 0 && headValueStatus == VALID) {
+                    headValueStatus = invalid(IbanExceptionType.invalidChracter, index);
+                }
+                headTotal = value > 9 ? headTotal * 100 + value : headTotal * 10 + value;
+                headWidth += value > 9 ? 2 : 1;
+                continue;
+            }
+            if (index >= IBAN_INDEX + bbanLength) {
+                continue;
+            }
+            if (characterStatus == VALID && !countryStructure.matches(index - IBAN_INDEX, ch)) {
+                characterStatus = invalid(IbanExceptionType.invalidChracter, index);
+            }
+            if (value < 0) {
+                if (bbanValueStatus == VALID) {
+                    bbanValueStatus = invalid(IbanExceptionType.invalidChracter, index);
+                }
+                continue;
+            }
+            bbanTotal = value > 9 ? bbanTotal * 100 + value : bbanTotal * 10 + value;
+            if (bbanTotal >= Mod97.CHUNK_LIMIT) {
+                bbanTotal %= Mod97.MODULUS;
+            }
+        }
 
-            if (total > MAX) {
-                total = (total % MOD);
+        if (length == 0) {
+            return invalid(IbanExceptionType.emptyIban, 0);
+        }
+        if (length < COUNTRY_CODE_LENGTH) {
+            return invalid(IbanExceptionType.invalidCountryCode, length);
+        }
+        if (length < IBAN_INDEX) {
+            return invalid(IbanExceptionType.invalidCheckDigit, length);
+        }
+        if (checkDigitStatus != VALID) {
+            return checkDigitStatus;
+        }
+        if (IBAN_INDEX + bbanLength != length) {
+            return invalid(IbanExceptionType.invalidIbanLength, Math.min(IBAN_INDEX + bbanLength, length));
+        }
+        if (characterStatus != VALID) {
+            return characterStatus;
+        }
+        if (bbanValueStatus != VALID) {
+            return bbanValueStatus;
+        }
+        if (headValueStatus != VALID) {
+            return headValueStatus;
+        }
+        long total = bbanTotal % Mod97.MODULUS;
+        for (int i = 0; i < headWidth; i++) {
+            total *= 10;
+        }
+        if ((total + headTotal) % Mod97.MODULUS != Mod97.VALID_REMAINDER) {
+            return invalid(IbanExceptionType.invalidCheckDigit, CHECK_DIGIT_INDEX);
+        }
+        return VALID;
+    }
+    
+    /**
+     * Builds the message for a failure reported by {@link #check(Object, int, int)}, the texts
+     * are the ones the step by step validation has always thrown.
+     */
+    static String buildMessage(final IbanExceptionType type, final int errorOffset, final String iban) {
+        switch (type) {
+        case emptyIban:
+            return "Not Valid because, Iban is null or empty";
+
+        case invalidCountryCode:
+            if (iban.length() < COUNTRY_CODE_LENGTH) {
+                return "Iban must contain 2 char country code.";
+            }
+            final String countryCode = getCountryCode(iban);
+            if (!countryCode.equals(countryCode.toUpperCase()) ||
+                !Character.isLetter(countryCode.charAt(0)) ||
+                !Character.isLetter(countryCode.charAt(1))) {
+                return "Iban country code must contain upper case letters.";
+            }
+            return "Country code is not supported.";
+
+        case invalidCheckDigit:
+            if (iban.length() < COUNTRY_CODE_LENGTH + CHECK_DIGIT_LENGTH) {
+                return "Iban must contain 2 digit check digit.";
             }
+            if (errorOffset < IBAN_INDEX && !isDigit(iban.charAt(errorOffset))) {
+                return "Iban's check digit should contain only digits.";
+            }
+            String expectedCheckDigit;
+            try {
+                expectedCheckDigit = calculateCheckDigit(iban);
+            } catch (IbanServiceException e) {
+                expectedCheckDigit = e.getMessage();
+            }
+            return String.format("[%s] has invalid check digit: %s, " +
+                            "expected check digit is: %s",
+                    iban, getCheckDigit(iban), expectedCheckDigit);
+
+        case invalidIbanLength:
+            final String ibanWithoutCountryAndCheckDigit = getIbanWithoutCountryAndCheckDigit(iban);
+            return String.format("[%s] length is %d, expected IBAN length is: %d",
+                    ibanWithoutCountryAndCheckDigit, ibanWithoutCountryAndCheckDigit.length(),
+                    DefaultIbanStructure.getIbanLengthWithoutCountryAndCheckDigit(
+                            CountryCode.getByCode(getCountryCode(iban))));
+
+        case invalidChracter:
+            final char ch = iban.charAt(errorOffset);
+            int entryIndex = IBAN_INDEX;
+            for (final IbanAttribute ibanAttribute : getIbanAttribute(CountryCode.getByCode(getCountryCode(iban)))) {
+                final int entryEnd = entryIndex + ibanAttribute.getAttributeLength();
+                if (errorOffset < entryEnd && !ibanAttribute.getAttributeCharacterType().matches(ch)) {
+                    final String entryValue = iban.substring(entryIndex, entryEnd);
+                    switch (ibanAttribute.getAttributeCharacterType()) {
+                    case upperAlpha:
+                        return String.format("[%s] must contain only upper case letters.", entryValue);
+                    case alphaNumeric:
+                        return String.format("[%s] must contain only upper case letters or digits.", entryValue);
+                    default:
+                        return String.format("[%s] must contain only digits.", entryValue);
+                    }
+                }
+                entryIndex = entryEnd;
+            }
+            return invalidCharacterMessage(iban, errorOffset);
+
+        case unknownBankCode:
+            final CountryStructure bankCountryStructure =
+                    DefaultIbanStructure.getCountryStructure(iban.charAt(0), iban.charAt(1));
+            return String.format("[%s] is not a known bank code.", iban.substring(errorOffset,
+                    errorOffset + bankCountryStructure.getAttributeLength(AttributeType.bankCode)));
 
+        case invalidNationalCheckDigit:
+            final CountryStructure accountCountryStructure =
+                    DefaultIbanStructure.getCountryStructure(iban.charAt(0), iban.charAt(1));
+            return String.format("[%s] does not pass the check digit method of its bank.", iban.substring(errorOffset,
+                    errorOffset + accountCountryStructure.getAttributeLength(AttributeType.accountNumber)));
+
+        case uncheckedNationalCheckDigit:
+            final CountryStructure uncheckedCountryStructure =
+                    DefaultIbanStructure.getCountryStructure(iban.charAt(0), iban.charAt(1));
+            return String.format("[%s] can not be checked, the check digit method of its bank is not supported.",
+                    iban.substring(errorOffset,
+                            errorOffset + uncheckedCountryStructure.getAttributeLength(AttributeType.accountNumber)));
         }
-        return (int) (total % MOD);
+        return type.name();
+    }
+
+    private static String invalidCharacterMessage(final String iban, final int errorOffset) {
+        final int rearrangedIndex = errorOffset < IBAN_INDEX
+                ? iban.length() - IBAN_INDEX + errorOffset : errorOffset - IBAN_INDEX;
+        return String.format("Invalid Character[%d] = '%d'", rearrangedIndex,
+                Character.getNumericValue(iban.charAt(errorOffset)));
+    }
+
+    private static int remainder(final Object iban, final int offset, final int length) {
+        if (iban instanceof CharSequence) {
+            return Mod97.remainder((CharSequence) iban, offset, length);
+        }
+        if (iban instanceof char[]) {
+            return Mod97.remainder((char[]) iban, offset, length);
+        }
+        if (iban instanceof ByteBuffer) {
+            return Mod97.remainder((ByteBuffer) iban, offset, length);
+        }
+        return Mod97.remainder((byte[]) iban, offset, length);
+    }
+    
+    private static char charAt(final Object iban, final int index) {
+        if (iban instanceof CharSequence) {
+            return ((CharSequence) iban).charAt(index);
+        }
+        if (iban instanceof char[]) {
+            return ((char[]) iban)[index];
+        }
+        if (iban instanceof ByteBuffer) {
+            return (char) (((ByteBuffer) iban).get(index) & 0xFF);
+        }
+        return (char) (((byte[]) iban)[index] & 0xFF);
+    }
+
+    static String toString(final Object iban, final int offset, final int length) {
+        if (iban == null) {
+            return null;
+        }
+        if (iban instanceof CharSequence) {
+            return ((CharSequence) iban).subSequence(offset, offset + length).toString();
+        }
+        if (iban instanceof char[]) {
+            return new String((char[]) iban, offset, length);
+        }
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(iban, offset + i);
+        }
+        return new String(chars);
+    }
+    
+    private static boolean isDigit(final char ch) {
+        return AttributeChracterType.numeric.matches(ch);
+    }
+    
+    public static String calculateCheckDigit(final String iban) throws IbanServiceException {
+        final int checkDigitIntValue = Mod97.checkDigit(iban, 0, iban.length());
+        if (checkDigitIntValue < 0) {
+            throw new IbanServiceException(invalidCharacterMessage(iban, -checkDigitIntValue - 1));
+        }
+        final String checkDigit = Integer.toString(checkDigitIntValue);
+        return checkDigitIntValue > 9 ? checkDigit : "0" + checkDigit;
+    }
+    
+    /**
+     * Calculates the check digit of an iban held in a char array without copying it, the check
+     * digit characters are read as {@link #DEFAULT_CHECK_DIGIT}.
+     * @return the check digit, between 2 and 98
+     */
+    public static int calculateCheckDigit(final char[] iban, final int offset, final int length)
+            throws IbanServiceException {
+        final int checkDigit = Mod97.checkDigit(iban, offset, length);
+        if (checkDigit < 0) {
+            throw new IbanServiceException(IbanExceptionType.invalidChracter,
+                    String.format("Invalid Character[%d] = '%s'", -checkDigit - 1, iban[offset - checkDigit - 1]));
+        }
+        return checkDigit;
+    }
+    
+    public static String replaceCheckDigit(final String iban, final String checkDigit) {
+        return getCountryCode(iban) + checkDigit + getIbanWithoutCountryAndCheckDigit(iban);
     }
     
     public static String getCountryCodeAndCheckDigit(final String iban) {
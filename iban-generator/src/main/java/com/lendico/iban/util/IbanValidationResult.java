@@ -0,0 +1,92 @@
+package com.lendico.iban.util;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+
+/**
+ * Outcome of an iban validation, used instead of an {@link IbanServiceException} on paths
+ * where invalid ibans are common. The message is only built when it is asked for, from the iban
+ * as it was validated: an invalid iban given as other than a String is copied into one, so the
+ * caller may reuse its buffer or builder right away.
+ * @author noman
+ */
+public final class IbanValidationResult {
+
+	private static final IbanValidationResult VALID = new IbanValidationResult(null, -1, null, 0, 0);
+
+	private final IbanExceptionType ibanExceptionType;
+	private final int errorOffset;
+
+	private final Object iban;
+	private final int offset;
+	private final int length;
+
+	private String message;
+
+	private IbanValidationResult(IbanExceptionType ibanExceptionType, int errorOffset,
+			Object iban, int offset, int length) {
+		this.ibanExceptionType = ibanExceptionType;
+		this.errorOffset = errorOffset;
+		this.iban = iban;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	public static IbanValidationResult valid() {
+		return VALID;
+	}
+
+	static IbanValidationResult invalid(IbanExceptionType ibanExceptionType, int errorOffset,
+			Object iban, int offset, int length) {
+		if (iban == null || iban instanceof String) {
+			return new IbanValidationResult(ibanExceptionType, errorOffset, iban, offset, length);
+		}
+		// a mutable input may change before the message is built
+		return new IbanValidationResult(ibanExceptionType, errorOffset, IbanUtil.toString(iban, offset, length), 0, length);
+	}
+
+	/**
+	 * Failure of a check beyond the structure of the iban, like a bank code missing from a
+	 * bank directory.
+	 */
+	public static IbanValidationResult invalid(IbanExceptionType ibanExceptionType, int errorOffset, CharSequence iban) {
+		return invalid(ibanExceptionType, errorOffset, iban, 0, iban.length());
+	}
+
+	public boolean isValid() {
+		return ibanExceptionType == null;
+	}
+
+	/**
+	 * @return the failure type or null if the iban is valid
+	 */
+	public IbanExceptionType getIbanExceptionType() {
+		return ibanExceptionType;
+	}
+
+	/**
+	 * @return offset of the failing character relative to the start of the iban, -1 if the iban is valid
+	 */
+	public int getErrorOffset() {
+		return errorOffset;
+	}
+
+	/**
+	 * @return the same message the throwing validation reports, null if the iban is valid
+	 */
+	public String getMessage() {
+		if (message == null && !isValid()) {
+			message = IbanUtil.buildMessage(ibanExceptionType, errorOffset, IbanUtil.toString(iban, offset, length));
+		}
+		return message;
+	}
+
+	public IbanServiceException toException() {
+		return new IbanServiceException(ibanExceptionType, getMessage());
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "valid" : ibanExceptionType + "@" + errorOffset;
+	}
+}
@@ -0,0 +1,200 @@
+package com.lendico.iban.util;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.neovisionaries.i18n.CountryCode;
+
+/**
+ * Validates an iban while it is typed, one character at a time. The country structure is looked
+ * up once the country code is complete, every further character is checked against the character
+ * type of its position and added to the remainder mod 97 of the bban. Country code and check
+ * digit come last in the rearranged iban, so they are added to that remainder with a constant
+ * factor once the bban is complete. Appending and deleting a character allocate nothing.
+ * <p>
+ * Spaces are skipped, so the print format can be typed. For input of the length of its country
+ * the failures are the ones {@link IbanUtil#tryValidate(CharSequence)} reports, otherwise the
+ * first character that does not fit is reported instead of the length. Not thread safe.
+ * @author noman
+ */
+public final class IncrementalIbanValidator {
+	private static final int COUNTRY_CODE_LENGTH = 2;
+	private static final int CHECK_DIGIT_INDEX = 2;
+	private static final int IBAN_INDEX = 4;
+	private static final int LETTERS = 26;
+
+	/** 10^6 mod 97, country code and check digit are six decimal digits. */
+	private static final int COUNTRY_AND_CHECK_DIGIT_FACTOR = 1_000_000 % Mod97.MODULUS;
+
+	private static final boolean[] supportedFirstLetters = new boolean[LETTERS];
+
+	static {
+		for (final CountryCode countryCode : DefaultIbanStructure.supportedCountries()) {
+			supportedFirstLetters[countryCode.getAlpha2().charAt(0) - 'A'] = true;
+		}
+	}
+
+	private final char[] chars = new char[IbanFormat.MAX_IBAN_LENGTH];
+	/** Remainder mod 97 of the first n characters of the bban at index n. */
+	private final int[] bbanRemainders = new int[IbanFormat.MAX_IBAN_LENGTH - IBAN_INDEX + 1];
+	/** Characters typed, without spaces, also the ones beyond the longest iban. */
+	private int length;
+	private CountryStructure countryStructure;
+	private IbanInputState state = IbanInputState.incomplete;
+	/** Index of the character that made the input invalid. */
+	private int invalidIndex;
+	private IbanExceptionType ibanExceptionType;
+	private int errorOffset;
+
+	/**
+	 * @return the state after the character, an invalid input stays invalid until the character
+	 * making it invalid is deleted
+	 */
+	public IbanInputState append(final char ch) {
+		if (ch == ' ') {
+			return state;
+		}
+		final int index = length++;
+		if (index < chars.length) {
+			chars[index] = ch;
+		}
+		if (state != IbanInputState.invalid) {
+			state = check(index, ch);
+		}
+		return state;
+	}
+
+	public IbanInputState append(final CharSequence input) {
+		for (int i = 0; i < input.length(); i++) {
+			append(input.charAt(i));
+		}
+		return state;
+	}
+
+	/**
+	 * Removes the last character that is not a space, like a backspace.
+	 * @return the state of the remaining input
+	 */
+	public IbanInputState deleteLast() {
+		if (length == 0) {
+			return state;
+		}
+		length--;
+		if (length < COUNTRY_CODE_LENGTH) {
+			countryStructure = null;
+		}
+		if (state != IbanInputState.invalid || length <= invalidIndex) {
+			state = prefixState();
+		}
+		return state;
+	}
+
+	public void reset() {
+		length = 0;
+		countryStructure = null;
+		state = IbanInputState.incomplete;
+	}
+
+	public IbanInputState getState() {
+		return state;
+	}
+
+	/**
+	 * @return number of characters typed, without spaces
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * @return the failure of an invalid input, null otherwise
+	 */
+	public IbanExceptionType getIbanExceptionType() {
+		return state == IbanInputState.invalid ? ibanExceptionType : null;
+	}
+
+	/**
+	 * @return index of the failure in the input without spaces, -1 if the input is not invalid
+	 */
+	public int getErrorOffset() {
+		return state == IbanInputState.invalid ? errorOffset : -1;
+	}
+
+	/**
+	 * @return the result of the input, an incomplete input is validated as it is
+	 */
+	public IbanValidationResult getResult() {
+		if (state == IbanInputState.invalid) {
+			return IbanValidationResult.invalid(ibanExceptionType, errorOffset, toString());
+		}
+		return IbanUtil.tryValidate(toString());
+	}
+
+	/**
+	 * @return the input without spaces, as far as it fits into the longest iban
+	 */
+	@Override
+	public String toString() {
+		return new String(chars, 0, Math.min(length, chars.length));
+	}
+
+	private IbanInputState check(final int index, final char ch) {
+		if (index == 0) {
+			if (ch < 'A' || ch > 'Z') {
+				return fail(IbanExceptionType.invalidCountryCode, 0, index);
+			}
+			if (!supportedFirstLetters[ch - 'A']) {
+				// the offset the full validation reports for an upper case first letter
+				return fail(IbanExceptionType.invalidCountryCode, 1, index);
+			}
+			return IbanInputState.incomplete;
+		}
+		if (index == 1) {
+			countryStructure = DefaultIbanStructure.getCountryStructure(chars[0], ch);
+			if (countryStructure == null) {
+				return fail(IbanExceptionType.invalidCountryCode, 1, index);
+			}
+			return IbanInputState.incomplete;
+		}
+		if (index < IBAN_INDEX) {
+			if (ch < '0' || ch > '9') {
+				return fail(IbanExceptionType.invalidCheckDigit, index, index);
+			}
+			return prefixState();
+		}
+		final int bbanPosition = index - IBAN_INDEX;
+		if (bbanPosition >= countryStructure.getBbanLength()) {
+			return fail(IbanExceptionType.invalidIbanLength, IBAN_INDEX + countryStructure.getBbanLength(), index);
+		}
+		final int value = Mod97.valueOf(ch);
+		if (value < 0 || !countryStructure.matches(bbanPosition, ch)) {
+			return fail(IbanExceptionType.invalidChracter, index, index);
+		}
+		bbanRemainders[bbanPosition + 1] = (bbanRemainders[bbanPosition] * (value > 9 ? 100 : 10) + value) % Mod97.MODULUS;
+		return prefixState();
+	}
+
+	/**
+	 * @return the state of the input, all of its characters fitting their position
+	 */
+	private IbanInputState prefixState() {
+		if (countryStructure == null || length < IBAN_INDEX + countryStructure.getBbanLength()) {
+			return IbanInputState.incomplete;
+		}
+		final int countryAndCheckDigit = Mod97.valueOf(chars[0]) * 10000 + Mod97.valueOf(chars[1]) * 100
+				+ (chars[CHECK_DIGIT_INDEX] - '0') * 10 + chars[CHECK_DIGIT_INDEX + 1] - '0';
+		final int remainder = (bbanRemainders[countryStructure.getBbanLength()] * COUNTRY_AND_CHECK_DIGIT_FACTOR
+				+ countryAndCheckDigit) % Mod97.MODULUS;
+		if (remainder != Mod97.VALID_REMAINDER) {
+			return fail(IbanExceptionType.invalidCheckDigit, CHECK_DIGIT_INDEX, length - 1);
+		}
+		return IbanInputState.valid;
+	}
+
+	private IbanInputState fail(final IbanExceptionType type, final int offset, final int index) {
+		this.ibanExceptionType = type;
+		this.errorOffset = offset;
+		this.invalidIndex = index;
+		return IbanInputState.invalid;
+	}
+}
@@ -0,0 +1,194 @@
+package com.lendico.iban.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ISO 7064 mod 97-10 arithmetic of an iban. The iban is read in place in its rearranged order,
+ * bban first and then country code and check digit, without building the rearranged copy.
+ * Letters count as 10 to 35 and digits as their value, other characters have no value.
+ * @author noman
+ */
+public final class Mod97 {
+	public static final int MODULUS = 97;
+
+	/** Remainder of an iban with correct check digit. */
+	public static final int VALID_REMAINDER = 1;
+
+	private static final int COUNTRY_CODE_LENGTH = 2;
+	private static final int IBAN_INDEX = 4;
+
+	/**
+	 * Totals are only reduced once they reach 16 digits, a further letter then still fits
+	 * into a long. For most ibans this means one reduction per 14 to 16 digits.
+	 */
+	static final long CHUNK_LIMIT = 10_000_000_000_000_000L;
+
+	private static final byte[] valueByAsciiChar = new byte[128];
+
+	static {
+		for (int ch = 0; ch < valueByAsciiChar.length; ch++) {
+			valueByAsciiChar[ch] = -1;
+		}
+		for (int ch = '0'; ch <= '9'; ch++) {
+			valueByAsciiChar[ch] = (byte) (ch - '0');
+		}
+		for (int ch = 'A'; ch <= 'Z'; ch++) {
+			valueByAsciiChar[ch] = (byte) (ch - 'A' + 10);
+			valueByAsciiChar[Character.toLowerCase(ch)] = (byte) (ch - 'A' + 10);
+		}
+	}
+
+	private Mod97() {
+	}
+
+	/**
+	 * @return the value of an ASCII digit or letter, -1 for any other character
+	 */
+	public static int valueOf(final char ch) {
+		return ch < 128 ? valueByAsciiChar[ch] : -1;
+	}
+
+	/**
+	 * @return the remainder of the iban, {@link #VALID_REMAINDER} if the check digit is correct,
+	 * or <code>-(index + 1)</code> of the first character without value in rearranged order,
+	 * the index being relative to the start of the iban
+	 */
+	public static int remainder(final CharSequence iban, final int offset, final int length) {
+		checkLength(length);
+		long total = append(0, iban, offset + IBAN_INDEX, offset + length);
+		total = append(total, iban, offset, offset + IBAN_INDEX);
+		return toRemainder(total, offset);
+	}
+
+	public static int remainder(final char[] iban, final int offset, final int length) {
+		checkLength(length);
+		long total = append(0, iban, offset + IBAN_INDEX, offset + length);
+		total = append(total, iban, offset, offset + IBAN_INDEX);
+		return toRemainder(total, offset);
+	}
+
+	/**
+	 * Bytes are read as ISO-8859-1.
+	 */
+	public static int remainder(final byte[] iban, final int offset, final int length) {
+		checkLength(length);
+		long total = append(0, iban, offset + IBAN_INDEX, offset + length);
+		total = append(total, iban, offset, offset + IBAN_INDEX);
+		return toRemainder(total, offset);
+	}
+
+	/**
+	 * Bytes are read as ISO-8859-1 with absolute gets, the position of the buffer is not used.
+	 */
+	public static int remainder(final ByteBuffer iban, final int offset, final int length) {
+		checkLength(length);
+		long total = append(0, iban, offset + IBAN_INDEX, offset + length);
+		total = append(total, iban, offset, offset + IBAN_INDEX);
+		return toRemainder(total, offset);
+	}
+
+	/**
+	 * Calculates the check digit, the check digit characters of the iban are not read.
+	 * @return the check digit between 2 and 98, or <code>-(index + 1)</code> of the first
+	 * character without value as in {@link #remainder(CharSequence, int, int)}
+	 */
+	public static int checkDigit(final CharSequence iban, final int offset, final int length) {
+		checkLength(length);
+		long total = append(0, iban, offset + IBAN_INDEX, offset + length);
+		total = append(total, iban, offset, offset + COUNTRY_CODE_LENGTH);
+		return toCheckDigit(total, offset);
+	}
+
+	public static int checkDigit(final char[] iban, final int offset, final int length) {
+		checkLength(length);
+		long total = append(0, iban, offset + IBAN_INDEX, offset + length);
+		total = append(total, iban, offset, offset + COUNTRY_CODE_LENGTH);
+		return toCheckDigit(total, offset);
+	}
+
+	private static void checkLength(final int length) {
+		if (length < IBAN_INDEX) {
+			throw new IllegalArgumentException("Iban must contain country code and check digit.");
+		}
+	}
+
+	private static int toRemainder(final long total, final int offset) {
+		return total < 0 ? (int) total + offset : (int) (total % MODULUS);
+	}
+
+	private static int toCheckDigit(final long total, final int offset) {
+		return total < 0 ? (int) total + offset : 98 - (int) (total % MODULUS * 100 % MODULUS);
+	}
+
+	/**
+	 * Appends the values of the characters from <code>from</code> to <code>to</code> to the total.
+	 * @return the new total, or <code>-(index + 1)</code> of a character without value
+	 */
+	private static long append(long total, final CharSequence iban, final int from, final int to) {
+		if (total < 0) {
+			return total;
+		}
+		for (int i = from; i < to; i++) {
+			final int value = valueOf(iban.charAt(i));
+			if (value < 0) {
+				return -i - 1;
+			}
+			total = value > 9 ? total * 100 + value : total * 10 + value;
+			if (total >= CHUNK_LIMIT) {
+				total %= MODULUS;
+			}
+		}
+		return total;
+	}
+
+	private static long append(long total, final char[] iban, final int from, final int to) {
+		if (total < 0) {
+			return total;
+		}
+		for (int i = from; i < to; i++) {
+			final int value = valueOf(iban[i]);
+			if (value < 0) {
+				return -i - 1;
+			}
+			total = value > 9 ? total * 100 + value : total * 10 + value;
+			if (total >= CHUNK_LIMIT) {
+				total %= MODULUS;
+			}
+		}
+		return total;
+	}
+
+	private static long append(long total, final byte[] iban, final int from, final int to) {
+		if (total < 0) {
+			return total;
+		}
+		for (int i = from; i < to; i++) {
+			final int value = valueOf((char) (iban[i] & 0xFF));
+			if (value < 0) {
+				return -i - 1;
+			}
+			total = value > 9 ? total * 100 + value : total * 10 + value;
+			if (total >= CHUNK_LIMIT) {
+				total %= MODULUS;
+			}
+		}
+		return total;
+	}
+
+	private static long append(long total, final ByteBuffer iban, final int from, final int to) {
+		if (total < 0) {
+			return total;
+		}
+		for (int i = from; i < to; i++) {
+			final int value = valueOf((char) (iban.get(i) & 0xFF));
+			if (value < 0) {
+				return -i - 1;
+			}
+			total = value > 9 ? total * 100 + value : total * 10 + value;
+			if (total >= CHUNK_LIMIT) {
+				total %= MODULUS;
+			}
+		}
+		return total;
+	}
+}
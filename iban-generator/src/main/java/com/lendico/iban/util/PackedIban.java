@@ -0,0 +1,257 @@
+package com.lendico.iban.util;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.structure.AttributeChracterType;
+import com.lendico.iban.structure.CountryStructure;
+import com.lendico.iban.structure.DefaultIbanStructure;
+
+/**
+ * A valid iban packed into two longs. The bban is read as a mixed radix number, base 10, 26 or 36
+ * per position following its {@link AttributeChracterType}, and held in the low 117 bits. The top
+ * 10 bits hold the country code letters. The check digit follows from the rest up to a multiple of
+ * 97: besides the computed one from 02 to 98 only 99 for 02, 00 for 97 and 01 for 98 are valid, so
+ * the bit below the country code tells whether the iban has this alternative check digit.
+ * <p>
+ * Countries whose bban does not fit into 117 bits can not be packed, see {@link #isPackable(char, char)}.
+ * A packed iban never has both longs 0.
+ * @author noman
+ */
+public final class PackedIban implements Comparable<PackedIban> {
+	private static final int LETTERS = 26;
+	private static final int COUNTRY_SHIFT = 54;
+	private static final int ALTERNATIVE_CHECK_DIGIT_SHIFT = COUNTRY_SHIFT - 1;
+	private static final long BBAN_HIGH_MASK = (1L << ALTERNATIVE_CHECK_DIGIT_SHIFT) - 1;
+	/** Computed check digits that have a second valid form, 97 apart. */
+	private static final int LOWEST_CHECK_DIGIT = 2;
+	private static final int HIGHEST_CHECK_DIGIT = 98;
+	private static final long LOW_HALF_MASK = 0xFFFFFFFFL;
+	private static final int IBAN_INDEX = 4;
+	private static final int CHECK_DIGIT_INDEX = 2;
+
+	/** Whether the bban of a country fits, by the index of its letters, null until first asked. */
+	private static final Boolean[] packableByAlpha2 = new Boolean[LETTERS * LETTERS];
+
+	private final long high;
+	private final long low;
+
+	private PackedIban(final long high, final long low) {
+		this.high = high;
+		this.low = low;
+	}
+
+	/**
+	 * @param iban a valid iban of a packable country
+	 */
+	private PackedIban(final CharSequence iban, final CountryStructure countryStructure) {
+		long valueHigh = 0;
+		long valueLow = 0;
+		for (int i = 0; i < countryStructure.getBbanLength(); i++) {
+			final AttributeChracterType characterType = countryStructure.getCharacterType(i);
+			final int radix = radix(characterType);
+			// value * radix + digit on 128 bits, the low long in two halves of 32 bits
+			final long lower = (valueLow & LOW_HALF_MASK) * radix + toDigit(characterType, iban.charAt(IBAN_INDEX + i));
+			final long upper = (valueLow >>> 32) * radix + (lower >>> 32);
+			valueLow = upper << 32 | lower & LOW_HALF_MASK;
+			valueHigh = valueHigh * radix + (upper >>> 32);
+		}
+		final int alpha2Index = (iban.charAt(0) - 'A') * LETTERS + iban.charAt(1) - 'A';
+		final int checkDigit = (iban.charAt(CHECK_DIGIT_INDEX) - '0') * 10 + iban.charAt(CHECK_DIGIT_INDEX + 1) - '0';
+		final long alternativeCheckDigit = checkDigit < LOWEST_CHECK_DIGIT || checkDigit > HIGHEST_CHECK_DIGIT ? 1 : 0;
+		this.high = (long) (alpha2Index + 1) << COUNTRY_SHIFT | alternativeCheckDigit << ALTERNATIVE_CHECK_DIGIT_SHIFT
+				| valueHigh;
+		this.low = valueLow;
+	}
+
+	/**
+	 * Validates and packs the iban.
+	 * @throws IbanServiceException if the iban is not valid or its country can not be packed
+	 */
+	public static PackedIban pack(final CharSequence iban) throws IbanServiceException {
+		final IbanValidationResult result = IbanUtil.tryValidate(iban);
+		if (!result.isValid()) {
+			throw result.toException();
+		}
+		final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(iban.charAt(0), iban.charAt(1));
+		if (!isPackable(countryStructure)) {
+			throw new IbanServiceException(IbanExceptionType.invalidCountryCode,
+					String.format("Ibans of %s can not be packed.", countryStructure.getCountryCode()));
+		}
+		return new PackedIban(iban, countryStructure);
+	}
+
+	/**
+	 * Packs the iban without throwing.
+	 * @return the packed iban, or null if it is not valid or can not be packed
+	 */
+	public static PackedIban tryPack(final CharSequence iban) {
+		if (!IbanUtil.isValid(iban)) {
+			return null;
+		}
+		final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(iban.charAt(0), iban.charAt(1));
+		if (!isPackable(countryStructure)) {
+			return null;
+		}
+		return new PackedIban(iban, countryStructure);
+	}
+
+	/**
+	 * Restores a packed iban from the values of {@link #getHigh()} and {@link #getLow()}.
+	 */
+	public static PackedIban of(final long high, final long low) {
+		if (countryStructure(high) == null) {
+			throw new IllegalArgumentException(String.format("Not a packed iban: %x %x", high, low));
+		}
+		return new PackedIban(high, low);
+	}
+
+	public static boolean isPackable(final char first, final char second) {
+		final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(first, second);
+		return countryStructure != null && isPackable(countryStructure);
+	}
+
+	public long getHigh() {
+		return high;
+	}
+
+	public long getLow() {
+		return low;
+	}
+
+	public String getCountryCode() {
+		final int alpha2Index = (int) (high >>> COUNTRY_SHIFT) - 1;
+		return new String(new char[] { (char) ('A' + alpha2Index / LETTERS), (char) ('A' + alpha2Index % LETTERS) });
+	}
+
+	/**
+	 * @return the iban, equal to the one that was packed
+	 */
+	@Override
+	public String toString() {
+		return unpack(high, low);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash(high, low);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PackedIban)) {
+			return false;
+		}
+		final PackedIban other = (PackedIban) obj;
+		return high == other.high && low == other.low;
+	}
+
+	/**
+	 * Orders by country code first.
+	 */
+	@Override
+	public int compareTo(final PackedIban other) {
+		final int compareHigh = Long.compareUnsigned(high, other.high);
+		return compareHigh != 0 ? compareHigh : Long.compareUnsigned(low, other.low);
+	}
+
+	/**
+	 * Mixed hash of both longs.
+	 */
+	public static int hash(final long high, final long low) {
+		long h = high * 0x9e3779b97f4a7c15L + low;
+		h = (h ^ (h >>> 32)) * 0xd6e8feb86659fd93L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * @return the iban of the packed values
+	 */
+	public static String unpack(final long high, final long low) {
+		final CountryStructure countryStructure = countryStructure(high);
+		if (countryStructure == null) {
+			throw new IllegalArgumentException(String.format("Not a packed iban: %x %x", high, low));
+		}
+		final int alpha2Index = (int) (high >>> COUNTRY_SHIFT) - 1;
+		final int bbanLength = countryStructure.getBbanLength();
+		final char[] iban = new char[IBAN_INDEX + bbanLength];
+		iban[0] = (char) ('A' + alpha2Index / LETTERS);
+		iban[1] = (char) ('A' + alpha2Index % LETTERS);
+
+		long valueHigh = high & BBAN_HIGH_MASK;
+		long valueLow = low;
+		for (int i = bbanLength - 1; i >= 0; i--) {
+			final AttributeChracterType characterType = countryStructure.getCharacterType(i);
+			final int radix = radix(characterType);
+			// divides the 128 bit value by radix, the low long in two halves of 32 bits
+			final long remainderHigh = valueHigh % radix;
+			valueHigh /= radix;
+			final long upper = remainderHigh << 32 | valueLow >>> 32;
+			final long lower = (upper % radix) << 32 | valueLow & LOW_HALF_MASK;
+			valueLow = (upper / radix) << 32 | lower / radix;
+			iban[IBAN_INDEX + i] = toChar(characterType, (int) (lower % radix));
+		}
+		int checkDigit = Mod97.checkDigit(iban, 0, iban.length);
+		if ((high >>> ALTERNATIVE_CHECK_DIGIT_SHIFT & 1) != 0) {
+			checkDigit = checkDigit == LOWEST_CHECK_DIGIT ? checkDigit + Mod97.MODULUS : checkDigit - Mod97.MODULUS;
+		}
+		iban[CHECK_DIGIT_INDEX] = (char) ('0' + checkDigit / 10);
+		iban[CHECK_DIGIT_INDEX + 1] = (char) ('0' + checkDigit % 10);
+		return new String(iban);
+	}
+
+	private static CountryStructure countryStructure(final long high) {
+		final int alpha2Index = (int) (high >>> COUNTRY_SHIFT) - 1;
+		if (alpha2Index < 0 || alpha2Index >= LETTERS * LETTERS) {
+			return null;
+		}
+		final CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure(
+				(char) ('A' + alpha2Index / LETTERS), (char) ('A' + alpha2Index % LETTERS));
+		return countryStructure != null && isPackable(countryStructure) ? countryStructure : null;
+	}
+
+	private static boolean isPackable(final CountryStructure countryStructure) {
+		final String alpha2 = countryStructure.getCountryCode().getAlpha2();
+		final int alpha2Index = (alpha2.charAt(0) - 'A') * LETTERS + alpha2.charAt(1) - 'A';
+		Boolean packable = packableByAlpha2[alpha2Index];
+		if (packable == null) {
+			// the largest bban value, all positions at their highest digit, must fit into 117 bits
+			long valueHigh = 0;
+			long valueLow = 0;
+			for (int i = 0; i < countryStructure.getBbanLength() && valueHigh <= BBAN_HIGH_MASK; i++) {
+				final int radix = radix(countryStructure.getCharacterType(i));
+				final long lower = (valueLow & LOW_HALF_MASK) * radix + radix - 1;
+				final long upper = (valueLow >>> 32) * radix + (lower >>> 32);
+				valueLow = upper << 32 | lower & LOW_HALF_MASK;
+				valueHigh = valueHigh * radix + (upper >>> 32);
+			}
+			packable = valueHigh <= BBAN_HIGH_MASK;
+			packableByAlpha2[alpha2Index] = packable;
+		}
+		return packable;
+	}
+
+	private static int radix(final AttributeChracterType characterType) {
+		switch (characterType) {
+		case numeric:
+			return 10;
+		case upperAlpha:
+			return 26;
+		default:
+			return 36;
+		}
+	}
+
+	private static int toDigit(final AttributeChracterType characterType, final char ch) {
+		return characterType == AttributeChracterType.upperAlpha ? ch - 'A' : Mod97.valueOf(ch);
+	}
+
+	private static char toChar(final AttributeChracterType characterType, final int digit) {
+		if (characterType == AttributeChracterType.upperAlpha) {
+			return (char) ('A' + digit);
+		}
+		return (char) (digit < 10 ? '0' + digit : 'A' + digit - 10);
+	}
+}
@@ -0,0 +1,155 @@
+package com.lendico.iban.bank;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+import com.lendico.iban.util.IbanValidationResult;
+
+public class BankDirectoryTest {
+
+	static final String BUNDESBANK = line("10000000", '1', "MARKDEF1100", "09", 'U')
+			+ line("20041111", '1', "COBADEHDXXX", "51", 'U')
+			+ line("37040044", '1', "COBADEFFXXX", "13", 'U')
+			+ line("37040044", '2', "", "13", 'U')
+			+ line("50010517", '2', "", "00", 'A')
+			+ line("50010517", '1', "INGDDEFFXXX", "01", 'A')
+			+ line("70060024", '1', "", "00", 'U')
+			+ line("99999999", '1', "XXXXDEFFXXX", "00", 'D');
+
+	/**
+	 * A line of the bank code file of the Bundesbank with the fields used by the writer.
+	 */
+	static String line(String bankCode, char feature, String bic, String checkMethod, char change) {
+		return bankCode + feature + StringUtils.rightPad("Bank " + bankCode, 58) + "12345"
+				+ StringUtils.rightPad("Stadt", 35) + StringUtils.rightPad("Bank", 27) + "12345"
+				+ StringUtils.rightPad(bic, 11) + checkMethod + "000001" + change + "0" + "00000000\n";
+	}
+
+	static BankDirectory bundesbankDirectory() throws IOException {
+		return BankDirectory.wrap(ByteBuffer.wrap(BankDirectoryWriter.encodeBundesbank(new StringReader(BUNDESBANK))));
+	}
+
+	@Test
+	public void testLookup() throws IOException {
+		final BankDirectory bankDirectory = bundesbankDirectory();
+		assertEquals("DE", bankDirectory.getCountryCode());
+		assertEquals(5, bankDirectory.size());
+		assertTrue(bankDirectory.containsBankCode("37040044"));
+		assertFalse(bankDirectory.containsBankCode("99999999"));
+		assertFalse(bankDirectory.containsBankCode("3704004"));
+		assertEquals("COBADEFFXXX", bankDirectory.getBic("DE89370400440532013000"));
+		assertEquals("INGDDEFFXXX", bankDirectory.getBic(bankDirectory.indexOfBankCode("50010517")));
+		assertEquals("01", bankDirectory.getCheckMethod(bankDirectory.indexOfBankCode("50010517")));
+		assertNull(bankDirectory.getBic("DE27700600240390048400"));
+		assertNull(bankDirectory.getBic("NO9386011117947"));
+		assertEquals("10000000", bankDirectory.getBankCode(0));
+
+		final char[] bic = new char[11];
+		assertEquals(11, bankDirectory.copyBic(bankDirectory.indexOfBank("DE89370400440532013000"), bic, 0));
+		assertEquals("COBADEFFXXX", new String(bic));
+	}
+
+	@Test
+	public void testValidate() throws IOException {
+		final BankDirectory bankDirectory = bundesbankDirectory();
+		assertTrue(bankDirectory.validate("DE89370400440532013000").isValid());
+		assertTrue(bankDirectory.validate("NO9386011117947").isValid());
+		assertEquals(IbanExceptionType.invalidCheckDigit, bankDirectory.validate("DE88370400440532013000").getIbanExceptionType());
+
+		final IbanValidationResult result = bankDirectory.validate("DE68210501700012345678");
+		assertEquals(IbanExceptionType.unknownBankCode, result.getIbanExceptionType());
+		assertEquals(4, result.getErrorOffset());
+		assertEquals("[21050170] is not a known bank code.", result.getMessage());
+	}
+
+	@Test
+	public void testNationalCheckDigit() throws IOException, IbanServiceException {
+		final BankDirectory bankDirectory = bundesbankDirectory();
+		assertEquals(0, bankDirectory.getCheckMethodIndex(bankDirectory.indexOfBankCode("70060024")));
+
+		final IbanValidationResult result = bankDirectory.validate("DE27700600240390048400");
+		assertEquals(IbanExceptionType.invalidNationalCheckDigit, result.getIbanExceptionType());
+		assertEquals(12, result.getErrorOffset());
+		assertEquals("[0390048400] does not pass the check digit method of its bank.", result.getMessage());
+
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.addBankDirectory(bankDirectory);
+		ibanService.validateIban(ibanService.generateIban("DE", "70060024", "0009290701"));
+		assertEquals(IbanExceptionType.invalidNationalCheckDigit,
+				ibanService.tryValidateIban("DE27700600240390048400").getIbanExceptionType());
+	}
+
+	@Test
+	public void testUncheckedAccountPolicy() throws IOException, IbanServiceException {
+		final BankDirectory failing = bundesbankDirectory();
+		assertEquals(1, failing.countUncheckedBanks());
+		final int index = failing.indexOfBankCode("20041111");
+		assertEquals(NationalCheckResult.notChecked, failing.checkAccount(index, "DE22200411110123456789"));
+		final IbanValidationResult result = failing.validate("DE22200411110123456789");
+		assertEquals(IbanExceptionType.uncheckedNationalCheckDigit, result.getIbanExceptionType());
+		assertEquals(12, result.getErrorOffset());
+		assertEquals("[0123456789] can not be checked, the check digit method of its bank is not supported.",
+				result.getMessage());
+		assertTrue(failing.validate("DE23100000001234567890").isValid());
+
+		final BankDirectory passing = BankDirectory.wrap(ByteBuffer.wrap(
+				BankDirectoryWriter.encodeBundesbank(new StringReader(BUNDESBANK))), UncheckedAccountPolicy.pass);
+		assertTrue(passing.validate("DE22200411110123456789").isValid());
+
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.addBankDirectory(failing);
+		try {
+			ibanService.generateIban("DE", "20041111", "0123456789");
+			fail();
+		} catch (IbanServiceException e) {
+			assertEquals(IbanExceptionType.uncheckedNationalCheckDigit, e.getIbanExceptionType());
+		}
+	}
+
+	@Test
+	public void testOpenFile() throws IOException {
+		final Path file = Files.createTempFile("banks", ".bin");
+		file.toFile().deleteOnExit();
+		Files.write(file, BankDirectoryWriter.encodeCsv("GB", new StringReader("# bank;bic\nNWBK;NWBKGB2L\nMIDL\n")));
+		final BankDirectory bankDirectory = BankDirectory.open(file);
+		assertEquals(2, bankDirectory.size());
+		assertEquals("NWBKGB2L", bankDirectory.getBic("GB29NWBK60161331926819"));
+		assertNull(bankDirectory.getBic(bankDirectory.indexOfBankCode("MIDL")));
+		assertEquals(-1, bankDirectory.indexOfBankCode("BARC"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testWrongBankCodeLength() throws IOException {
+		BankDirectoryWriter.encodeCsv("GB", new StringReader("NWBK6\n"));
+	}
+
+	@Test
+	public void testServiceChecksBankCode() throws IOException, IbanServiceException {
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.validateIban("DE68210501700012345678");
+		ibanService.addBankDirectory(bundesbankDirectory());
+		ibanService.validateIban("DE89370400440532013000");
+		assertEquals(IbanExceptionType.unknownBankCode,
+				ibanService.tryValidateIban("DE68210501700012345678").getIbanExceptionType());
+		assertEquals(IbanExceptionType.unknownBankCode,
+				ibanService.validateIbans(new String[] { "DE68210501700012345678" })[0].getIbanExceptionType());
+		try {
+			ibanService.generateIban("DE", "21050170", "0012345678");
+			fail();
+		} catch (IbanServiceException e) {
+			assertEquals(IbanExceptionType.unknownBankCode, e.getIbanExceptionType());
+		}
+		assertEquals("DE89370400440532013000", ibanService.generateIban("DE", "37040044", "0532013000"));
+	}
+}
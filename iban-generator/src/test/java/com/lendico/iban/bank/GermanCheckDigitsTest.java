@@ -0,0 +1,162 @@
+package com.lendico.iban.bank;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class GermanCheckDigitsTest {
+
+	private static NationalCheckResult check(String method, String account) {
+		return GermanCheckDigits.check(GermanCheckDigits.methodIndex(method.charAt(0), method.charAt(1)), account, 0);
+	}
+
+	private static boolean isValid(String method, String account) {
+		final NationalCheckResult result = check(method, account);
+		assertNotSame(NationalCheckResult.notChecked, result);
+		return result == NationalCheckResult.valid;
+	}
+
+	@Test
+	public void testMethodIndex() {
+		assertEquals(0, GermanCheckDigits.methodIndex('0', '0'));
+		assertEquals(13, GermanCheckDigits.methodIndex('1', '3'));
+		assertEquals(144, GermanCheckDigits.methodIndex('E', '4'));
+		assertEquals(-1, GermanCheckDigits.methodIndex(' ', ' '));
+		assertEquals(-1, GermanCheckDigits.methodIndex('F', '0'));
+		assertEquals(-1, GermanCheckDigits.methodIndex('0', 'A'));
+		assertTrue(GermanCheckDigits.isImplemented(GermanCheckDigits.methodIndex('0', '6')));
+		assertTrue(GermanCheckDigits.isImplemented(GermanCheckDigits.methodIndex('1', '3')));
+		assertFalse(GermanCheckDigits.isImplemented(GermanCheckDigits.methodIndex('5', '1')));
+		assertFalse(GermanCheckDigits.isImplemented(GermanCheckDigits.methodIndex('1', '2')));
+		assertFalse(GermanCheckDigits.isImplemented(-1));
+	}
+
+	@Test
+	public void testMod10CrossSum() {
+		assertTrue(isValid("00", "0009290701"));
+		assertTrue(isValid("00", "0539290858"));
+		assertTrue(isValid("00", "0001501824"));
+		assertFalse(isValid("00", "0009290702"));
+		assertFalse(isValid("00", "0390048400"));
+	}
+
+	@Test
+	public void testMod10() {
+		assertTrue(isValid("01", "0000000127"));
+		assertFalse(isValid("01", "0000000126"));
+		// 03 weights as 00 without the cross sum: 9 * 2 = 18
+		assertTrue(isValid("03", "0000000092"));
+		assertFalse(isValid("00", "0000000092"));
+	}
+
+	@Test
+	public void testMod11() {
+		assertTrue(isValid("06", "0094012341"));
+		assertTrue(isValid("06", "5073321010"));
+		assertFalse(isValid("06", "0094012342"));
+
+		// remainder 1: invalid for 02, check digit 0 for 06 and 9 for 11
+		assertFalse(isValid("02", "0000000060"));
+		assertTrue(isValid("06", "0000000060"));
+		assertTrue(isValid("11", "0000000069"));
+		assertFalse(isValid("11", "0000000060"));
+	}
+
+	@Test
+	public void testCheckPosition() {
+		// 28 checks the eighth digit, the last two are not part of the check
+		assertTrue(isValid("28", "0000003512"));
+		assertFalse(isValid("28", "0000003612"));
+	}
+
+	@Test
+	public void testShiftedAccounts() {
+		// 13 checks the eighth digit, an account without its sub account 00 is shifted two digits
+		assertTrue(isValid("13", "0532013000"));
+		assertTrue(isValid("13", "0005320130"));
+		assertFalse(isValid("13", "0532013100"));
+		assertTrue(isValid("63", "0123456600"));
+		assertTrue(isValid("63", "0001234566"));
+		assertFalse(isValid("63", "1123456600"));
+		assertTrue(isValid("76", "0006543200"));
+		assertTrue(isValid("76", "9012345600"));
+		assertTrue(isValid("76", "7876543100"));
+		assertTrue(isValid("50", "4000005001"));
+		assertTrue(isValid("50", "4444442001"));
+	}
+
+	@Test
+	public void testSpecialSums() {
+		assertTrue(isValid("17", "0446786040"));
+		assertFalse(isValid("17", "0446786140"));
+		for (String account : new String[] { "0000138301", "1306118605", "3307118608", "9307118603" }) {
+			assertTrue(account, isValid("24", account));
+		}
+		assertTrue(isValid("29", "3145863029"));
+		assertTrue(isValid("27", "2847169488"));
+		assertTrue(isValid("31", "1000000524"));
+		assertTrue(isValid("31", "1000000583"));
+		assertTrue(isValid("35", "0000108443"));
+		assertTrue(isValid("35", "0000107451"));
+		for (String account : new String[] { "0000010338", "0000013844", "0000065354", "0000069258" }) {
+			assertTrue(account, isValid("77", account));
+		}
+		assertTrue(isValid("97", "0024010019"));
+		assertFalse(isValid("97", "0024010018"));
+	}
+
+	@Test
+	public void testVariants() {
+		for (String account : new String[] { "2974118000", "5281741000", "2974117000", "5281770000",
+				"8840019000", "8840050000", "8840012000", "8840055000" }) {
+			assertTrue(account, isValid("91", account));
+		}
+		for (String account : new String[] { "3230012688", "5440001898", "1550167850", "9011200140" }) {
+			assertTrue(account, isValid("79", account));
+		}
+		for (String account : new String[] { "0002525259", "0001000500", "0090013000", "0099913003" }) {
+			assertTrue(account, isValid("88", account));
+		}
+		assertTrue(isValid("A6", "0800048548"));
+		assertTrue(isValid("A6", "0055300030"));
+		assertTrue(isValid("B2", "0020012357"));
+		assertTrue(isValid("B2", "9000481805"));
+		assertTrue(isValid("C8", "0552071285"));
+		assertTrue(isValid("D3", "6019937007"));
+	}
+
+	@Test
+	public void testAccountRanges() {
+		// 99 does not check 0396000000 to 0499999999, 06 does
+		assertTrue(isValid("99", "0400000001"));
+		assertFalse(isValid("06", "0400000001"));
+		assertTrue(isValid("99", "0068007003"));
+		assertTrue(isValid("A0", "0000003287"));
+		assertTrue(isValid("A0", "0521003287"));
+		assertTrue(isValid("D8", "0010000000"));
+		assertTrue(isValid("D8", "1403414848"));
+		assertFalse(isValid("D8", "0000100000"));
+		assertTrue(isValid("69", "9300000000"));
+		assertTrue(isValid("69", "9721134869"));
+	}
+
+	@Test
+	public void testUncheckedMethods() {
+		assertEquals(NationalCheckResult.valid, check("09", "1234567890"));
+		assertEquals(NationalCheckResult.notChecked, check("51", "1234567890"));
+		assertEquals(NationalCheckResult.invalid, check("00", "12345678X0"));
+		assertEquals(NationalCheckResult.notChecked, GermanCheckDigits.check(-1, "1234567890", 0));
+	}
+
+	@Test
+	public void testImplementedMethodCount() {
+		int count = 0;
+		for (int method = 0; method < 150; method++) {
+			if (GermanCheckDigits.isImplemented(method)) {
+				count++;
+			}
+		}
+		assertEquals(count, GermanCheckDigits.implementedMethodCount());
+		assertTrue(count > 100);
+	}
+}
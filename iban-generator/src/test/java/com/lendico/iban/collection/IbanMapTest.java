@@ -0,0 +1,46 @@
+package com.lendico.iban.collection;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.UniqueIbanGenerator;
+
+public class IbanMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		final IbanMap<String> owners = new IbanMap<String>();
+		assertNull(owners.put("DE27700600240390048400", "first"));
+		assertEquals("first", owners.put("DE27700600240390048400", "second"));
+		assertEquals("second", owners.get("DE27700600240390048400"));
+		assertTrue(owners.containsKey("DE27700600240390048400"));
+		assertNull(owners.get("DE89370400440532013000"));
+		assertNull(owners.get("not an iban"));
+		assertEquals("second", owners.remove("DE27700600240390048400"));
+		assertNull(owners.remove("DE27700600240390048400"));
+		assertTrue(owners.isEmpty());
+	}
+
+	@Test
+	public void testManyEntries() throws IbanServiceException {
+		final UniqueIbanGenerator generator = new UniqueIbanGenerator("NL", 14L);
+		final IbanMap<Integer> indexes = new IbanMap<Integer>(10);
+		for (int i = 0; i < 50000; i++) {
+			indexes.put(generator.get(i), i);
+		}
+		for (int i = 0; i < 50000; i += 3) {
+			assertEquals(Integer.valueOf(i), indexes.remove(generator.get(i)));
+		}
+		for (int i = 0; i < 50000; i++) {
+			assertEquals(i % 3 == 0 ? null : Integer.valueOf(i), indexes.get(generator.get(i)));
+		}
+		final int[] count = new int[1];
+		indexes.forEach((iban, index) -> {
+			assertEquals(iban, generator.get(index));
+			count[0]++;
+		});
+		assertEquals(indexes.size(), count[0]);
+	}
+}
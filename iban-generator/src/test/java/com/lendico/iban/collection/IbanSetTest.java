@@ -0,0 +1,66 @@
+package com.lendico.iban.collection;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.UniqueIbanGenerator;
+
+public class IbanSetTest {
+
+	@Test
+	public void testAddContainsRemove() {
+		final IbanSet ibans = new IbanSet();
+		assertTrue(ibans.isEmpty());
+		assertTrue(ibans.add("DE27700600240390048400"));
+		assertFalse(ibans.add("DE27700600240390048400"));
+		assertTrue(ibans.contains("DE27700600240390048400"));
+		assertFalse(ibans.contains("DE89370400440532013000"));
+		assertFalse(ibans.contains("DE28700600240390048400"));
+		assertEquals(1, ibans.size());
+		assertFalse(ibans.remove("DE89370400440532013000"));
+		assertTrue(ibans.remove("DE27700600240390048400"));
+		assertTrue(ibans.isEmpty());
+	}
+
+	@Test
+	public void testCheckDigitsApartBy97() {
+		final IbanSet ibans = new IbanSet();
+		assertTrue(ibans.add("DE99370400440000000024"));
+		assertTrue(ibans.add("DE02370400440000000024"));
+		assertEquals(2, ibans.size());
+		assertTrue(ibans.contains("DE99370400440000000024"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddNotPackable() {
+		new IbanSet().add("LC55HEMM000100010012001200023015");
+	}
+
+	@Test
+	public void testManyIbans() throws IbanServiceException {
+		final UniqueIbanGenerator generator = new UniqueIbanGenerator("DE", 14L);
+		final IbanSet ibans = new IbanSet();
+		for (int i = 0; i < 100000; i++) {
+			assertTrue(ibans.add(generator.get(i)));
+		}
+		assertEquals(100000, ibans.size());
+		for (int i = 0; i < 100000; i += 2) {
+			assertTrue(ibans.remove(generator.get(i)));
+		}
+		assertEquals(50000, ibans.size());
+		for (int i = 0; i < 100000; i++) {
+			assertEquals(i % 2 == 1, ibans.contains(generator.get(i)));
+		}
+		final Set<String> remaining = new HashSet<String>();
+		ibans.forEach(remaining::add);
+		assertEquals(50000, remaining.size());
+		assertTrue(remaining.contains(generator.get(1)));
+		ibans.clear();
+		assertFalse(ibans.contains(generator.get(1)));
+	}
+}
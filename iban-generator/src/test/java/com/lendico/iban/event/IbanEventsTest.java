@@ -0,0 +1,92 @@
+package com.lendico.iban.event;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+import com.lendico.iban.util.IbanUtil;
+
+public class IbanEventsTest {
+
+	@Test
+	public void testNothingStartedWithoutRecording() {
+		assertNull(IbanEvents.begin());
+	}
+
+	@Test
+	public void testFailuresAndSlowCallsAreRecorded() throws Exception {
+		final List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable(IbanOperationEvent.class).withThreshold(Duration.ofHours(1));
+			recording.enable(IbanFailureEvent.class);
+			recording.start();
+
+			IbanUtil.validate("DE27700600240390048400");
+			try {
+				IbanUtil.validate("DE28700600240390048400");
+				fail();
+			} catch (IbanServiceException ex) {
+				assertEquals(IbanExceptionType.invalidCheckDigit, ex.getIbanExceptionType());
+			}
+			try {
+				new IbanServiceImpl().generateRandomIbanForCountry("US");
+				fail();
+			} catch (IbanServiceException ex) {
+				assertEquals(IbanExceptionType.invalidCountryCode, ex.getIbanExceptionType());
+			}
+
+			recording.stop();
+			events = read(recording);
+		}
+		assertEquals(2, events.size());
+		assertEquals("com.lendico.iban.Failure", events.get(0).getEventType().getName());
+		assertEquals("validate", events.get(0).getString("operation"));
+		assertEquals("DE", events.get(0).getString("countryCode"));
+		assertEquals("invalidCheckDigit", events.get(0).getString("outcome"));
+		assertEquals("generateRandomIbanForCountry", events.get(1).getString("operation"));
+		assertEquals("US", events.get(1).getString("countryCode"));
+		assertEquals("invalidCountryCode", events.get(1).getString("outcome"));
+	}
+
+	@Test
+	public void testSuccessWithoutThreshold() throws Exception {
+		final List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable(IbanOperationEvent.class).withThreshold(Duration.ZERO);
+			recording.start();
+			new IbanServiceImpl().generateIban("DE", "70060024", "0390048400");
+			recording.stop();
+			events = read(recording);
+		}
+		assertEquals(2, events.size());
+		assertEquals("generateIban", events.get(0).getString("operation"));
+		assertEquals("success", events.get(0).getString("outcome"));
+		assertEquals("validate", events.get(1).getString("operation"));
+		assertTrue(events.get(0).getDuration().compareTo(events.get(1).getDuration()) >= 0);
+	}
+
+	private static List<RecordedEvent> read(Recording recording) throws IOException {
+		final Path file = Files.createTempFile("iban", ".jfr");
+		try {
+			recording.dump(file);
+			final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			events.sort((first, second) -> first.getStartTime().compareTo(second.getStartTime()));
+			return events;
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
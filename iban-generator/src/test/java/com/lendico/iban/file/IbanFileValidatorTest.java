@@ -0,0 +1,91 @@
+package com.lendico.iban.file;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.UniqueIbanGenerator;
+import com.lendico.iban.util.IbanUtil;
+
+public class IbanFileValidatorTest {
+
+	private static final String[] INVALID = { "DE28700600240390048400", "XX27700600240390048400",
+			"DE2770060024039004840", "DE27700600240390O48400", "de27700600240390048400", "D" };
+
+	@Test
+	public void testReportsFailuresInLineOrder() throws IOException, IbanServiceException {
+		final UniqueIbanGenerator generator = new UniqueIbanGenerator("DE", 15L);
+		final StringBuilder content = new StringBuilder();
+		final List<String> expected = new ArrayList<String>();
+		for (int line = 1; line <= 5000; line++) {
+			String iban = generator.get(line);
+			if (line % 7 == 0 && line % 50 != 0) {
+				iban = INVALID[line % INVALID.length];
+				expected.add(line + " " + IbanUtil.tryValidate(iban).getIbanExceptionType() + " " + iban);
+			}
+			content.append(line % 50 == 0 ? "" : iban).append(line % 3 == 0 ? "\r\n" : "\n");
+		}
+		final Path file = write(content.toString());
+
+		for (int chunkSize : new int[] { 1, 40, 1000, 1 << 20 }) {
+			final List<String> failures = new ArrayList<String>();
+			final IbanFileSummary summary = new IbanFileValidator((char) 0, 0, false, new ForkJoinPool(3), chunkSize)
+					.validate(file, (lineNumber, type, iban) -> failures.add(lineNumber + " " + type + " " + iban));
+			assertEquals(expected, failures);
+			assertEquals(5000, summary.getLineCount());
+			assertEquals(4900, summary.getIbanCount());
+			assertEquals(expected.size(), summary.getFailureCount());
+		}
+	}
+
+	@Test
+	public void testColumn() throws IOException {
+		final Path file = write("id;iban;name\n1; \"DE27700600240390048400\" ;a\n2;DE28700600240390048400;b\n3\n4;;c");
+		final List<String> failures = new ArrayList<String>();
+		final IbanFileSummary summary = new IbanFileValidator(';', 1, ForkJoinPool.commonPool())
+				.validate(file, (lineNumber, type, iban) -> failures.add(lineNumber + " " + type + " " + iban));
+		assertEquals(5, summary.getLineCount());
+		assertEquals(4, summary.getFailureCount());
+		assertEquals("1 invalidCountryCode iban", failures.get(0));
+		assertEquals("3 invalidCheckDigit DE28700600240390048400", failures.get(1));
+		assertEquals("4 emptyIban ", failures.get(2));
+		assertEquals("5 emptyIban ", failures.get(3));
+	}
+
+	@Test
+	public void testSkipHeader() throws IOException {
+		final Path file = write("iban\nDE27700600240390048400\nDE28700600240390048400\n");
+		for (int chunkSize : new int[] { 1, 1 << 20 }) {
+			final List<String> failures = new ArrayList<String>();
+			final IbanFileSummary summary = new IbanFileValidator((char) 0, 0, true, new ForkJoinPool(2), chunkSize)
+					.validate(file, (lineNumber, type, iban) -> failures.add(lineNumber + " " + type + " " + iban));
+			assertEquals(3, summary.getLineCount());
+			assertEquals(2, summary.getIbanCount());
+			assertEquals(1, failures.size());
+			assertEquals("3 invalidCheckDigit DE28700600240390048400", failures.get(0));
+		}
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		final IbanFileSummary summary = new IbanFileValidator().validate(write(""),
+				(lineNumber, type, iban) -> fail());
+		assertEquals(0, summary.getLineCount());
+	}
+
+	private static Path write(String content) throws IOException {
+		final Path file = Files.createTempFile("ibans", ".csv");
+		file.toFile().deleteOnExit();
+		Files.write(file, content.getBytes(StandardCharsets.ISO_8859_1));
+		return file;
+	}
+}
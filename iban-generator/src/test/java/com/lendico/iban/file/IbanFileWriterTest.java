@@ -0,0 +1,83 @@
+package com.lendico.iban.file;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.UniqueIbanGenerator;
+import com.lendico.iban.util.IbanUtil;
+
+public class IbanFileWriterTest {
+
+	@Test
+	public void testWritesCountriesInTurn() throws IOException, IbanServiceException {
+		final List<String> countryCodes = Arrays.asList("DE", "NO", "MT");
+		final Path file = Files.createTempFile("ibans", ".txt");
+		file.toFile().deleteOnExit();
+		new IbanFileWriter(countryCodes, 16L, 0, 1, new ForkJoinPool(3), 100).write(file, 10001);
+
+		final List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+		assertEquals(10001, lines.size());
+		assertEquals(10001, new HashSet<String>(lines).size());
+		for (int i = 0; i < lines.size(); i++) {
+			assertTrue(lines.get(i), IbanUtil.isValid(lines.get(i)));
+			assertEquals(countryCodes.get(i % 3), IbanUtil.getCountryCode(lines.get(i)));
+		}
+		assertEquals(new UniqueIbanGenerator("NO", IbanFileWriter.countrySeed(16L, "NO")).get(5), lines.get(16));
+
+		final Path other = Files.createTempFile("ibans", ".txt");
+		other.toFile().deleteOnExit();
+		new IbanFileWriter(countryCodes, 16L).write(other, 10001);
+		assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(other));
+
+		new IbanFileWriter(countryCodes, 16L).write(other, 0);
+		assertEquals(0, Files.size(other));
+	}
+
+	@Test
+	public void testShardsAreDisjoint() throws IOException, IbanServiceException {
+		final List<String> countryCodes = Arrays.asList("DE", "MT");
+		final Set<String> ibans = new HashSet<String>();
+		for (int shard = 0; shard < 3; shard++) {
+			final Path file = Files.createTempFile("ibans", ".txt");
+			file.toFile().deleteOnExit();
+			new IbanFileWriter(countryCodes, 16L, shard, 3).write(file, 1000);
+			final List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+			assertEquals(1000, lines.size());
+			ibans.addAll(lines);
+			assertEquals(new UniqueIbanGenerator("MT", IbanFileWriter.countrySeed(16L, "MT")).get(shard + 3 * 4), lines.get(9));
+		}
+		assertEquals(3000, ibans.size());
+	}
+
+	@Test
+	public void testCountrySeedIgnoresPosition() throws IOException, IbanServiceException {
+		final Path file = Files.createTempFile("ibans", ".txt");
+		file.toFile().deleteOnExit();
+		new IbanFileWriter(Arrays.asList("MT", "NO"), 16L).write(file, 4);
+		final List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+		assertEquals(new UniqueIbanGenerator("NO", IbanFileWriter.countrySeed(16L, "NO")).get(1), lines.get(3));
+		assertFalse(IbanFileWriter.countrySeed(16L, "NO") == IbanFileWriter.countrySeed(16L, "MT"));
+	}
+
+	@Test(expected = IbanServiceException.class)
+	public void testDuplicateCountry() throws IbanServiceException {
+		new IbanFileWriter(Arrays.asList("DE", "NO", "DE"), 16L);
+	}
+
+	@Test(expected = IbanServiceException.class)
+	public void testUnsupportedCountry() throws IbanServiceException {
+		new IbanFileWriter(Arrays.asList("DE", "XX"), 16L);
+	}
+}
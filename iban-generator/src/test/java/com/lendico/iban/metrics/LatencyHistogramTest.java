@@ -0,0 +1,55 @@
+package com.lendico.iban.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBucketBounds() {
+		for (long nanos = 0; nanos < 100000; nanos++) {
+			final int index = LatencyHistogram.bucketIndex(nanos);
+			assertTrue(nanos <= LatencyHistogram.upperBound(index));
+			assertTrue(index == 0 || nanos > LatencyHistogram.upperBound(index - 1));
+		}
+		assertTrue(LatencyHistogram.bucketIndex(Long.MAX_VALUE) < 256);
+	}
+
+	@Test
+	public void testPercentiles() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		for (long nanos = 1; nanos <= 1000; nanos++) {
+			histogram.record(nanos);
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(500, histogram.getMeanNanos());
+		assertEquals(1000, histogram.getMaxNanos());
+		final long p50 = histogram.getPercentileNanos(50);
+		assertTrue(p50 >= 500 && p50 <= 625);
+		assertEquals(1000, histogram.getPercentileNanos(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getPercentileNanos(99));
+	}
+
+	@Test
+	public void testConcurrentRecording() throws InterruptedException {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		final Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread(() -> {
+				for (int n = 0; n < 100000; n++) {
+					histogram.record(n % 5000);
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(800000, histogram.getCount());
+		assertEquals(4999, histogram.getMaxNanos());
+	}
+}
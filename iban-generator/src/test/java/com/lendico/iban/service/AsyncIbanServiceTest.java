@@ -0,0 +1,242 @@
+package com.lendico.iban.service;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+import com.lendico.iban.util.IbanValidationResult;
+
+public class AsyncIbanServiceTest {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final AsyncIbanService asyncIbanService = new AsyncIbanService(new IbanServiceImpl(), executor, 16);
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testFutures() throws InterruptedException, ExecutionException {
+		final List<CompletableFuture<IbanValidationResult>> validations = new ArrayList<CompletableFuture<IbanValidationResult>>();
+		final List<CompletableFuture<String>> ibans = new ArrayList<CompletableFuture<String>>();
+		for (int i = 0; i < 1000; i++) {
+			validations.add(asyncIbanService.tryValidateIban(i % 2 == 0 ? "DE27700600240390048400" : "DE28700600240390048400"));
+			ibans.add(asyncIbanService.generateRandomIbanForCountry(i % 3 == 0 ? "NL" : "DE"));
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 2 == 0, validations.get(i).get().isValid());
+			assertTrue(IbanUtil.isValid(ibans.get(i).get()));
+			assertEquals(i % 3 == 0 ? "NL" : "DE", IbanUtil.getCountryCode(ibans.get(i).get()));
+		}
+		assertEquals("DE27700600240390048400", asyncIbanService.generateIban("DE", "70060024", "0390048400").get());
+	}
+
+	@Test
+	public void testFailedFuture() throws InterruptedException {
+		final CompletableFuture<String> unsupported = asyncIbanService.generateRandomIbanForCountry("XX");
+		final CompletableFuture<String> supported = asyncIbanService.generateRandomIbanForCountry("DE");
+		try {
+			unsupported.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertEquals(IbanExceptionType.invalidCountryCode, ((IbanServiceException) e.getCause()).getIbanExceptionType());
+		}
+		try {
+			assertTrue(IbanUtil.isValid(supported.get()));
+			asyncIbanService.generateIban("DE", null, null).get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IbanServiceException);
+		}
+	}
+
+	@Test
+	public void testValidationProcessorFollowsDemand() throws InterruptedException {
+		final SubmissionPublisher<String> publisher = new SubmissionPublisher<String>(executor, 1024);
+		final Flow.Processor<String, IbanValidationResult> processor = asyncIbanService.validationProcessor();
+		final AtomicLong requested = new AtomicLong();
+		publisher.subscribe(new Flow.Subscriber<String>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				processor.onSubscribe(new Flow.Subscription() {
+					@Override
+					public void request(long n) {
+						requested.addAndGet(n);
+						subscription.request(n);
+					}
+
+					@Override
+					public void cancel() {
+						subscription.cancel();
+					}
+				});
+			}
+
+			@Override
+			public void onNext(String item) {
+				processor.onNext(item);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+				processor.onError(throwable);
+			}
+
+			@Override
+			public void onComplete() {
+				processor.onComplete();
+			}
+		});
+		final CollectingSubscriber<IbanValidationResult> subscriber = new CollectingSubscriber<IbanValidationResult>();
+		processor.subscribe(subscriber);
+		for (int i = 0; i < 200; i++) {
+			publisher.submit(i % 4 == 0 ? "DE28700600240390048400" : "DE27700600240390048400");
+		}
+		publisher.close();
+
+		subscriber.request(5);
+		waitFor(subscriber, 5);
+		Thread.sleep(50);
+		assertEquals(5, subscriber.items.size());
+		assertTrue(requested.get() <= 5 + 2 * 16);
+
+		subscriber.request(Long.MAX_VALUE);
+		assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+		assertEquals(200, subscriber.items.size());
+		for (int i = 0; i < 200; i++) {
+			assertEquals(i % 4 != 0, subscriber.items.get(i).isValid());
+		}
+	}
+
+	@Test
+	public void testRandomGenerationProcessor() throws InterruptedException {
+		final SubmissionPublisher<String> publisher = new SubmissionPublisher<String>(executor, 1024);
+		final Flow.Processor<String, String> processor = asyncIbanService.randomGenerationProcessor();
+		publisher.subscribe(processor);
+		final CollectingSubscriber<String> subscriber = new CollectingSubscriber<String>();
+		processor.subscribe(subscriber);
+		subscriber.request(Long.MAX_VALUE);
+		for (int i = 0; i < 100; i++) {
+			publisher.submit(i < 50 ? "DE" : "NO");
+		}
+		publisher.submit("XX");
+		publisher.close();
+		assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+		assertTrue(subscriber.error instanceof IbanServiceException);
+		for (int i = 0; i < subscriber.items.size(); i++) {
+			assertEquals(i < 50 ? "DE" : "NO", IbanUtil.getCountryCode(subscriber.items.get(i)));
+		}
+	}
+
+	@Test
+	public void testValidateIban() throws InterruptedException, ExecutionException {
+		asyncIbanService.validateIban("DE27700600240390048400").get();
+		try {
+			asyncIbanService.validateIban("DE28700600240390048400").get();
+			fail();
+		} catch (ExecutionException e) {
+			assertEquals(IbanExceptionType.invalidCheckDigit, ((IbanServiceException) e.getCause()).getIbanExceptionType());
+		}
+		final IbanValidationResult[] results = asyncIbanService.validateIbans(
+				new String[] { "DE27700600240390048400", "DE28700600240390048400" }).get();
+		assertTrue(results[0].isValid());
+		assertFalse(results[1].isValid());
+	}
+
+	@Test
+	public void testUniqueIbans() throws InterruptedException, ExecutionException {
+		final List<String> ibans = asyncIbanService.generateUniqueRandomIbans("NL", 500).get();
+		assertEquals(500, new java.util.HashSet<String>(ibans).size());
+
+		final CollectingSubscriber<String> subscriber = new CollectingSubscriber<String>();
+		asyncIbanService.uniqueRandomIbanPublisher("NL", 3000).subscribe(subscriber);
+		subscriber.request(10);
+		waitFor(subscriber, 10);
+		Thread.sleep(50);
+		assertEquals(10, subscriber.items.size());
+		subscriber.request(Long.MAX_VALUE);
+		assertTrue(subscriber.completed.await(5, TimeUnit.SECONDS));
+		assertNull(subscriber.error);
+		assertEquals(3000, new java.util.HashSet<String>(subscriber.items).size());
+	}
+
+	@Test
+	public void testPublishers() throws InterruptedException {
+		final CollectingSubscriber<String> range = new CollectingSubscriber<String>();
+		asyncIbanService.ibanRangePublisher("DE", "70060024", 390048400L, 5).subscribe(range);
+		range.request(Long.MAX_VALUE);
+		assertTrue(range.completed.await(5, TimeUnit.SECONDS));
+		assertEquals(5, range.items.size());
+		assertEquals("DE27700600240390048400", range.items.get(0));
+
+		final CollectingSubscriber<String> random = new CollectingSubscriber<String>();
+		asyncIbanService.randomIbanPublisher("NO").subscribe(random);
+		random.request(3000);
+		waitFor(random, 3000);
+		random.subscription.cancel();
+		Thread.sleep(50);
+		assertEquals(3000, random.items.size());
+		assertEquals(1, random.completed.getCount());
+
+		final CollectingSubscriber<String> unsupported = new CollectingSubscriber<String>();
+		asyncIbanService.randomIbanPublisher("XX").subscribe(unsupported);
+		unsupported.request(1);
+		assertTrue(unsupported.completed.await(5, TimeUnit.SECONDS));
+		assertTrue(unsupported.error instanceof IbanServiceException);
+	}
+
+	private static void waitFor(CollectingSubscriber<?> subscriber, int count) throws InterruptedException {
+		for (int i = 0; i < 500 && subscriber.items.size() < count; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static class CollectingSubscriber<T> implements Flow.Subscriber<T> {
+		final List<T> items = Collections.synchronizedList(new ArrayList<T>());
+		final java.util.concurrent.CountDownLatch completed = new java.util.concurrent.CountDownLatch(1);
+		volatile Flow.Subscription subscription;
+		volatile Throwable error;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		void request(long n) {
+			subscription.request(n);
+		}
+
+		@Override
+		public void onNext(T item) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+			completed.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			completed.countDown();
+		}
+	}
+}
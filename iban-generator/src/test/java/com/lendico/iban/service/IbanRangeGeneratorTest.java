@@ -0,0 +1,84 @@
+package com.lendico.iban.service;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+
+public class IbanRangeGeneratorTest {
+
+	@Test
+	public void testStreamMatchesGenerateIban() throws IbanServiceException {
+		final IbanService ibanService = new IbanServiceImpl();
+		final List<String> ibans = new IbanRangeGenerator("DE", "70060024").stream(390048395L, 20)
+				.collect(Collectors.toList());
+		assertEquals(20, ibans.size());
+		for (int i = 0; i < ibans.size(); i++) {
+			assertEquals(ibanService.generateIban("DE", "70060024", String.format("%010d", 390048395L + i)),
+					ibans.get(i));
+		}
+		assertEquals("DE27700600240390048400", ibans.get(5));
+	}
+
+	@Test
+	public void testGenerateIntoSink() throws IbanServiceException {
+		final List<String> ibans = new ArrayList<String>();
+		new IbanRangeGenerator("NL", "ABNA").generate(9999990L, 30,
+				(buffer, offset, length) -> ibans.add(new String(buffer, offset, length)));
+		assertEquals(30, ibans.size());
+		assertEquals("NL", ibans.get(0).substring(0, 2));
+		assertTrue(ibans.get(29).endsWith("0010000019"));
+		for (String iban : ibans) {
+			assertTrue(iban, IbanUtil.isValid(iban));
+		}
+	}
+
+	@Test
+	public void testAlphaNumericAccountNumber() throws IbanServiceException {
+		assertEquals(1000, new IbanRangeGenerator("CH", "00762").stream(0, 1000)
+				.filter(IbanUtil::isValid).count());
+	}
+
+	@Test
+	public void testRangeTooLarge() throws IbanServiceException {
+		try {
+			new IbanRangeGenerator("DE", "70060024").stream(9999999999L, 2);
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidIbanLength, ex.getIbanExceptionType());
+		}
+	}
+
+	@Test
+	public void testInvalidBankCode() {
+		try {
+			new IbanRangeGenerator("DE", "7006002A");
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidChracter, ex.getIbanExceptionType());
+		}
+		try {
+			new IbanRangeGenerator("DE", "7006002");
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidIbanLength, ex.getIbanExceptionType());
+		}
+	}
+
+	@Test
+	public void testUnsupportedCountry() {
+		try {
+			new IbanRangeGenerator("FR", "20041");
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidCountryCode, ex.getIbanExceptionType());
+		}
+	}
+}
@@ -2,12 +2,19 @@ package com.lendico.iban.service;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import com.lendico.iban.exception.IbanExceptionType;
 import com.lendico.iban.exception.IbanServiceException;
 import com.lendico.iban.util.IbanUtil;
+import com.lendico.iban.util.IbanValidationResult;
 import com.neovisionaries.i18n.CountryCode;
 
 public class IbanServiceImplTest {
@@ -34,6 +41,17 @@ public class IbanServiceImplTest {
 		}
 	}
 	
+	@Test
+	public void testGenerateIbanWithOtherSegments() {
+		try {
+			ibanService.generateIban("GB", "NWBK", "31926819");
+			fail();
+		} catch(IbanServiceException ex) {
+			assertEquals("Ibans of GB also hold a branchCode, they can not be generated from a bank code and an account number only.",
+					ex.getMessage());
+		}
+	}
+	
 	@Test
 	public void testGenerateRandomIbanForCountry() throws IbanServiceException {
 		assertEquals(22, ibanService.generateRandomIbanForCountry("DE").length());
@@ -44,7 +62,7 @@ public class IbanServiceImplTest {
 	@Test
 	public void testGenerateRandomIbanForCountryException() throws IbanServiceException {
 		try {
-			ibanService.generateRandomIbanForCountry(CountryCode.AD.name()).length();
+			ibanService.generateRandomIbanForCountry(CountryCode.US.name()).length();
 		} catch(IbanServiceException ex) {
 			assertEquals(IbanExceptionType.invalidCountryCode, ex.getIbanExceptionType());
 			assertEquals("CountryCode is not supported.", ex.getMessage());
@@ -55,4 +73,119 @@ public class IbanServiceImplTest {
 	public void testValidateIbanSuccess() throws IbanServiceException {
 		ibanService.validateIban("DE89370400440532013000");
 	}
+	
+	@Test
+	public void testTryValidateIban() {
+		assertTrue(ibanService.tryValidateIban("DE89370400440532013000").isValid());
+		
+		IbanValidationResult result = ibanService.tryValidateIban("DE88370400440532013000");
+		assertFalse(result.isValid());
+		assertEquals(IbanExceptionType.invalidCheckDigit, result.getIbanExceptionType());
+	}
+	
+	@Test
+	public void testValidateIbans() {
+		final String[] ibans = new String[5000];
+		for (int i = 0; i < ibans.length; i++) {
+			ibans[i] = i % 3 == 0 ? "DE88370400440532013000" : "DE89370400440532013000";
+		}
+		
+		for (IbanService service : new IbanService[] {new IbanServiceImpl(ExecutionMode.sequential),
+				new IbanServiceImpl(ExecutionMode.parallel, 4)}) {
+			final IbanValidationResult[] results = service.validateIbans(ibans);
+			assertEquals(ibans.length, results.length);
+			for (int i = 0; i < ibans.length; i++) {
+				assertEquals(i % 3 != 0, results[i].isValid());
+			}
+			
+			final List<IbanValidationResult> listResults = service.validateIbans(Arrays.asList(ibans));
+			assertEquals(ibans.length, listResults.size());
+			assertEquals(IbanExceptionType.invalidCheckDigit, listResults.get(3).getIbanExceptionType());
+			assertTrue(listResults.get(4).isValid());
+			
+			final List<IbanValidationResult> streamResults = service.validateIbans(
+					Stream.of("DE89370400440532013000", null, "AT611904300234573201"));
+			assertEquals(3, streamResults.size());
+			assertTrue(streamResults.get(0).isValid());
+			assertEquals(IbanExceptionType.emptyIban, streamResults.get(1).getIbanExceptionType());
+			assertTrue(streamResults.get(2).isValid());
+		}
+	}
+	
+	@Test
+	public void testGenerateRandomIbans() throws IbanServiceException {
+		for (IbanService service : new IbanService[] {new IbanServiceImpl(ExecutionMode.sequential),
+				new IbanServiceImpl(ExecutionMode.parallel, 4)}) {
+			final List<String> ibans = service.generateRandomIbans("NL", 10000);
+			assertEquals(10000, ibans.size());
+			for (String iban : ibans) {
+				assertEquals(18, iban.length());
+				assertTrue(iban, IbanUtil.isValid(iban));
+			}
+		}
+	}
+	
+	@Test
+	public void testGenerateRandomIbanStream() throws IbanServiceException {
+		final List<String> ibans = ibanService.generateRandomIbanStream("AT").limit(100).collect(Collectors.toList());
+		assertEquals(100, ibans.size());
+		for (String iban : ibans) {
+			assertTrue(iban, IbanUtil.isValid(iban));
+		}
+	}
+	
+	@Test(expected=IbanServiceException.class)
+	public void testGenerateRandomIbansException() throws IbanServiceException {
+		ibanService.generateRandomIbans(CountryCode.US.name(), 10);
+	}
+	
+	@Test
+	public void testNegativeCount() {
+		try {
+			ibanService.generateRandomIbans("NL", -1);
+			fail();
+		} catch (IbanServiceException e) {
+			assertEquals("count must not be negative: -1", e.getMessage());
+		}
+		try {
+			ibanService.generateUniqueRandomIbans("NL", -1);
+			fail();
+		} catch (IbanServiceException e) {
+			assertEquals("count must not be negative: -1", e.getMessage());
+		}
+	}
+	
+	@Test
+	public void testGenerateRandomIbansWithSeed() throws IbanServiceException {
+		final IbanServiceImpl sequentialService = new IbanServiceImpl(ExecutionMode.sequential);
+		sequentialService.setRandomSeed(2016);
+		final List<String> ibans = sequentialService.generateRandomIbans("DE", 5000);
+		try (IbanServiceImpl parallelService = new IbanServiceImpl(ExecutionMode.parallel, 4)) {
+			parallelService.setRandomSeed(2016);
+			assertEquals(ibans, parallelService.generateRandomIbans("DE", 5000));
+			assertEquals(sequentialService.generateRandomIbanForCountry("DE"), parallelService.generateRandomIbanForCountry("DE"));
+		}
+		
+		sequentialService.setRandomSeed(2016);
+		assertEquals(ibans.get(0), sequentialService.generateRandomIbanForCountry("DE"));
+		assertEquals(ibans.get(1), sequentialService.generateRandomIbanStream("DE").findFirst().get());
+	}
+	
+	@Test
+	public void testCloseShutsDownOwnPoolOnly() throws IbanServiceException {
+		final IbanServiceImpl ownPoolService = new IbanServiceImpl(ExecutionMode.parallel, 2);
+		assertEquals(10000, ownPoolService.generateRandomIbans("NL", 10000).size());
+		ownPoolService.close();
+		try {
+			ownPoolService.generateRandomIbans("NL", 10000);
+			fail();
+		} catch (RejectedExecutionException e) {
+			// the pool is shut down
+		}
+		
+		final IbanServiceImpl commonPoolService = new IbanServiceImpl();
+		commonPoolService.close();
+		assertEquals(10000, commonPoolService.generateRandomIbans("NL", 10000).size());
+		new IbanServiceImpl(ExecutionMode.sequential, 2).close();
+	}
 }
@@ -0,0 +1,83 @@
+package com.lendico.iban.service;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.metrics.IbanOperation;
+import com.lendico.iban.metrics.IbanServiceMetrics;
+import com.lendico.iban.metrics.OperationMetrics;
+
+public class InstrumentedIbanServiceTest {
+	InstrumentedIbanService ibanService;
+	IbanServiceMetrics metrics;
+
+	@Before
+	public void setUp() {
+		ibanService = new InstrumentedIbanService(new IbanServiceImpl());
+		metrics = ibanService.getMetrics();
+	}
+
+	@Test
+	public void testRecordsCallsAndFailuresPerCountry() throws IbanServiceException {
+		ibanService.validateIban("DE27700600240390048400");
+		try {
+			ibanService.validateIban("DE28700600240390048400");
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidCheckDigit, ex.getIbanExceptionType());
+		}
+		ibanService.tryValidateIban("XX28700600240390048400");
+		ibanService.generateRandomIbanForCountry("FR");
+
+		final OperationMetrics validateDe = metrics.get(IbanOperation.validateIban, "DE");
+		assertEquals(2, validateDe.getLatencies().getCount());
+		assertEquals(1, validateDe.getFailures(IbanExceptionType.invalidCheckDigit));
+		assertEquals(1, metrics.get(IbanOperation.tryValidateIban, IbanServiceMetrics.OTHER_COUNTRIES)
+				.getFailures(IbanExceptionType.invalidCountryCode));
+		assertEquals(1, metrics.get(IbanOperation.generateRandomIbanForCountry, "FR").getLatencies().getCount());
+		assertEquals(4, metrics.getTotalCalls());
+		assertEquals(2, metrics.getTotalFailures());
+		assertEquals(3, metrics.getOperationStatistics().size());
+
+		metrics.reset();
+		assertEquals(0, metrics.getTotalCalls());
+	}
+
+	@Test
+	public void testBatchValidation() {
+		ibanService.validateIbans(Arrays.asList("DE27700600240390048400", "DE2770060024039004840", ""));
+		final OperationMetrics validateIbans = metrics.get(IbanOperation.validateIbans, null);
+		assertEquals(1, validateIbans.getLatencies().getCount());
+		assertEquals(1, validateIbans.getFailures(IbanExceptionType.invalidIbanLength));
+		assertEquals(1, validateIbans.getFailures(IbanExceptionType.emptyIban));
+	}
+
+	@Test
+	public void testMBean() throws Exception {
+		final ObjectName objectName = metrics.registerMBean("test");
+		try {
+			ibanService.generateIban("DE", "70060024", "0390048400");
+			final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(1L, mBeanServer.getAttribute(objectName, "TotalCalls"));
+			final CompositeData[] statistics = (CompositeData[]) mBeanServer.getAttribute(objectName,
+					"OperationStatistics");
+			assertEquals(1, statistics.length);
+			assertEquals("generateIban", statistics[0].get("operation"));
+			assertEquals("DE", statistics[0].get("countryCode"));
+			assertEquals(1L, statistics[0].get("calls"));
+		} finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		}
+	}
+}
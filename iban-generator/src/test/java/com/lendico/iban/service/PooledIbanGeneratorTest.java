@@ -0,0 +1,176 @@
+package com.lendico.iban.service;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+
+public class PooledIbanGeneratorTest {
+
+	@Test
+	public void testRingBuffer() {
+		final IbanRingBuffer ringBuffer = new IbanRingBuffer(3);
+		assertEquals(4, ringBuffer.capacity());
+		assertNull(ringBuffer.poll());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(ringBuffer.offer("IBAN" + i));
+		}
+		assertFalse(ringBuffer.offer("IBAN4"));
+		assertEquals(4, ringBuffer.size());
+		assertEquals("IBAN0", ringBuffer.poll());
+		assertTrue(ringBuffer.offer("IBAN4"));
+		for (int i = 1; i < 5; i++) {
+			assertEquals("IBAN" + i, ringBuffer.poll());
+		}
+		assertNull(ringBuffer.poll());
+		assertEquals(0, ringBuffer.size());
+	}
+
+	@Test
+	public void testRingBufferConcurrently() throws InterruptedException {
+		final IbanRingBuffer ringBuffer = new IbanRingBuffer(64);
+		final int perProducer = 20000;
+		final AtomicLong taken = new AtomicLong();
+		final AtomicLong takenSum = new AtomicLong();
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int producer = 0; producer < 4; producer++) {
+			executor.execute(() -> {
+				for (int i = 0; i < perProducer; i++) {
+					while (!ringBuffer.offer(Integer.toString(i % 10))) {
+						Thread.yield();
+					}
+				}
+			});
+			executor.execute(() -> {
+				while (taken.get() < 4 * perProducer) {
+					final String iban = ringBuffer.poll();
+					if (iban != null) {
+						takenSum.addAndGet(Integer.parseInt(iban));
+						taken.incrementAndGet();
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(4 * perProducer, taken.get());
+		assertEquals(4L * perProducer / 10 * 45, takenSum.get());
+		assertNull(ringBuffer.poll());
+	}
+
+	@Test
+	public void testTakeAndRefill() throws IbanServiceException, InterruptedException {
+		try (PooledIbanGenerator generator = new PooledIbanGenerator(new IbanServiceImpl(), 60, 16, DryPoolPolicy.fail)) {
+			assertEquals(64, generator.getCapacity());
+			assertEquals(0, generator.size("DE"));
+			generator.prefill("DE");
+			awaitSize(generator, "DE", 64);
+			for (int i = 0; i < 48; i++) {
+				final String iban = generator.take("DE");
+				assertTrue(IbanUtil.isValid(iban));
+				assertEquals("DE", IbanUtil.getCountryCode(iban));
+			}
+			awaitSize(generator, "DE", 64);
+			assertEquals(0, generator.getDryTakes());
+		}
+	}
+
+	@Test
+	public void testFirstTakesWaitForTheFill() throws IbanServiceException, InterruptedException {
+		for (final DryPoolPolicy dryPoolPolicy : DryPoolPolicy.values()) {
+			try (PooledIbanGenerator generator = new PooledIbanGenerator(new IbanServiceImpl(), 1 << 14, 0, dryPoolPolicy)) {
+				final ExecutorService executor = Executors.newFixedThreadPool(4);
+				final AtomicLong valid = new AtomicLong();
+				for (int i = 0; i < 4; i++) {
+					executor.execute(() -> {
+						try {
+							if (IbanUtil.isValid(generator.take("FR"))) {
+								valid.incrementAndGet();
+							}
+						} catch (IbanServiceException e) {
+							// counted as missing below
+						}
+					});
+				}
+				executor.shutdown();
+				assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+				assertEquals(4, valid.get());
+			}
+		}
+	}
+
+	@Test
+	public void testDryPoolPolicies() throws IbanServiceException, InterruptedException {
+		for (final DryPoolPolicy dryPoolPolicy : DryPoolPolicy.values()) {
+			final PooledIbanGenerator generator = new PooledIbanGenerator(new IbanServiceImpl(), 4, 0, dryPoolPolicy);
+			generator.prefill("NL");
+			awaitSize(generator, "NL", 4);
+			generator.close();
+			for (int i = 0; i < 4; i++) {
+				assertTrue(IbanUtil.isValid(generator.take("NL")));
+			}
+			try {
+				final String iban = generator.take("NL");
+				assertEquals(DryPoolPolicy.inline, dryPoolPolicy);
+				assertTrue(IbanUtil.isValid(iban));
+			} catch (IbanServiceException e) {
+				assertFalse(DryPoolPolicy.inline == dryPoolPolicy);
+			}
+			assertEquals(1, generator.getDryTakes());
+		}
+	}
+
+	@Test
+	public void testBlockUntilRefilled() throws IbanServiceException {
+		try (PooledIbanGenerator generator = new PooledIbanGenerator(new IbanServiceImpl(), 4, 0, DryPoolPolicy.block)) {
+			for (int i = 0; i < 1000; i++) {
+				assertTrue(IbanUtil.isValid(generator.take("AT")));
+			}
+		}
+	}
+
+	@Test
+	public void testSeededPools() throws IbanServiceException {
+		final IbanServiceImpl first = new IbanServiceImpl();
+		first.setRandomSeed(42);
+		final IbanServiceImpl second = new IbanServiceImpl();
+		second.setRandomSeed(42);
+		try (PooledIbanGenerator firstGenerator = new PooledIbanGenerator(first, 16, 4, DryPoolPolicy.block);
+				PooledIbanGenerator secondGenerator = new PooledIbanGenerator(second, 16, 4, DryPoolPolicy.block)) {
+			for (int i = 0; i < 8; i++) {
+				assertEquals(firstGenerator.take("DE"), secondGenerator.take("DE"));
+			}
+		}
+	}
+
+	@Test
+	public void testUnsupportedCountry() {
+		try (PooledIbanGenerator generator = new PooledIbanGenerator(new IbanServiceImpl(), 4, 0, DryPoolPolicy.block)) {
+			generator.take("XX");
+			fail();
+		} catch (IbanServiceException e) {
+			assertEquals(IbanExceptionType.invalidCountryCode, e.getIbanExceptionType());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testLowWaterMarkAboveCapacity() {
+		new PooledIbanGenerator(new IbanServiceImpl(), 4, 4, DryPoolPolicy.fail);
+	}
+
+	private static void awaitSize(PooledIbanGenerator generator, String countryCode, int size) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (generator.size(countryCode) < size && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(size, generator.size(countryCode));
+	}
+}
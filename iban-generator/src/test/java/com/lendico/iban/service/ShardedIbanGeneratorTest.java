@@ -0,0 +1,76 @@
+package com.lendico.iban.service;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+
+public class ShardedIbanGeneratorTest {
+
+	@Test
+	public void testShardsPartitionTheUniqueIbans() throws IbanServiceException {
+		final UniqueIbanGenerator unique = new UniqueIbanGenerator("DE", 7L);
+		final Set<String> ibans = new HashSet<String>();
+		for (int shard = 0; shard < 4; shard++) {
+			final ShardedIbanGenerator sharded = new ShardedIbanGenerator("DE", 7L, shard, 4);
+			for (long index = 0; index < 250; index++) {
+				final String iban = sharded.get(index);
+				assertTrue(IbanUtil.isValid(iban));
+				assertEquals(unique.get(shard + index * 4), iban);
+				ibans.add(iban);
+			}
+		}
+		assertEquals(1000, ibans.size());
+		final List<String> first = unique.stream(1000).collect(Collectors.toList());
+		assertTrue(ibans.containsAll(first));
+	}
+
+	@Test
+	public void testSeek() throws IbanServiceException {
+		final ShardedIbanGenerator sharded = new ShardedIbanGenerator("NO", 3L, 2, 5);
+		final List<String> generated = new ArrayList<String>();
+		sharded.generate(100, 10, (buffer, offset, length) -> generated.add(new String(buffer, offset, length)));
+		for (int i = 0; i < 10; i++) {
+			assertEquals(new ShardedIbanGenerator("NO", 3L, 2, 5).get(100 + i), generated.get(i));
+		}
+		assertEquals(sharded.stream(20).skip(10).findFirst().get(), sharded.get(10));
+	}
+
+	@Test
+	public void testCapacity() throws IbanServiceException {
+		final long capacity = new UniqueIbanGenerator("NO", 3L).getCapacity();
+		long total = 0;
+		for (int shard = 0; shard < 7; shard++) {
+			total += new ShardedIbanGenerator("NO", 3L, shard, 7).getCapacity();
+		}
+		assertEquals(capacity, total);
+
+		final ShardedIbanGenerator last = new ShardedIbanGenerator("NO", 3L, 6, 7);
+		assertTrue(IbanUtil.isValid(last.get(last.getCapacity() - 1)));
+		try {
+			last.get(last.getCapacity());
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			// beyond the shard
+		}
+		try {
+			last.stream(last.getCapacity() + 1);
+			fail();
+		} catch (IbanServiceException e) {
+			// beyond the shard
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidShard() throws IbanServiceException {
+		new ShardedIbanGenerator("DE", 7L, 3, 3);
+	}
+}
@@ -0,0 +1,70 @@
+package com.lendico.iban.service;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanUtil;
+
+public class UniqueIbanGeneratorTest {
+
+	@Test
+	public void testIbansAreDistinctAndValid() throws IbanServiceException {
+		for (String countryCode : new String[] { "DE", "NO", "LC", "MT" }) {
+			final Set<String> ibans = new HashSet<String>();
+			new UniqueIbanGenerator(countryCode, 5L).generate(0, 50000,
+					(buffer, offset, length) -> ibans.add(new String(buffer, offset, length)));
+			assertEquals(50000, ibans.size());
+			for (String iban : ibans) {
+				assertTrue(iban, IbanUtil.isValid(iban));
+			}
+		}
+	}
+
+	@Test
+	public void testSameSeedSameIbans() throws IbanServiceException {
+		final List<String> first = new UniqueIbanGenerator("DE", 5L).stream(100).collect(Collectors.toList());
+		assertEquals(first, new UniqueIbanGenerator("DE", 5L).stream(100).parallel().collect(Collectors.toList()));
+		assertFalse(first.equals(new UniqueIbanGenerator("DE", 6L).stream(100).collect(Collectors.toList())));
+		assertEquals(first.get(42), new UniqueIbanGenerator("DE", 5L).get(42));
+	}
+
+	@Test
+	public void testCapacity() throws IbanServiceException {
+		assertEquals(100000000000L, new UniqueIbanGenerator("NO", 5L).getCapacity());
+		final UniqueIbanGenerator uniqueIbanGenerator = new UniqueIbanGenerator("LC", 5L);
+		try {
+			uniqueIbanGenerator.stream(uniqueIbanGenerator.getCapacity() + 1);
+			fail();
+		} catch (IbanServiceException ex) {
+			assertTrue(ex.getMessage().startsWith("Only"));
+		}
+	}
+
+	@Test
+	public void testUnsupportedCountry() {
+		try {
+			new UniqueIbanGenerator("US", 5L);
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidCountryCode, ex.getIbanExceptionType());
+		}
+	}
+
+	@Test
+	public void testServiceGeneratesUniqueIbans() throws IbanServiceException {
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.setRandomSeed(9L);
+		final List<String> ibans = ibanService.generateUniqueRandomIbans("DE", 20000);
+		assertEquals(20000, new HashSet<String>(ibans).size());
+		assertEquals(ibans.subList(0, 10),
+				ibanService.generateUniqueRandomIbanStream("DE", 10).collect(Collectors.toList()));
+	}
+}
@@ -1,6 +1,8 @@
 package com.lendico.iban.structure;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.List;
 
@@ -58,7 +60,10 @@ public class DefaultIbanStructureTest {
 	@Test
 	public void testSupportedCountries() {
 		List<CountryCode> supportedCountries = DefaultIbanStructure.supportedCountries();
-		assertEquals(3, supportedCountries.size());
+		assertEquals(87, supportedCountries.size());
+		assertEquals(true, supportedCountries.contains(CountryCode.DE));
+		assertEquals(true, supportedCountries.contains(CountryCode.GB));
+		assertEquals(false, supportedCountries.contains(CountryCode.US));
 	}
 
 	@Test
@@ -73,4 +78,39 @@ public class DefaultIbanStructureTest {
 				DefaultIbanStructure.getIbanLengthWithoutCountryAndCheckDigit(CountryCode.NL));
 	}
 
+	@Test
+	public void testGetCountryStructure() {
+		CountryStructure countryStructure = DefaultIbanStructure.getCountryStructure('N', 'L');
+		
+		assertEquals(CountryCode.NL, countryStructure.getCountryCode());
+		assertEquals(14, countryStructure.getBbanLength());
+		assertEquals(AttributeChracterType.upperAlpha, countryStructure.getCharacterType(3));
+		assertEquals(AttributeChracterType.numeric, countryStructure.getCharacterType(4));
+		assertEquals(true, countryStructure.matches(0, 'A'));
+		assertEquals(false, countryStructure.matches(0, '1'));
+		assertEquals(2, countryStructure.getIbanAttributes().size());
+		
+		assertSame(countryStructure, DefaultIbanStructure.getCountryStructure(CountryCode.NL));
+		assertNull(DefaultIbanStructure.getCountryStructure('n', 'l'));
+		assertNull(DefaultIbanStructure.getCountryStructure('U', 'S'));
+		assertNull(DefaultIbanStructure.getCountryStructure('1', 'S'));
+		assertNull(DefaultIbanStructure.getCountryStructure(null));
+	}
+
+	@Test
+	public void testGetIbanAttributeForMultiSegmentCountries() {
+		List<IbanAttribute> ibanAttribute = DefaultIbanStructure.getIbanAttributeForCountry(CountryCode.FR);
+		
+		assertEquals(4, ibanAttribute.size());
+		assertEquals(AttributeType.branchCode, ibanAttribute.get(1).getAttributeType());
+		assertEquals(AttributeType.accountNumber, ibanAttribute.get(2).getAttributeType());
+		assertEquals(AttributeChracterType.alphaNumeric, ibanAttribute.get(2).getAttributeCharacterType());
+		assertEquals(11, ibanAttribute.get(2).getAttributeLength());
+		assertEquals(AttributeType.nationalCheckDigit, ibanAttribute.get(3).getAttributeType());
+		assertEquals(23, DefaultIbanStructure.getIbanLengthWithoutCountryAndCheckDigit(CountryCode.FR));
+		
+		assertEquals(28, DefaultIbanStructure.getIbanLengthWithoutCountryAndCheckDigit(CountryCode.LC));
+		assertEquals(11, DefaultIbanStructure.getIbanLengthWithoutCountryAndCheckDigit(CountryCode.NO));
+	}
+
 }
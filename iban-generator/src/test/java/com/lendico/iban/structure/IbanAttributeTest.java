@@ -25,4 +25,26 @@ public class IbanAttributeTest {
 		assertEquals(true, StringUtils.isAllUpperCase(randomBankCode));
 	}
 	
+	@Test
+	public void testGetRandomSeeded() {
+		IbanAttribute ibanAttribute = new IbanAttribute(AttributeType.accountNumber, AttributeChracterType.numeric, 10);
+		
+		assertEquals(ibanAttribute.getRandom(IbanRandom.seeded(42)), ibanAttribute.getRandom(IbanRandom.seeded(42)));
+		assertEquals(ibanAttribute.getRandom(IbanRandom.seeded(1).reset(42, 7)),
+				ibanAttribute.getRandom(IbanRandom.seeded(2).reset(42, 7)));
+		assertFalse(ibanAttribute.getRandom(IbanRandom.seeded(1).reset(42, 7))
+				.equals(ibanAttribute.getRandom(IbanRandom.seeded(1).reset(42, 8))));
+	}
+	
+	@Test
+	public void testFillRandom() {
+		IbanAttribute ibanAttribute = new IbanAttribute(AttributeType.bankCode, AttributeChracterType.upperAlpha, 4);
+		char[] target = "xxxxxx".toCharArray();
+		
+		ibanAttribute.fillRandom(target, 1, IbanRandom.THREAD_LOCAL);
+		assertEquals('x', target[0]);
+		assertEquals(true, StringUtils.isAllUpperCase(new String(target, 1, 4)));
+		assertEquals('x', target[5]);
+	}
+	
 }
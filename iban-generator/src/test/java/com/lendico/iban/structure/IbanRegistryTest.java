@@ -0,0 +1,64 @@
+package com.lendico.iban.structure;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.neovisionaries.i18n.CountryCode;
+
+public class IbanRegistryTest {
+
+	@Test
+	public void testBundledRegistryMatchesSource() throws IOException {
+		final byte[] expected;
+		try (InputStream source = getClass().getResourceAsStream("/iban-registry.txt")) {
+			expected = IbanRegistryWriter.encode(new InputStreamReader(source, StandardCharsets.US_ASCII));
+		}
+		
+		final byte[] bundled;
+		try (InputStream registry = getClass().getResourceAsStream("/iban-registry.bin")) {
+			bundled = new byte[expected.length + 1];
+			int length = 0;
+			int read;
+			while ((read = registry.read(bundled, length, bundled.length - length)) > 0) {
+				length += read;
+			}
+			assertEquals(expected.length, length);
+		}
+		assertArrayEquals(expected, Arrays.copyOf(bundled, expected.length));
+	}
+	
+	@Test
+	public void testLoad() throws IOException {
+		final byte[] data = IbanRegistryWriter.encode(new StringReader(
+				"# comment\nDE 8!n:bankCode 10!n:accountNumber\n\nMU 4!a:bankCode 2!n:bankCode 3!a:currencyCode\n"));
+		final IbanRegistry ibanRegistry = IbanRegistry.load(new ByteArrayInputStream(data));
+		
+		assertEquals(2, ibanRegistry.getCountryCodes().size());
+		assertEquals(CountryCode.MU, ibanRegistry.getCountryCodes().get(1));
+		
+		final CountryStructure countryStructure = ibanRegistry.getCountryStructure('M', 'U');
+		assertEquals(9, countryStructure.getBbanLength());
+		assertEquals(AttributeType.currencyCode, countryStructure.getIbanAttributes().get(2).getAttributeType());
+		assertEquals(AttributeChracterType.numeric, countryStructure.getCharacterType(5));
+		assertSame(countryStructure, ibanRegistry.getCountryStructure('M', 'U'));
+		
+		assertNull(ibanRegistry.getCountryStructure('N', 'L'));
+	}
+	
+	@Test(expected=IOException.class)
+	public void testLoadInvalidData() throws IOException {
+		IbanRegistry.load(new ByteArrayInputStream(new byte[] {'X', 'Y', 1, 0}));
+	}
+}
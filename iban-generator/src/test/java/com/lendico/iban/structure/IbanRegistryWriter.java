@@ -0,0 +1,104 @@
+package com.lendico.iban.structure;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encodes the text form of the iban registry into the binary form read by {@link IbanRegistry}.
+ * Build tooling kept with the tests, it is not part of the library jar.
+ * Usage: <code>IbanRegistryWriter &lt;registry.txt&gt; &lt;iban-registry.bin&gt;</code>
+ * @author noman
+ */
+public class IbanRegistryWriter {
+	private static final Pattern SEGMENT = Pattern.compile("(\\d+)!([nac]):(\\w+)");
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: IbanRegistryWriter <registry.txt> <iban-registry.bin>");
+			System.exit(1);
+		}
+		final byte[] registry;
+		try (Reader reader = new InputStreamReader(Files.newInputStream(Paths.get(args[0])), StandardCharsets.US_ASCII)) {
+			registry = encode(reader);
+		}
+		try (OutputStream outputStream = new FileOutputStream(args[1])) {
+			outputStream.write(registry);
+		}
+	}
+
+	/**
+	 * Lines hold a country code followed by its segments like <code>8!n:bankCode</code>,
+	 * empty lines and lines starting with # are skipped.
+	 */
+	public static byte[] encode(final Reader reader) throws IOException {
+		final List<String> countries = new ArrayList<String>();
+		final List<byte[]> records = new ArrayList<byte[]>();
+
+		final BufferedReader lines = new BufferedReader(reader);
+		String line;
+		while ((line = lines.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			final String[] fields = line.split("\\s+");
+			if (!fields[0].matches("[A-Z]{2}")) {
+				throw new IOException("Invalid country code in line: " + line);
+			}
+			final ByteArrayOutputStream record = new ByteArrayOutputStream();
+			record.write(fields.length - 1);
+			for (int i = 1; i < fields.length; i++) {
+				final Matcher segment = SEGMENT.matcher(fields[i]);
+				if (!segment.matches()) {
+					throw new IOException("Invalid segment " + fields[i] + " in line: " + line);
+				}
+				final AttributeType attributeType = AttributeType.valueOf(segment.group(3));
+				final AttributeChracterType characterType = toCharacterType(segment.group(2).charAt(0));
+				record.write(attributeType.ordinal() << IbanRegistry.CHARACTER_TYPE_BITS | characterType.ordinal());
+				record.write(Integer.parseInt(segment.group(1)));
+			}
+			countries.add(fields[0]);
+			records.add(record.toByteArray());
+		}
+
+		final ByteArrayOutputStream registry = new ByteArrayOutputStream();
+		registry.write(IbanRegistry.MAGIC);
+		registry.write(IbanRegistry.VERSION);
+		registry.write(countries.size());
+		int recordOffset = IbanRegistry.HEADER_LENGTH + countries.size() * IbanRegistry.INDEX_ENTRY_LENGTH;
+		for (int i = 0; i < countries.size(); i++) {
+			registry.write(countries.get(i).charAt(0));
+			registry.write(countries.get(i).charAt(1));
+			registry.write(recordOffset >>> 8);
+			registry.write(recordOffset);
+			recordOffset += records.get(i).length;
+		}
+		for (byte[] record : records) {
+			registry.write(record);
+		}
+		return registry.toByteArray();
+	}
+
+	private static AttributeChracterType toCharacterType(final char registryType) {
+		switch (registryType) {
+		case 'n':
+			return AttributeChracterType.numeric;
+		case 'a':
+			return AttributeChracterType.upperAlpha;
+		default:
+			return AttributeChracterType.alphaNumeric;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.lendico.iban.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class FeistelPermutationTest {
+
+	@Test
+	public void testIsBijection() {
+		for (long size : new long[] { 1, 2, 3, 97, 1000, 4096, 5000 }) {
+			final FeistelPermutation permutation = new FeistelPermutation(size, 42L);
+			final boolean[] seen = new boolean[(int) size];
+			for (long i = 0; i < size; i++) {
+				final long value = permutation.permute(i);
+				assertTrue(value >= 0 && value < size);
+				assertFalse(seen[(int) value]);
+				seen[(int) value] = true;
+			}
+		}
+	}
+
+	@Test
+	public void testKeyChangesOrder() {
+		final FeistelPermutation first = new FeistelPermutation(1000000, 1L);
+		final FeistelPermutation second = new FeistelPermutation(1000000, 2L);
+		int equal = 0;
+		for (long i = 0; i < 1000; i++) {
+			if (first.permute(i) == second.permute(i)) {
+				equal++;
+			}
+		}
+		assertTrue(equal < 10);
+		assertEquals(first.permute(123), new FeistelPermutation(1000000, 1L).permute(123));
+	}
+
+	@Test
+	public void testMaxSize() {
+		final FeistelPermutation permutation = new FeistelPermutation(FeistelPermutation.MAX_SIZE, 7L);
+		assertTrue(permutation.permute(FeistelPermutation.MAX_SIZE - 1) < FeistelPermutation.MAX_SIZE);
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testIndexOutOfRange() {
+		new FeistelPermutation(10, 7L).permute(10);
+	}
+}
@@ -0,0 +1,111 @@
+package com.lendico.iban.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+
+public class IbanCorrectionTest {
+
+	private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+	/**
+	 * Every substitution and transposition validated in full.
+	 */
+	private static List<String> bruteForce(String iban) {
+		final List<String> corrections = new ArrayList<String>();
+		for (int i = 2; i < iban.length(); i++) {
+			for (final char ch : ALPHABET) {
+				final char[] candidate = iban.toCharArray();
+				candidate[i] = ch;
+				addIfValid(corrections, iban, candidate);
+			}
+			if (i + 1 < iban.length()) {
+				final char[] candidate = iban.toCharArray();
+				candidate[i] = iban.charAt(i + 1);
+				candidate[i + 1] = iban.charAt(i);
+				addIfValid(corrections, iban, candidate);
+			}
+		}
+		Collections.sort(corrections);
+		return corrections;
+	}
+
+	private static void addIfValid(List<String> corrections, String iban, char[] candidate) {
+		final String correction = new String(candidate);
+		if (!correction.equals(iban) && IbanUtil.isValid(correction) && !corrections.contains(correction)) {
+			corrections.add(correction);
+		}
+	}
+
+	private static List<String> sorted(List<String> corrections) {
+		final List<String> sorted = new ArrayList<String>(corrections);
+		Collections.sort(sorted);
+		return sorted;
+	}
+
+	@Test
+	public void testSubstitution() {
+		final List<String> corrections = IbanCorrection.suggest("DE27700600240390048401");
+		assertTrue(corrections.contains("DE27700600240390048400"));
+		for (final String correction : corrections) {
+			assertTrue(IbanUtil.isValid(correction));
+		}
+	}
+
+	@Test
+	public void testTransposition() {
+		assertTrue(IbanCorrection.suggest("DE27700600243090048400").contains("DE27700600240390048400"));
+		assertTrue(IbanCorrection.suggest("DE72700600240390048400").contains("DE27700600240390048400"));
+		assertTrue(IbanCorrection.suggest("GB29NWBK60161331926891").contains("GB29NWBK60161331926819"));
+	}
+
+	@Test
+	public void testInvalidCharacter() {
+		assertEquals(Arrays.asList("GB29NWBK60161331926819"), IbanCorrection.suggest("GB29NWBK6016133192681I"));
+		assertTrue(IbanCorrection.suggest("GB29NW8K60161331926819").contains("GB29NWBK60161331926819"));
+		assertTrue(IbanCorrection.suggest("DE27700600240390O48400").contains("DE27700600240390048400"));
+		assertTrue(IbanCorrection.suggest("DE27700600240390-48400").contains("DE27700600240390048400"));
+		assertTrue(IbanCorrection.suggest("DE2770060024039004840-").contains("DE27700600240390048400"));
+		assertTrue(IbanCorrection.suggest("DE27700600240390--8400").isEmpty());
+	}
+
+	@Test
+	public void testUnsupported() {
+		assertTrue(IbanCorrection.suggest(null).isEmpty());
+		assertTrue(IbanCorrection.suggest("DE27").isEmpty());
+		assertTrue(IbanCorrection.suggest("XX27700600240390048400").isEmpty());
+		assertTrue(IbanCorrection.suggest("DE2770060024039004840").isEmpty());
+	}
+
+	@Test
+	public void testMatchesBruteForce() throws IbanServiceException {
+		final Random random = new Random(11);
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.setRandomSeed(11);
+		for (final String countryCode : Arrays.asList("DE", "GB", "MT", "NO", "FR", "QA")) {
+			for (final String iban : ibanService.generateRandomIbans(countryCode, 100)) {
+				final char[] typo = iban.toCharArray();
+				final int index = 2 + random.nextInt(typo.length - 2);
+				if (random.nextBoolean() && index + 1 < typo.length) {
+					typo[index] = iban.charAt(index + 1);
+					typo[index + 1] = iban.charAt(index);
+				} else {
+					typo[index] = ALPHABET[random.nextInt(ALPHABET.length)];
+				}
+				final String invalid = new String(typo);
+				assertEquals(invalid, bruteForce(invalid), sorted(IbanCorrection.suggest(invalid)));
+			}
+			final String valid = ibanService.generateRandomIbanForCountry(countryCode);
+			assertEquals(valid, bruteForce(valid), sorted(IbanCorrection.suggest(valid)));
+		}
+	}
+}
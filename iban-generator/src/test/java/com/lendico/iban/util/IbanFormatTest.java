@@ -0,0 +1,66 @@
+package com.lendico.iban.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+
+public class IbanFormatTest {
+
+	@Test
+	public void testNormalize() {
+		final char[] buffer = new char[40];
+		assertEquals(22, IbanFormat.normalize("de89 3704-0044\t0532 0130 00", buffer, 2));
+		assertEquals("DE89370400440532013000", new String(buffer, 2, 22));
+		assertEquals(-1, IbanFormat.normalize("DE89 3704 0044 0532 0130 00", new char[21], 0));
+		assertEquals("DE89370400440532013000", IbanFormat.toElectronicFormat(" DE89 3704 0044 0532 0130 00 "));
+		assertEquals("DE8937O4.", IbanFormat.toElectronicFormat("de89 37o4."));
+	}
+
+	@Test
+	public void testPrintFormat() {
+		assertEquals("DE89 3704 0044 0532 0130 00", IbanFormat.toPrintFormat("DE89370400440532013000"));
+		assertEquals("NO93 8601 1117 947", IbanFormat.toPrintFormat("NO9386011117947"));
+		assertEquals("DE89", IbanFormat.toPrintFormat("DE89"));
+		assertEquals("", IbanFormat.toPrintFormat(""));
+		final char[] buffer = new char[IbanFormat.printLength(8)];
+		assertEquals(9, IbanFormat.formatPrint("DE893704", buffer, 0));
+		assertEquals("DE89 3704", new String(buffer));
+	}
+
+	@Test
+	public void testValidatePrintFormat() throws IbanServiceException {
+		IbanUtil.validatePrintFormat("de89 3704 0044 0532 0130 00");
+		assertTrue(IbanUtil.isValidPrintFormat("DE89-3704-0044-0532-0130-00"));
+		assertFalse(IbanUtil.isValidPrintFormat("DE89 3704 0044 0532 0130 00 0000 0000 0000 0000"));
+		assertFalse(IbanUtil.isValidPrintFormat(null));
+
+		final IbanValidationResult result = IbanUtil.tryValidatePrintFormat("de88 3704 0044 0532 0130 00");
+		assertEquals(IbanExceptionType.invalidCheckDigit, result.getIbanExceptionType());
+		IbanUtil.tryValidatePrintFormat("DE89 3704 0044 0532 0130 01");
+		assertTrue(result.getMessage(), result.getMessage().startsWith("[DE88370400440532013000]"));
+		assertEquals(IbanExceptionType.invalidIbanLength,
+				IbanUtil.tryValidatePrintFormat("DE89 3704 0044 0532 0130 00 0000 0000 0000 0000").getIbanExceptionType());
+	}
+
+	@Test
+	public void testPrintFormatAgreesWithElectronicFormat() {
+		final String[] ibans = { "", "d", "DE", "XX89", "dX89", "DE8", "DE8A", "de89 3704 0044 0532 0130 00",
+				"DE88 3704 0044 0532 0130 00", "DE89 3704 0044 0532 0130", "DE89 3704 0044 0532 0130 00 0",
+				"DE89 37O4 0044 0532 0130 00", "DE89 37O4 0044 0532 0130", "nl91 abna 0417 1643 00",
+				"NL91 AB1A 0417 1643 00", "mt84-malt-0110-0001-2345-mtlc-ast0-01s", "DE89 3704 0044 0532 0130 0\u00e9",
+				"DE\u0669\u0669 3704 0044 0532 0130 00", "DE89.3704 0044 0532 0130 00",
+				// a check digit that is not a digit counts only once the input reaches four characters
+				"DE X", "DEX", "de x", "D E 8", "DE 8X", "DEX9 3704" };
+		for (String iban : ibans) {
+			final IbanValidationResult expected = IbanUtil.tryValidate(IbanFormat.toElectronicFormat(iban));
+			final IbanValidationResult result = IbanUtil.tryValidatePrintFormat(iban);
+			assertEquals(iban, expected.getIbanExceptionType(), result.getIbanExceptionType());
+			assertEquals(iban, expected.getErrorOffset(), result.getErrorOffset());
+			assertEquals(iban, expected.getMessage(), result.getMessage());
+			assertEquals(iban, expected.isValid(), IbanUtil.isValidPrintFormat(iban));
+		}
+	}
+}
@@ -1,6 +1,9 @@
 package com.lendico.iban.util;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
 
 import org.junit.Test;
 
@@ -142,6 +145,13 @@ public class IbanUtilTest {
 		assertEquals("73", IbanUtil.calculateCheckDigit("DE00701600240390048400"));
 	}
 	
+	@Test
+	public void testCalculateCheckDigitForCharArray() throws IbanServiceException {
+		assertEquals(27, IbanUtil.calculateCheckDigit("DE00700600240390048400".toCharArray(), 0, 22));
+		assertEquals(27, IbanUtil.calculateCheckDigit("DE99700600240390048400".toCharArray(), 0, 22));
+		assertEquals(49, IbanUtil.calculateCheckDigit("xDE00701500240390048400".toCharArray(), 1, 22));
+	}
+	
 	@Test(expected=IbanServiceException.class)
 	public void testCalculateCheckDigitException() throws IbanServiceException {
 		IbanUtil.calculateCheckDigit("DE00;700600240390048400");
@@ -183,11 +193,154 @@ public class IbanUtilTest {
 		assertEquals(true, IbanUtil.isSupportedCountry(CountryCode.NL));
 		assertEquals(true, IbanUtil.isSupportedCountry(CountryCode.AT));
 		
-		assertEquals(false, IbanUtil.isSupportedCountry(CountryCode.AD));
+		assertEquals(true, IbanUtil.isSupportedCountry(CountryCode.AD));
+		assertEquals(false, IbanUtil.isSupportedCountry(CountryCode.US));
 	}
 
 	@Test
 	public void testGetIbanWithoutCountryAndCheckDigit() {
 		assertEquals("700600240390048400", IbanUtil.getIbanWithoutCountryAndCheckDigit("NL05700600240390048400"));
 	}
+
+	@Test
+	public void testIsValid() {
+		assertEquals(true, IbanUtil.isValid("DE89370400440532013000"));
+		assertEquals(true, IbanUtil.isValid("DE27700600240390048400"));
+		
+		assertEquals(false, IbanUtil.isValid(null));
+		assertEquals(false, IbanUtil.isValid(""));
+		assertEquals(false, IbanUtil.isValid("De"));
+		assertEquals(false, IbanUtil.isValid(CountryCode.AC.name()));
+		assertEquals(false, IbanUtil.isValid("DE0A"));
+		assertEquals(false, IbanUtil.isValid("DE007006002403948400"));
+		assertEquals(false, IbanUtil.isValid("DE007A0600240390048400"));
+		assertEquals(false, IbanUtil.isValid("NL00ABC41234567892"));
+		assertEquals(false, IbanUtil.isValid("DE00700600240390048400"));
+	}
+	
+	@Test
+	public void testIsValidWithOffset() {
+		final String line = "x;DE89370400440532013000;y";
+		
+		assertEquals(true, IbanUtil.isValid(line, 2, 22));
+		assertEquals(true, IbanUtil.isValid(line.toCharArray(), 2, 22));
+		assertEquals(true, IbanUtil.isValid(line.getBytes(), 2, 22));
+		
+		assertEquals(false, IbanUtil.isValid(line, 2, 21));
+		assertEquals(false, IbanUtil.isValid(line.toCharArray(), 1, 22));
+		assertEquals(false, IbanUtil.isValid(line.getBytes(), 3, 22));
+		
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(line.length());
+		buffer.put(line.getBytes());
+		assertEquals(true, IbanUtil.isValid(buffer, 2, 22));
+		assertEquals(false, IbanUtil.isValid(buffer, 2, 21));
+		final IbanValidationResult result = IbanUtil.tryValidate(buffer, 1, 22);
+		assertEquals(IbanExceptionType.invalidCountryCode, result.getIbanExceptionType());
+		assertEquals(0, result.getErrorOffset());
+		assertEquals("Iban country code must contain upper case letters.", result.getMessage());
+		
+		assertEquals(IbanUtil.VALID, IbanUtil.tryValidateStatus(buffer, 2, 22));
+		assertEquals(null, IbanUtil.getStatusType(IbanUtil.VALID));
+		final int status = IbanUtil.tryValidateStatus(buffer, 2, 21);
+		final IbanValidationResult shortResult = IbanUtil.tryValidate(buffer, 2, 21);
+		assertEquals(shortResult.getIbanExceptionType(), IbanUtil.getStatusType(status));
+		assertEquals(shortResult.getErrorOffset(), IbanUtil.getStatusOffset(status));
+		assertEquals(IbanExceptionType.emptyIban, IbanUtil.getStatusType(IbanUtil.tryValidateStatus(null, 0, 0)));
+	}
+	
+	@Test
+	public void testInvalidResultKeepsMutableInput() {
+		final StringBuilder builder = new StringBuilder("DE88370400440532013000");
+		final IbanValidationResult result = IbanUtil.tryValidate(builder);
+		final char[] chars = "DE8937040044053201300".toCharArray();
+		final IbanValidationResult arrayResult = IbanUtil.tryValidate(chars, 0, chars.length);
+		builder.setLength(0);
+		builder.append("XX");
+		chars[0] = 'X';
+		assertEquals(IbanExceptionType.invalidCheckDigit, result.getIbanExceptionType());
+		assertEquals(true, result.getMessage().startsWith("[DE88370400440532013000]"));
+		assertEquals(IbanExceptionType.invalidIbanLength, arrayResult.getIbanExceptionType());
+		assertEquals(IbanUtil.tryValidate("DE8937040044053201300").getMessage(), arrayResult.getMessage());
+	}
+	
+	@Test
+	public void testIsValidAgreesWithValidate() throws IbanServiceException {
+		final String[] ibans = {"DE89370400440532013000", "AT611904300234573201", "NL91ABNA0417164300",
+				"DE8937040044053201300", "NL91ABN40417164300", "AT61190430023457320A", "DE\u0669\u0669370400440532013000"};
+		
+		for (String iban : ibans) {
+			boolean valid = true;
+			try {
+				IbanUtil.validate(iban);
+			} catch (IbanServiceException ex) {
+				valid = false;
+			}
+			assertEquals(iban, valid, IbanUtil.isValid(iban));
+		}
+	}
+
+	@Test
+	public void testTryValidate() {
+		IbanValidationResult result = IbanUtil.tryValidate("DE89370400440532013000");
+		assertEquals(true, result.isValid());
+		assertEquals(null, result.getIbanExceptionType());
+		assertEquals(null, result.getMessage());
+		
+		result = IbanUtil.tryValidate("DE00700600240390B48400");
+		assertEquals(false, result.isValid());
+		assertEquals(IbanExceptionType.invalidChracter, result.getIbanExceptionType());
+		assertEquals(16, result.getErrorOffset());
+		assertEquals("[0390B48400] must contain only digits.", result.getMessage());
+		
+		result = IbanUtil.tryValidate("De89370400440532013000");
+		assertEquals(IbanExceptionType.invalidCountryCode, result.getIbanExceptionType());
+		assertEquals(1, result.getErrorOffset());
+		
+		result = IbanUtil.tryValidate("DE007006002403948400");
+		assertEquals(IbanExceptionType.invalidIbanLength, result.getIbanExceptionType());
+		assertEquals("[7006002403948400] length is 16, expected IBAN length is: 18", result.getMessage());
+		
+		result = IbanUtil.tryValidate("x;DE00700600240390048400".toCharArray(), 2, 22);
+		assertEquals(IbanExceptionType.invalidCheckDigit, result.getIbanExceptionType());
+		assertEquals(2, result.getErrorOffset());
+		assertEquals("[DE00700600240390048400] has invalid check digit: 00, expected check digit is: 27",
+				result.getMessage());
+		
+		result = IbanUtil.tryValidate(null);
+		assertEquals(IbanExceptionType.emptyIban, result.getIbanExceptionType());
+		assertEquals("Not Valid because, Iban is null or empty", result.getMessage());
+	}
+	
+	@Test
+	public void testValidateThrowsResultMessage() {
+		try {
+			IbanUtil.validate("NL00ABC41234567892");
+			fail();
+		} catch (IbanServiceException ex) {
+			assertEquals(IbanExceptionType.invalidChracter, ex.getIbanExceptionType());
+			assertEquals(IbanUtil.tryValidate("NL00ABC41234567892").getMessage(), ex.getMessage());
+		}
+	}
+
+	@Test
+	public void testValidateRegistryCountries() throws IbanServiceException {
+		final String[] ibans = {"GB82WEST12345698765432", "FR1420041010050500013M02606", "IT60X0542811101000000123456",
+				"ES9121000418450200051332", "BE68539007547034", "CH9300762011623852957", "AD1200012030200359100100",
+				"MU17BOMM0101101030300200000MUR", "SC18SSCB11010000000000001497USD", "TR330006100519786457841326",
+				"BR1800360305000010009795493C1", "NO9386011117947", "PL61109010140000071219812874",
+				"IS140159260076545510730339", "MT84MALT011000012345MTLCAST001S", "LC55HEMM000100010012001200023015",
+				"HU42117730161111101800000000", "SE4550000000058398257466"};
+		for (String iban : ibans) {
+			IbanUtil.validate(iban);
+			assertEquals(iban, true, IbanUtil.isValid(iban));
+		}
+	}
+	
+	@Test
+	public void testValidateIbanExceptionInvalidChracterForAlphaNumeric() {
+		IbanValidationResult result = IbanUtil.tryValidate("FR1420041010050500013m02606");
+		assertEquals(IbanExceptionType.invalidChracter, result.getIbanExceptionType());
+		assertEquals(21, result.getErrorOffset());
+		assertEquals("[0500013m026] must contain only upper case letters or digits.", result.getMessage());
+	}
 }
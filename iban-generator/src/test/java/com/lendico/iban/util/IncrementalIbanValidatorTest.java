@@ -0,0 +1,128 @@
+package com.lendico.iban.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanServiceImpl;
+
+public class IncrementalIbanValidatorTest {
+
+	private static final String VALID_IBAN = "DE27700600240390048400";
+
+	@Test
+	public void testTypingValidIban() {
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		for (int i = 0; i < VALID_IBAN.length() - 1; i++) {
+			assertEquals(IbanInputState.incomplete, validator.append(VALID_IBAN.charAt(i)));
+		}
+		assertEquals(IbanInputState.valid, validator.append(VALID_IBAN.charAt(VALID_IBAN.length() - 1)));
+		assertNull(validator.getIbanExceptionType());
+		assertEquals(-1, validator.getErrorOffset());
+		assertTrue(validator.getResult().isValid());
+		assertEquals(VALID_IBAN, validator.toString());
+	}
+
+	@Test
+	public void testPrintFormat() {
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		assertEquals(IbanInputState.valid, validator.append("GB29 NWBK 6016 1331 9268 19"));
+		assertEquals(22, validator.length());
+	}
+
+	@Test
+	public void testWrongCheckDigit() {
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		assertEquals(IbanInputState.invalid, validator.append("DE28700600240390048400"));
+		assertEquals(IbanExceptionType.invalidCheckDigit, validator.getIbanExceptionType());
+		assertEquals(2, validator.getErrorOffset());
+		assertEquals(IbanUtil.tryValidate("DE28700600240390048400").getMessage(), validator.getResult().getMessage());
+	}
+
+	@Test
+	public void testFailsAtFirstInvalidCharacter() {
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		assertEquals(IbanInputState.incomplete, validator.append("DE2770060"));
+		assertEquals(IbanInputState.invalid, validator.append('X'));
+		assertEquals(IbanExceptionType.invalidChracter, validator.getIbanExceptionType());
+		assertEquals(9, validator.getErrorOffset());
+		assertEquals(IbanInputState.invalid, validator.append("024"));
+
+		assertEquals(IbanInputState.invalid, validator.deleteLast());
+		assertEquals(IbanInputState.invalid, validator.deleteLast());
+		assertEquals(IbanInputState.invalid, validator.deleteLast());
+		assertEquals(IbanInputState.incomplete, validator.deleteLast());
+		assertEquals(IbanInputState.valid, validator.append("0240390048400"));
+	}
+
+	@Test
+	public void testCountryCode() {
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		assertEquals(IbanInputState.invalid, validator.append('1'));
+		assertEquals(IbanExceptionType.invalidCountryCode, validator.getIbanExceptionType());
+		assertEquals(IbanInputState.incomplete, validator.deleteLast());
+		assertEquals(IbanInputState.incomplete, validator.append('D'));
+		assertEquals(IbanInputState.invalid, validator.append('X'));
+		assertEquals(1, validator.getErrorOffset());
+		assertEquals(IbanInputState.incomplete, validator.deleteLast());
+		assertEquals(IbanInputState.incomplete, validator.append("E2"));
+		assertEquals(IbanInputState.invalid, validator.append('A'));
+		assertEquals(IbanExceptionType.invalidCheckDigit, validator.getIbanExceptionType());
+		assertEquals(3, validator.getErrorOffset());
+	}
+
+	@Test
+	public void testTooLong() {
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		validator.append(VALID_IBAN);
+		assertEquals(IbanInputState.invalid, validator.append('1'));
+		assertEquals(IbanExceptionType.invalidIbanLength, validator.getIbanExceptionType());
+		assertEquals(22, validator.getErrorOffset());
+		assertEquals(IbanInputState.valid, validator.deleteLast());
+		assertEquals(IbanInputState.incomplete, validator.deleteLast());
+
+		validator.reset();
+		assertEquals(0, validator.length());
+		assertEquals(IbanInputState.incomplete, validator.getState());
+		for (int i = 0; i < 40; i++) {
+			validator.append('1');
+		}
+		for (int i = 0; i < 40; i++) {
+			validator.deleteLast();
+		}
+		assertEquals(IbanInputState.incomplete, validator.getState());
+	}
+
+	@Test
+	public void testMatchesFullValidation() throws IbanServiceException {
+		final Random random = new Random(5);
+		final IbanServiceImpl ibanService = new IbanServiceImpl();
+		ibanService.setRandomSeed(5);
+		final char[] alphabet = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZa-".toCharArray();
+		final IncrementalIbanValidator validator = new IncrementalIbanValidator();
+		for (final String countryCode : new String[] { "DE", "GB", "MT", "NO", "FR", "QA", "BR" }) {
+			for (final String iban : ibanService.generateRandomIbans(countryCode, 200)) {
+				final char[] typo = iban.toCharArray();
+				if (random.nextBoolean()) {
+					typo[random.nextInt(typo.length)] = alphabet[random.nextInt(alphabet.length)];
+				}
+				final String input = new String(typo);
+				validator.reset();
+				final IbanInputState state = validator.append(input);
+				final IbanValidationResult expected = IbanUtil.tryValidate(input);
+				assertEquals(input, expected.isValid(), state == IbanInputState.valid);
+				if (expected.getIbanExceptionType() == IbanExceptionType.invalidIbanLength) {
+					// a typo in the country code asks for another length, typing stops at the first misfit instead
+					assertFalse(input, state == IbanInputState.valid);
+				} else if (!expected.isValid()) {
+					assertEquals(input, expected.getIbanExceptionType(), validator.getIbanExceptionType());
+					assertEquals(input, expected.getErrorOffset(), validator.getErrorOffset());
+				}
+			}
+		}
+	}
+}
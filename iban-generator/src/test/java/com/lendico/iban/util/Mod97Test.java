@@ -0,0 +1,63 @@
+package com.lendico.iban.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class Mod97Test {
+
+	private static final String ALPHA_NUMERIC = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+	@Test
+	public void testRemainder() {
+		assertEquals(1, Mod97.remainder("DE27700600240390048400", 0, 22));
+		assertEquals(1, Mod97.remainder("xMT84MALT011000012345MTLCAST001S".toCharArray(), 1, 31));
+		assertEquals(1, Mod97.remainder("LC55HEMM000100010012001200023015".getBytes(StandardCharsets.US_ASCII), 0, 32));
+		assertEquals(Mod97.remainder("DE27700600240390048400", 0, 22),
+				Mod97.remainder("de27700600240390048400", 0, 22));
+	}
+
+	@Test
+	public void testCheckDigit() {
+		assertEquals(27, Mod97.checkDigit("DE00700600240390048400", 0, 22));
+		assertEquals(27, Mod97.checkDigit("DE??700600240390048400".toCharArray(), 0, 22));
+		assertEquals(84, Mod97.checkDigit("MT00MALT011000012345MTLCAST001S", 0, 31));
+	}
+
+	@Test
+	public void testInvalidCharacter() {
+		assertEquals(-7, Mod97.remainder("DE2770;600240390048400", 0, 22));
+		assertEquals(-7, Mod97.remainder("xDE2770;600240390048400".toCharArray(), 1, 22));
+		assertEquals(-2, Mod97.checkDigit("D;00700600240390048400", 0, 22));
+		assertEquals(-5, Mod97.remainder("DE27\u0667700600240390048400", 0, 23));
+		assertEquals(-5, Mod97.remainder("DE27\u00C4700600240390048400".getBytes(StandardCharsets.ISO_8859_1), 0, 23));
+	}
+
+	@Test
+	public void testAgreesWithBigInteger() {
+		final Random random = new Random(97);
+		final char[] iban = new char[34];
+		for (int n = 0; n < 1000; n++) {
+			final int length = 5 + random.nextInt(30);
+			for (int i = 0; i < length; i++) {
+				iban[i] = ALPHA_NUMERIC.charAt(random.nextInt(ALPHA_NUMERIC.length()));
+			}
+			final StringBuilder numeric = new StringBuilder();
+			for (int i = 0; i < length; i++) {
+				numeric.append(Mod97.valueOf(iban[(i + 4) % length]));
+			}
+			final int expected = new BigInteger(numeric.toString()).mod(BigInteger.valueOf(97)).intValue();
+			assertEquals(expected, Mod97.remainder(iban, 0, length));
+			assertEquals(expected, Mod97.remainder(new String(iban, 0, length), 0, length));
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooShort() {
+		Mod97.remainder("DE2", 0, 3);
+	}
+}
@@ -0,0 +1,83 @@
+package com.lendico.iban.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.lendico.iban.exception.IbanExceptionType;
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.UniqueIbanGenerator;
+import com.lendico.iban.structure.DefaultIbanStructure;
+import com.neovisionaries.i18n.CountryCode;
+
+public class PackedIbanTest {
+
+	@Test
+	public void testRoundTrip() throws IbanServiceException {
+		int packable = 0;
+		for (CountryCode countryCode : DefaultIbanStructure.supportedCountries()) {
+			final String alpha2 = countryCode.getAlpha2();
+			if (!PackedIban.isPackable(alpha2.charAt(0), alpha2.charAt(1))) {
+				continue;
+			}
+			packable++;
+			final UniqueIbanGenerator generator = new UniqueIbanGenerator(alpha2, 14L);
+			for (int i = 0; i < 200; i++) {
+				final String iban = generator.get(i);
+				final PackedIban packedIban = PackedIban.pack(iban);
+				assertEquals(iban, packedIban.toString());
+				assertEquals(alpha2, packedIban.getCountryCode());
+				assertEquals(packedIban, PackedIban.of(packedIban.getHigh(), packedIban.getLow()));
+			}
+		}
+		assertEquals(77, packable);
+	}
+
+	@Test
+	public void testAlternativeCheckDigits() throws IbanServiceException {
+		final String[][] pairs = { { "DE99370400440000000024", "DE02370400440000000024" },
+				{ "DE00370400440000000060", "DE97370400440000000060" },
+				{ "DE01370400440000000042", "DE98370400440000000042" } };
+		for (String[] pair : pairs) {
+			assertTrue(pair[0], IbanUtil.isValid(pair[0]));
+			assertTrue(pair[1], IbanUtil.isValid(pair[1]));
+			final PackedIban alternative = PackedIban.pack(pair[0]);
+			final PackedIban computed = PackedIban.pack(pair[1]);
+			assertEquals(pair[0], alternative.toString());
+			assertEquals(pair[1], computed.toString());
+			assertFalse(alternative.equals(computed));
+			assertEquals(pair[0], PackedIban.unpack(alternative.getHigh(), alternative.getLow()));
+		}
+		assertEquals("BY13NBRB3600900000002Z00AB00", PackedIban.pack("BY13NBRB3600900000002Z00AB00").toString());
+	}
+
+	@Test
+	public void testEqualsAndOrder() throws IbanServiceException {
+		final PackedIban de = PackedIban.pack("DE27700600240390048400");
+		assertEquals(de, PackedIban.tryPack("DE27700600240390048400"));
+		assertEquals(de.hashCode(), PackedIban.pack("DE27700600240390048400").hashCode());
+		final PackedIban other = PackedIban.pack("DE89370400440532013000");
+		assertFalse(de.equals(other));
+		assertTrue(de.compareTo(other) > 0);
+		assertTrue(de.compareTo(PackedIban.pack("NO9386011117947")) < 0);
+	}
+
+	@Test
+	public void testNotPackable() {
+		assertFalse(PackedIban.isPackable('L', 'C'));
+		assertFalse(PackedIban.isPackable('X', 'X'));
+		assertNull(PackedIban.tryPack("LC55HEMM000100010012001200023015"));
+		assertNull(PackedIban.tryPack("DE28700600240390048400"));
+		try {
+			PackedIban.pack("LC55HEMM000100010012001200023015");
+			fail();
+		} catch (IbanServiceException e) {
+			assertEquals(IbanExceptionType.invalidCountryCode, e.getIbanExceptionType());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnpackInvalid() {
+		PackedIban.unpack(0L, 1L);
+	}
+}
@@ -0,0 +1,142 @@
+package com.lendico.iban.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.util.IbanValidationResult;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Request parameters and JSON responses of one call of an {@link IbanServer} endpoint.
+ * @author noman
+ */
+class IbanExchange {
+	/** Most lines of a batch request and most ibans of one random generation. */
+	static final int MAX_BATCH_SIZE = 10000;
+
+	private final HttpExchange httpExchange;
+	private final Map<String, String> parameters = new HashMap<String, String>();
+
+	IbanExchange(HttpExchange httpExchange) throws UnsupportedEncodingException {
+		this.httpExchange = httpExchange;
+		final String query = httpExchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			for (final String parameter : query.split("&")) {
+				final int separator = parameter.indexOf('=');
+				if (separator > 0) {
+					parameters.put(URLDecoder.decode(parameter.substring(0, separator), "UTF-8"),
+							URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+				}
+			}
+		}
+	}
+
+	String getMethod() {
+		return httpExchange.getRequestMethod();
+	}
+
+	/**
+	 * @return the parameter of the query string, null if it is missing
+	 */
+	String getParameter(String name) {
+		return parameters.get(name);
+	}
+
+	int getIntParameter(String name, int defaultValue) throws IbanServiceException {
+		final String value = parameters.get(name);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IbanServiceException(String.format("%s must be a number: %s", name, value));
+		}
+	}
+
+	/**
+	 * @return the non blank lines of the request body
+	 * @throws IbanServiceException if the body has more than {@link #MAX_BATCH_SIZE} lines
+	 */
+	List<String> getBodyLines() throws IOException, IbanServiceException {
+		final List<String> lines = new ArrayList<String>();
+		final BufferedReader reader = new BufferedReader(
+				new InputStreamReader(httpExchange.getRequestBody(), StandardCharsets.UTF_8));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			line = line.trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+			if (lines.size() == MAX_BATCH_SIZE) {
+				throw new IbanServiceException(String.format("At most %d lines can be sent at once", MAX_BATCH_SIZE));
+			}
+			lines.add(line);
+		}
+		return lines;
+	}
+
+	void send(int status, CharSequence json) throws IOException {
+		final byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+		httpExchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		httpExchange.sendResponseHeaders(status, body.length);
+		try (OutputStream outputStream = httpExchange.getResponseBody()) {
+			outputStream.write(body);
+		}
+	}
+
+	static void appendString(StringBuilder json, String value) {
+		if (value == null) {
+			json.append("null");
+			return;
+		}
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			final char ch = value.charAt(i);
+			if (ch == '"' || ch == '\\') {
+				json.append('\\').append(ch);
+			} else if (ch < 0x20) {
+				json.append(String.format("\\u%04x", (int) ch));
+			} else {
+				json.append(ch);
+			}
+		}
+		json.append('"');
+	}
+
+	static void appendIban(StringBuilder json, String iban) {
+		json.append("{\"iban\":");
+		appendString(json, iban);
+		json.append('}');
+	}
+
+	static void appendResult(StringBuilder json, String iban, IbanValidationResult result) {
+		json.append("{\"iban\":");
+		appendString(json, iban);
+		json.append(",\"valid\":").append(result.isValid());
+		if (!result.isValid()) {
+			json.append(",\"type\":\"").append(result.getIbanExceptionType()).append('"');
+			json.append(",\"message\":");
+			appendString(json, result.getMessage());
+		}
+		json.append('}');
+	}
+
+	static void appendFailure(StringBuilder json, IbanServiceException e) {
+		json.append("{\"type\":");
+		appendString(json, e.getIbanExceptionType() == null ? null : e.getIbanExceptionType().name());
+		json.append(",\"message\":");
+		appendString(json, e.getMessage());
+		json.append('}');
+	}
+}
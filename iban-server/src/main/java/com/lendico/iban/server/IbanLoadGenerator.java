@@ -0,0 +1,146 @@
+package com.lendico.iban.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.lendico.iban.metrics.LatencyHistogram;
+
+/**
+ * Sends requests to a running {@link IbanServer} from concurrent clients for a fixed time and
+ * reports throughput and latency percentiles. Requests of the first fifth of the run warm up the
+ * server and are not counted.
+ * <p>
+ * Usage: <code>IbanLoadGenerator [baseUrl [clients [seconds [endpoint]]]]</code>, by default
+ * http://localhost:8080 with 64 clients for 10 seconds. Endpoints are validate, validateBatch,
+ * generate and random.
+ * @author noman
+ */
+public class IbanLoadGenerator {
+	private static final String VALID_IBAN = "DE27700600240390048400";
+	private static final int BATCH_SIZE = 100;
+	private static final int BUFFER_SIZE = 8192;
+
+	private final URL url;
+	private final byte[] body;
+	private final LatencyHistogram latencies = new LatencyHistogram();
+	private final LongAdder errors = new LongAdder();
+
+	IbanLoadGenerator(String baseUrl, String endpoint) throws IOException {
+		switch (endpoint) {
+		case "validate":
+			this.url = new URL(baseUrl + "/validate?iban=" + VALID_IBAN);
+			this.body = null;
+			break;
+		case "validateBatch":
+			this.url = new URL(baseUrl + "/validate");
+			final StringBuilder ibans = new StringBuilder();
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				ibans.append(VALID_IBAN).append('\n');
+			}
+			this.body = ibans.toString().getBytes(StandardCharsets.US_ASCII);
+			break;
+		case "generate":
+			this.url = new URL(baseUrl + "/generate?countryCode=DE&bankCode=70060024&accountNumber=0390048400");
+			this.body = null;
+			break;
+		case "random":
+			this.url = new URL(baseUrl + "/random?countryCode=DE");
+			this.body = null;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+		}
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		final String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+		final int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+		final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+		final String endpoint = args.length > 3 ? args[3] : "validate";
+		final IbanLoadGenerator loadGenerator = new IbanLoadGenerator(baseUrl, endpoint);
+		loadGenerator.run(clients, TimeUnit.SECONDS.toNanos(seconds));
+		System.out.println(loadGenerator.report(TimeUnit.SECONDS.toNanos(seconds) * 4 / 5));
+	}
+
+	/**
+	 * Runs the clients until the duration is over, recording the requests after the warm up.
+	 */
+	void run(int clients, long durationNanos) throws InterruptedException {
+		final long start = System.nanoTime();
+		final long recordFrom = start + durationNanos / 5;
+		final long end = start + durationNanos;
+		final ExecutorService executor = IbanServer.newThreadPerTaskExecutor();
+		for (int i = 0; i < clients; i++) {
+			executor.execute(() -> {
+				final byte[] buffer = new byte[BUFFER_SIZE];
+				long requestStart;
+				while ((requestStart = System.nanoTime()) < end) {
+					final boolean ok = send(buffer);
+					final long requestEnd = System.nanoTime();
+					if (requestStart >= recordFrom) {
+						latencies.record(requestEnd - requestStart);
+						if (!ok) {
+							errors.increment();
+						}
+					}
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+	}
+
+	String report(long recordedNanos) {
+		final long requests = latencies.getCount();
+		return String.format("%d requests, %d errors, %.0f requests/s, latency p50 %d us, p99 %d us, p999 %d us, max %d us",
+				requests, errors.sum(), requests * 1e9 / recordedNanos,
+				micros(latencies.getPercentileNanos(50)), micros(latencies.getPercentileNanos(99)),
+				micros(latencies.getPercentileNanos(99.9)), micros(latencies.getMaxNanos()));
+	}
+
+	LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+	long getErrors() {
+		return errors.sum();
+	}
+
+	/**
+	 * Sends one request and reads the response fully, so the connection is kept alive.
+	 * @return whether the server answered with 200
+	 */
+	private boolean send(byte[] buffer) {
+		try {
+			final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			if (body != null) {
+				connection.setRequestMethod("POST");
+				connection.setDoOutput(true);
+				connection.setFixedLengthStreamingMode(body.length);
+				try (OutputStream outputStream = connection.getOutputStream()) {
+					outputStream.write(body);
+				}
+			}
+			final int status = connection.getResponseCode();
+			try (InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+				while (inputStream != null && inputStream.read(buffer) >= 0) {
+					// drains the response
+				}
+			}
+			return status == 200;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+}
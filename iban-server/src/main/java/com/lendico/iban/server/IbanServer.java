@@ -0,0 +1,208 @@
+package com.lendico.iban.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.management.JMException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.lendico.iban.exception.IbanServiceException;
+import com.lendico.iban.service.IbanService;
+import com.lendico.iban.service.IbanServiceImpl;
+import com.lendico.iban.service.InstrumentedIbanService;
+import com.lendico.iban.util.IbanValidationResult;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves an {@link IbanService} over HTTP with the HTTP server of the JDK. Every request runs on a
+ * virtual thread of its own on Java 21 and later, on a cached thread pool before. Responses are
+ * JSON, failures of the service are answered with status 400 and their type and message.
+ * <ul>
+ * <li>GET /validate?iban= validates one iban</li>
+ * <li>POST /validate validates the ibans of the body, one per line</li>
+ * <li>GET /generate?countryCode=&amp;bankCode=&amp;accountNumber= generates one iban</li>
+ * <li>POST /generate generates one iban per line of countryCode,bankCode,accountNumber</li>
+ * <li>GET /random?countryCode=&amp;count= generates count random ibans, 1 by default</li>
+ * </ul>
+ * Usage: <code>IbanServer [port]</code>, the metrics of the service are registered over JMX.
+ * @author noman
+ */
+public class IbanServer {
+	private static final Logger logger = LoggerFactory.getLogger(IbanServer.class);
+
+	private static final int DEFAULT_PORT = 8080;
+	private static final int BACKLOG = 1024;
+
+	private static final int OK = 200;
+	private static final int BAD_REQUEST = 400;
+	private static final int METHOD_NOT_ALLOWED = 405;
+	private static final int INTERNAL_SERVER_ERROR = 500;
+
+	private interface Endpoint {
+		/**
+		 * @return the JSON response
+		 */
+		String handle(IbanExchange exchange) throws IOException, IbanServiceException;
+	}
+
+	private final IbanService ibanService;
+	private final HttpServer httpServer;
+	private final ExecutorService executor;
+
+	/**
+	 * @param port 0 to take any free port
+	 */
+	public IbanServer(IbanService ibanService, int port) throws IOException {
+		this.ibanService = ibanService;
+		this.httpServer = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+		this.executor = newThreadPerTaskExecutor();
+		httpServer.setExecutor(executor);
+		route("/validate", this::validate, this::validateBatch);
+		route("/generate", this::generate, this::generateBatch);
+		route("/random", this::random, null);
+	}
+
+	public static void main(String[] args) throws IOException, JMException {
+		final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		final InstrumentedIbanService ibanService = new InstrumentedIbanService(new IbanServiceImpl());
+		ibanService.getMetrics().registerMBean("iban-server");
+		final IbanServer ibanServer = new IbanServer(ibanService, port);
+		Runtime.getRuntime().addShutdownHook(new Thread(ibanServer::stop));
+		ibanServer.start();
+	}
+
+	public void start() {
+		httpServer.start();
+		logger.info("Serving ibans on port {}", getPort());
+	}
+
+	/**
+	 * Stops accepting requests and waits up to a second for running ones.
+	 */
+	public void stop() {
+		httpServer.stop(1);
+		executor.shutdown();
+	}
+
+	public int getPort() {
+		return httpServer.getAddress().getPort();
+	}
+
+	/**
+	 * @return an executor starting a virtual thread per task where the JVM has them, else a
+	 * cached thread pool
+	 */
+	static ExecutorService newThreadPerTaskExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			logger.info("Virtual threads are not available, using a cached thread pool");
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	private String validate(IbanExchange exchange) {
+		final String iban = exchange.getParameter("iban");
+		final StringBuilder json = new StringBuilder();
+		IbanExchange.appendResult(json, iban, ibanService.tryValidateIban(iban));
+		return json.toString();
+	}
+
+	private String validateBatch(IbanExchange exchange) throws IOException, IbanServiceException {
+		final String[] ibans = exchange.getBodyLines().toArray(new String[0]);
+		final IbanValidationResult[] results = ibanService.validateIbans(ibans);
+		final StringBuilder json = new StringBuilder(ibans.length * 48).append('[');
+		for (int i = 0; i < ibans.length; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			IbanExchange.appendResult(json, ibans[i], results[i]);
+		}
+		return json.append(']').toString();
+	}
+
+	private String generate(IbanExchange exchange) throws IbanServiceException {
+		final StringBuilder json = new StringBuilder();
+		IbanExchange.appendIban(json, ibanService.generateIban(exchange.getParameter("countryCode"),
+				exchange.getParameter("bankCode"), exchange.getParameter("accountNumber")));
+		return json.toString();
+	}
+
+	/**
+	 * A failing line is answered with its failure, the other lines are still generated.
+	 */
+	private String generateBatch(IbanExchange exchange) throws IOException, IbanServiceException {
+		final List<String> lines = exchange.getBodyLines();
+		final StringBuilder json = new StringBuilder(lines.size() * 40).append('[');
+		for (int i = 0; i < lines.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			final String[] fields = lines.get(i).split(",", -1);
+			try {
+				if (fields.length != 3) {
+					throw new IbanServiceException("Line must hold countryCode,bankCode,accountNumber: " + lines.get(i));
+				}
+				IbanExchange.appendIban(json, ibanService.generateIban(fields[0].trim(), fields[1].trim(), fields[2].trim()));
+			} catch (IbanServiceException e) {
+				IbanExchange.appendFailure(json, e);
+			}
+		}
+		return json.append(']').toString();
+	}
+
+	private String random(IbanExchange exchange) throws IbanServiceException {
+		final int count = exchange.getIntParameter("count", 1);
+		if (count < 1 || count > IbanExchange.MAX_BATCH_SIZE) {
+			throw new IbanServiceException(String.format("count must be between 1 and %d", IbanExchange.MAX_BATCH_SIZE));
+		}
+		final List<String> ibans = ibanService.generateRandomIbans(exchange.getParameter("countryCode"), count);
+		final StringBuilder json = new StringBuilder(count * 36).append("{\"ibans\":[");
+		for (int i = 0; i < ibans.size(); i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			IbanExchange.appendString(json, ibans.get(i));
+		}
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * @param postEndpoint null if the path only answers GET
+	 */
+	private void route(String path, Endpoint getEndpoint, Endpoint postEndpoint) {
+		httpServer.createContext(path, httpExchange -> {
+			try {
+				final IbanExchange exchange = new IbanExchange(httpExchange);
+				final Endpoint endpoint = "GET".equals(exchange.getMethod()) ? getEndpoint
+						: "POST".equals(exchange.getMethod()) ? postEndpoint : null;
+				if (endpoint == null) {
+					exchange.send(METHOD_NOT_ALLOWED, "{\"message\":\"Method not allowed\"}");
+					return;
+				}
+				String json;
+				int status = OK;
+				try {
+					json = endpoint.handle(exchange);
+				} catch (IbanServiceException e) {
+					final StringBuilder failure = new StringBuilder();
+					IbanExchange.appendFailure(failure, e);
+					json = failure.toString();
+					status = BAD_REQUEST;
+				} catch (RuntimeException e) {
+					logger.error("Request to " + path + " failed", e);
+					json = "{\"message\":\"Internal error\"}";
+					status = INTERNAL_SERVER_ERROR;
+				}
+				exchange.send(status, json);
+			} finally {
+				httpExchange.close();
+			}
+		});
+	}
+}
@@ -0,0 +1,96 @@
+package com.lendico.iban.server;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lendico.iban.service.IbanServiceImpl;
+
+public class IbanServerTest {
+
+	private IbanServer ibanServer;
+	private String baseUrl;
+
+	@Before
+	public void start() throws IOException {
+		ibanServer = new IbanServer(new IbanServiceImpl(), 0);
+		ibanServer.start();
+		baseUrl = "http://localhost:" + ibanServer.getPort();
+	}
+
+	@After
+	public void stop() {
+		ibanServer.stop();
+	}
+
+	@Test
+	public void testValidate() throws IOException {
+		assertEquals("200 {\"iban\":\"DE27700600240390048400\",\"valid\":true}",
+				request("GET", "/validate?iban=DE27700600240390048400", null));
+		assertTrue(request("GET", "/validate?iban=DE28700600240390048400", null)
+				.startsWith("200 {\"iban\":\"DE28700600240390048400\",\"valid\":false,\"type\":\"invalidCheckDigit\",\"message\":"));
+		final String batch = request("POST", "/validate", "DE27700600240390048400\n\nXX27700600240390048400\n");
+		assertTrue(batch, batch.startsWith("200 [{\"iban\":\"DE27700600240390048400\",\"valid\":true},"
+				+ "{\"iban\":\"XX27700600240390048400\",\"valid\":false,\"type\":\"invalidCountryCode\""));
+	}
+
+	@Test
+	public void testGenerate() throws IOException {
+		assertEquals("200 {\"iban\":\"DE27700600240390048400\"}",
+				request("GET", "/generate?countryCode=DE&bankCode=70060024&accountNumber=0390048400", null));
+		assertEquals("400 {\"type\":null,\"message\":\"countryCode, bankCode and accountNumber must be filled\"}",
+				request("GET", "/generate?countryCode=DE", null));
+		final String batch = request("POST", "/generate", "DE,70060024,0390048400\nDE,70060024\n");
+		assertTrue(batch, batch.startsWith("200 [{\"iban\":\"DE27700600240390048400\"},{\"type\":null,"));
+	}
+
+	@Test
+	public void testRandom() throws IOException {
+		assertTrue(request("GET", "/random?countryCode=NL", null).matches("200 \\{\"ibans\":\\[\"NL\\w{16}\"\\]\\}"));
+		assertEquals(3, request("GET", "/random?countryCode=NL&count=3", null).split("NL").length - 1);
+		assertTrue(request("GET", "/random?countryCode=XX", null).startsWith("400 {\"type\":\"invalidCountryCode\""));
+		assertTrue(request("GET", "/random?countryCode=NL&count=0", null).startsWith("400 "));
+		assertTrue(request("POST", "/random?countryCode=NL", "").startsWith("405 "));
+	}
+
+	@Test
+	public void testLoadGenerator() throws IOException, InterruptedException {
+		final IbanLoadGenerator loadGenerator = new IbanLoadGenerator(baseUrl, "validateBatch");
+		loadGenerator.run(4, TimeUnit.MILLISECONDS.toNanos(500));
+		assertTrue(loadGenerator.getLatencies().getCount() > 0);
+		assertEquals(0, loadGenerator.getErrors());
+		assertTrue(loadGenerator.report(TimeUnit.MILLISECONDS.toNanos(400)).contains("requests/s"));
+	}
+
+	private String request(String method, String path, String body) throws IOException {
+		final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		if (body != null) {
+			connection.setDoOutput(true);
+			try (OutputStream outputStream = connection.getOutputStream()) {
+				outputStream.write(body.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		final int status = connection.getResponseCode();
+		final ByteArrayOutputStream response = new ByteArrayOutputStream();
+		try (InputStream inputStream = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+			final byte[] buffer = new byte[4096];
+			int read;
+			while ((read = inputStream.read(buffer)) >= 0) {
+				response.write(buffer, 0, read);
+			}
+		}
+		return status + " " + new String(response.toByteArray(), StandardCharsets.UTF_8);
+	}
+}